@@ -0,0 +1,52 @@
+package com.ada.microservices.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Habilita a abstração de cache do Spring. O provedor e seus limites (tamanho, expiração) vêm das propriedades
+ * {@code spring.cache.*}, então o Caffeine pode ser trocado por outro provedor sem mudar o código.
+ * <p>
+ * O advice de cache envolve o transacional, então o descarte de uma entrada só acontece depois do commit da
+ * transação, e uma leitura concorrente não devolve ao cache o estado anterior.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String PRODUTOS_CACHE = "produtos";
+
+    /**
+     * Monta os caches do Caffeine no modo assíncrono, com a especificação de {@code spring.cache.caffeine.spec}.
+     * Em uma falta sincronizada ({@code @Cacheable(sync = true)}), a carga roda fora do lock interno do Caffeine,
+     * e as leituras concorrentes da mesma chave esperam pelo mesmo future em vez de um monitor, que prenderia a
+     * thread portadora com threads virtuais.
+     * <p>
+     * As cargas rodam em threads virtuais próprias, e não no {@code ForkJoinPool.commonPool}, padrão do Caffeine:
+     * cada carga fica bloqueada no banco ou no lote do {@code ProdutoLeituraAgrupada}, e muitas faltas de IDs
+     * distintos ao mesmo tempo esgotariam o pool comum.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineAssincrono(CacheProperties cacheProperties) {
+        Executor cargas = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-carga-", 0).factory());
+        return cacheManager -> {
+            String especificacao = cacheProperties.getCaffeine().getSpec();
+            Caffeine<Object, Object> caffeine = StringUtils.hasText(especificacao)
+                    ? Caffeine.from(especificacao)
+                    : Caffeine.newBuilder();
+            cacheManager.setAsyncCacheMode(true);
+            cacheManager.setCaffeine(caffeine.executor(cargas));
+        };
+    }
+}
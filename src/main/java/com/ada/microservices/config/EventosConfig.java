@@ -0,0 +1,38 @@
+package com.ada.microservices.config;
+
+import com.ada.microservices.products.service.ArquivoProdutoEventoSink;
+import com.ada.microservices.products.service.MemoriaProdutoEventoSink;
+import com.ada.microservices.products.service.ProdutoEventoSink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Selects the sink the outbox relay publishes to, through {@code produtos.eventos.sink} ({@code memoria} or
+ * {@code arquivo}). Any other {@link ProdutoEventoSink} bean, such as a message broker adapter, takes precedence
+ * over both.
+ */
+@Configuration
+public class EventosConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ProdutoEventoSink.class)
+    @ConditionalOnProperty(name = "produtos.eventos.sink", havingValue = "arquivo")
+    public ArquivoProdutoEventoSink arquivoProdutoEventoSink(@Value("${produtos.eventos.arquivo:produtos-eventos.ndjson}") Path arquivo,
+                                                             ObjectMapper objectMapper) {
+        return new ArquivoProdutoEventoSink(arquivo, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ProdutoEventoSink.class)
+    public MemoriaProdutoEventoSink memoriaProdutoEventoSink(@Value("${produtos.eventos.memoria.capacidade:10000}") int capacidade) {
+        return new MemoriaProdutoEventoSink(capacidade);
+    }
+}
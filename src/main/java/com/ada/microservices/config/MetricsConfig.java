@@ -0,0 +1,26 @@
+package com.ada.microservices.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Nome do timer dos métodos de serviço anotados com {@code @Timed}; as tags {@code class} e
+     * {@code method} identificam a operação.
+     */
+    public static final String SERVICO_TIMER = "produtos.servico";
+
+    /**
+     * Habilita {@code @Timed} em beans do Spring (fora dos controllers, que já são medidos pelo
+     * {@code http.server.requests}).
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
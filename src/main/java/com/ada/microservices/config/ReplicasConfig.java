@@ -0,0 +1,60 @@
+package com.ada.microservices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura, ativadas por {@code produtos.replicas.urls}. O primário continua configurado por
+ * {@code spring.datasource.*}; cada réplica tem seu próprio pool, com as mesmas propriedades de driver do primário.
+ * Os métodos {@code @Transactional(readOnly = true)} leem das réplicas; escritas e demais transações usam o primário.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "produtos.replicas", name = "urls")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource primarioDataSource,
+                                                     @Value("${produtos.replicas.urls}") String[] urls,
+                                                     @Value("${produtos.replicas.usuario:${spring.datasource.username:}}") String usuario,
+                                                     @Value("${produtos.replicas.senha:${spring.datasource.password:}}") String senha,
+                                                     @Value("${produtos.replicas.tamanho-pool:10}") int tamanhoPool) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setUsername(usuario);
+            replica.setPassword(senha);
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setConnectionTimeout(primarioDataSource.getConnectionTimeout());
+            replica.setDataSourceProperties(primarioDataSource.getDataSourceProperties());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new RoteamentoDataSource(primarioDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ada.microservices.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envia as transações somente leitura às réplicas, em rodízio, e todo o resto ao primário.
+ * <p>
+ * A decisão é tomada quando a conexão física é obtida, por isso este DataSource deve ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a conexão só é pedida no primeiro
+ * comando, quando a transação já está marcada como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARIO = "primario";
+    private static final ThreadLocal<Boolean> FORCAR_PRIMARIO = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final List<DataSource> replicas;
+    private final List<String> chavesReplicas = new ArrayList<>();
+    private final AtomicInteger proximaReplica = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> alvos = new HashMap<>();
+        alvos.put(PRIMARIO, primario);
+        for (int i = 0; i < replicas.size(); i++) {
+            String chave = "replica-" + i;
+            alvos.put(chave, replicas.get(i));
+            chavesReplicas.add(chave);
+        }
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(primario);
+    }
+
+    /**
+     * Executa a leitura no primário mesmo dentro de uma transação somente leitura, para ler os próprios dados
+     * quando as réplicas ainda podem estar atrasadas.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        Boolean anterior = FORCAR_PRIMARIO.get();
+        FORCAR_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            FORCAR_PRIMARIO.set(anterior);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (chavesReplicas.isEmpty() || FORCAR_PRIMARIO.get()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+        return chavesReplicas.get(Math.floorMod(proximaReplica.getAndIncrement(), chavesReplicas.size()));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+}
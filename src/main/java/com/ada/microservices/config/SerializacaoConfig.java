@@ -0,0 +1,46 @@
+package com.ada.microservices.config;
+
+import com.ada.microservices.products.controller.ProdutoJsonHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formato binário Smile, negociado pelo cabeçalho {@code Accept}/{@code Content-Type}, para chamadas entre
+ * serviços. Tem o mesmo modelo de dados do JSON, mas os números são gravados em binário e os nomes de campos
+ * e os textos repetidos (como a categoria) são referências a ocorrências anteriores, em vez de repetidos a
+ * cada produto.
+ * <p>
+ * Em JSON, as respostas de produtos são escritas pelo {@link ProdutoJsonHttpMessageConverter}, que o Spring Boot
+ * coloca antes dos conversores padrão; os demais tipos continuam com o Jackson.
+ */
+@Configuration
+public class SerializacaoConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Substitui o conversor Smile padrão do Spring MVC por um que usa as mesmas configurações do
+     * {@code ObjectMapper} JSON do Spring Boot.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory fabrica = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(fabrica).build());
+    }
+
+    /**
+     * Conversor especializado para as respostas de produtos em JSON, com a mesma saída do {@code ObjectMapper}.
+     */
+    @Bean
+    public ProdutoJsonHttpMessageConverter produtoJsonHttpMessageConverter() {
+        return new ProdutoJsonHttpMessageConverter();
+    }
+}
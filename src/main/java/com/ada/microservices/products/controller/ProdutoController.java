@@ -1,29 +1,62 @@
 package com.ada.microservices.products.controller;
 
+import com.ada.microservices.config.SerializacaoConfig;
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
 import com.ada.microservices.products.dto.ProdutoRequestDTO;
 import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.dto.ProdutoSincronizacaoDTO;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.service.ProdutoAtualizacaoAssincrona;
 import com.ada.microservices.products.service.ProdutoService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.validation.Valid;
+
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
-@RequestMapping(value = "/produtos", produces = "application/json")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/produtos", produces = {MediaType.APPLICATION_JSON_VALUE, SerializacaoConfig.APPLICATION_SMILE_VALUE})
 @Tag(name = "Produtos", description = "Gerenciamento de Produtos")
 public class ProdutoController {
 
+    private static final int TAMANHO_LOTE_STREAMING = 500;
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final ProdutoService produtoService;
+    private final ObjectMapper objectMapper;
+    private final ProdutoAtualizacaoAssincrona atualizacaoAssincrona;
 
     @Autowired
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService, ObjectMapper objectMapper,
+                             ProdutoAtualizacaoAssincrona atualizacaoAssincrona) {
         this.produtoService = produtoService;
+        this.objectMapper = objectMapper;
+        this.atualizacaoAssincrona = atualizacaoAssincrona;
     }
 
     /**
@@ -34,13 +67,16 @@ public class ProdutoController {
      */
     @PostMapping
     @Operation(summary = "Criar Produto", description = "Cria um novo produto no sistema.")
-    public ResponseEntity<ProdutoResponseDTO> criarProduto(@RequestBody ProdutoRequestDTO produtoRequestDTO) {
+    public ResponseEntity<ProdutoResponseDTO> criarProduto(@Valid @RequestBody ProdutoRequestDTO produtoRequestDTO) {
         ProdutoResponseDTO responseDTO = produtoService.criarProduto(produtoRequestDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
+        return ProdutoETags.comETag(ResponseEntity.status(HttpStatus.CREATED), responseDTO);
     }
 
     /**
      * Obtém um produto pelo seu ID.
+     * <p>
+     * A resposta traz a versão do produto como ETag. Quando o cliente envia {@code If-None-Match} com a
+     * versão atual, o Spring MVC responde 304 sem corpo e sem serializar o produto.
      *
      * @param id o ID do produto a ser obtido
      * @return ResponseEntity contendo o ProdutoResponseDTO do produto obtido
@@ -49,33 +85,141 @@ public class ProdutoController {
     @Operation(summary = "Obter Produto", description = "Busca um produto pelo ID.")
     public ResponseEntity<ProdutoResponseDTO> obterProduto(@PathVariable Long id) {
         ProdutoResponseDTO responseDTO = produtoService.buscarProdutoPorId(id);
-        return ResponseEntity.ok(responseDTO);
+        return ProdutoETags.comETag(ResponseEntity.ok(), responseDTO);
     }
 
     /**
-     * Lista todos os produtos.
+     * Lista os produtos, opcionalmente filtrados por categoria, faixa de preço e prefixo do nome.
+     * <p>
+     * O corpo continua sendo um array com todos os produtos, mas eles são lidos do banco em lotes e escritos na
+     * saída à medida que o conversor (JSON ou Smile) percorre o {@link Iterable}, sem montar a lista inteira.
      *
-     * @return ResponseEntity contendo a lista de ProdutoResponseDTO
+     * @param filtro os filtros da listagem; sem filtros, lista todos os produtos
+     * @return ResponseEntity contendo os produtos, ordenados por ID
      */
     @GetMapping
-    @Operation(summary = "Listar Produtos", description = "Lista todos os produtos disponíveis no sistema.")
-    public ResponseEntity<List<ProdutoResponseDTO>> listarTodosProdutos() {
-        List<ProdutoResponseDTO> produtos = produtoService.listarTodosProdutos();
+    @Operation(summary = "Listar Produtos", description = "Lista os produtos disponíveis no sistema, filtrando no banco por categoria, precoMin, precoMax e prefixo do nome quando informados.")
+    public ResponseEntity<Iterable<ProdutoResponseDTO>> listarTodosProdutos(@ParameterObject ProdutoFiltroDTO filtro) {
+        Iterable<ProdutoResponseDTO> produtos = produtoService.percorrerProdutos(filtro, TAMANHO_LOTE_STREAMING);
+        return ResponseEntity.ok(produtos);
+    }
+
+    /**
+     * Lista os produtos paginados por cursor (keyset), com os mesmos filtros da listagem.
+     *
+     * @param filtro os filtros da listagem
+     * @param after o ID do último produto recebido; omitido na primeira página
+     * @param limit a quantidade máxima de produtos por página
+     * @return ResponseEntity contendo a página de produtos e o cursor da próxima página
+     */
+    @GetMapping(params = {"limit", "!modifiedSince"})
+    @Operation(summary = "Listar Produtos Paginados", description = "Lista os produtos em páginas ordenadas por ID, a partir do cursor informado.")
+    public ResponseEntity<ProdutoPaginaDTO> listarProdutosPaginados(@ParameterObject ProdutoFiltroDTO filtro,
+                                                                    @RequestParam(value = "after", required = false) Long after,
+                                                                    @RequestParam("limit") int limit) {
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(filtro, after, limit);
+        return ResponseEntity.ok(pagina);
+    }
+
+    /**
+     * Sincronização incremental de uma cópia local do catálogo: apenas os produtos alterados e os removidos
+     * desde {@code modifiedSince}, em vez da listagem completa, em páginas de até {@code limit} itens.
+     *
+     * @param modifiedSince o instante (ISO-8601) da sincronização anterior, ou seja, o seu {@code proximoCursor}
+     * @param after a {@code continuacao} da página anterior; omitida na primeira página
+     * @param limit a quantidade máxima de produtos e removidos por página
+     * @return ResponseEntity contendo os produtos alterados, os IDs removidos e a continuação ou, na última página,
+     *         o cursor da próxima sincronização
+     */
+    @GetMapping(params = "modifiedSince")
+    @Operation(summary = "Sincronizar Produtos", description = "Lista os produtos criados ou alterados e os IDs dos removidos desde o instante informado, em páginas. Responde 410 se o instante for anterior à retenção das remoções.")
+    public ResponseEntity<ProdutoSincronizacaoDTO> sincronizarProdutos(@RequestParam("modifiedSince") Instant modifiedSince,
+                                                                       @RequestParam(value = "after", required = false) String after,
+                                                                       @RequestParam(value = "limit", defaultValue = "" + ProdutoService.LIMITE_MAXIMO_PAGINA) int limit) {
+        return ResponseEntity.ok(produtoService.sincronizarDesde(modifiedSince, after, limit));
+    }
+
+    /**
+     * Busca produtos pelo nome e pela descrição, ignorando acentos e casando cada termo com o início das palavras.
+     *
+     * @param q os termos buscados
+     * @param limit a quantidade máxima de produtos retornados
+     * @return ResponseEntity contendo os produtos encontrados, ordenados por ID
+     */
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar Produtos", description = "Busca textual por nome e descrição, com suporte a digitação incremental (prefixos).")
+    public ResponseEntity<List<ProdutoResponseDTO>> buscarProdutos(@RequestParam("q") String q,
+                                                                   @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        List<ProdutoResponseDTO> produtos = produtoService.buscarPorTexto(q, limit);
         return ResponseEntity.ok(produtos);
     }
 
     /**
-     * Atualiza um produto existente.
+     * Exporta todo o catálogo como NDJSON, escrevendo os produtos à medida que são lidos do banco.
+     *
+     * @return ResponseEntity contendo o corpo transmitido em partes
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar Produtos", description = "Transmite todos os produtos em NDJSON, um por linha, sem carregar o catálogo em memória.")
+    public ResponseEntity<StreamingResponseBody> exportarProdutos() {
+        ObjectWriter escritor = objectMapper.writerFor(ProdutoResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody corpo = saida -> {
+            JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+            gerador.setRootValueSeparator(null);
+            try {
+                produtoService.percorrerProdutos(TAMANHO_LOTE_STREAMING, produto -> {
+                    try {
+                        escritor.writeValue(gerador, produto);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gerador.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    /**
+     * Atualiza um produto existente, substituindo todos os campos: a descrição, opcional, é apagada quando
+     * omitida no corpo.
+     * <p>
+     * Com {@code Prefer: respond-async} e a atualização assíncrona habilitada, a atualização é apenas registrada
+     * para gravação em lote e a resposta é 202, sem corpo; uma requisição condicional ({@code If-Match}) é
+     * sempre atualizada na hora.
      *
      * @param id o ID do produto a ser atualizado
+     * @param ifMatch ETag da versão conhecida pelo cliente; se o produto tiver outra versão, responde 412. Com
+     *                {@code *}, responde 412 se o produto não existir
+     * @param prefer preferências do cliente (RFC 7240); {@code respond-async} aceita a gravação em segundo plano
      * @param produtoRequestDTO os dados do produto a serem atualizados
-     * @return ResponseEntity contendo o ProdutoResponseDTO do produto atualizado
+     * @return ResponseEntity contendo o ProdutoResponseDTO do produto atualizado e, com {@code If-Match} de uma
+     *         versão, o ETag da nova versão, ou 202 quando aceito para gravação
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar Produto", description = "Atualiza os dados de um produto existente.")
-    public ResponseEntity<ProdutoResponseDTO> atualizarProduto(@PathVariable Long id, @RequestBody ProdutoRequestDTO produtoRequestDTO) {
-        ProdutoResponseDTO responseDTO = produtoService.atualizarProduto(id, produtoRequestDTO);
-        return ResponseEntity.ok(responseDTO);
+    @Operation(summary = "Atualizar Produto", description = "Substitui os dados de um produto existente; uma descrição omitida é apagada. Com Prefer: respond-async, a atualização pode ser aceita (202) para gravação em lote.")
+    public ResponseEntity<ProdutoResponseDTO> atualizarProduto(@PathVariable Long id,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                               @RequestHeader(value = PREFER, required = false) String prefer,
+                                                               @Valid @RequestBody ProdutoRequestDTO produtoRequestDTO) {
+        if (ifMatch == null && prefereAssincrono(prefer) && atualizacaoAssincrona.isHabilitada()) {
+            atualizacaoAssincrona.aceitar(id, produtoRequestDTO);
+            return ResponseEntity.accepted().header(PREFERENCE_APPLIED, RESPOND_ASYNC).build();
+        }
+        ProdutoResponseDTO responseDTO;
+        try {
+            responseDTO = produtoService.atualizarProduto(id, produtoRequestDTO, ProdutoETags.versaoDeIfMatch(ifMatch));
+        } catch (ResourceNotFoundException e) {
+            if (ProdutoETags.qualquerVersao(ifMatch)) {
+                throw new PreconditionFailedException("O produto com ID " + id + " não existe");
+            }
+            throw e;
+        }
+        return ProdutoETags.comETag(ResponseEntity.ok(), responseDTO);
     }
 
     /**
@@ -90,4 +234,17 @@ public class ProdutoController {
         produtoService.deletarProduto(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static boolean prefereAssincrono(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preferencia : prefer.split(",")) {
+            String nome = preferencia.split("[;=]", 2)[0].trim();
+            if (nome.equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conversão entre a versão de um produto e o ETag forte usado nos cabeçalhos HTTP.
+ */
+final class ProdutoETags {
+
+    private ProdutoETags() {
+    }
+
+    static String deVersao(Long versao) {
+        return versao == null ? null : "\"" + versao + "\"";
+    }
+
+    /**
+     * Resposta com o produto no corpo e a sua versão no cabeçalho {@code ETag}, quando conhecida.
+     */
+    static ResponseEntity<ProdutoResponseDTO> comETag(ResponseEntity.BodyBuilder builder, ProdutoResponseDTO produto) {
+        String etag = deVersao(produto.getVersao());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(produto);
+    }
+
+    /**
+     * {@code If-Match: *} exige apenas que o produto exista: sobre um produto inexistente a resposta é 412, e
+     * não 404 (RFC 9110, 13.1.1).
+     */
+    static boolean qualquerVersao(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+
+    /**
+     * Extrai a versão de um cabeçalho {@code If-Match}. Retorna {@code null} quando o cabeçalho está ausente
+     * ou é {@code *} (qualquer versão). ETags fracos nunca correspondem em {@code If-Match} (RFC 9110).
+     */
+    static Long versaoDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
+        try {
+            return Long.parseLong(etag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("ETag inválido em If-Match: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.AjusteEstoqueDTO;
+import com.ada.microservices.products.service.ProdutoEstoqueService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/produtos/{id}/estoque", produces = "application/json")
+@Tag(name = "Estoque", description = "Ajustes de estoque de produtos")
+public class ProdutoEstoqueController {
+
+    private final ProdutoEstoqueService produtoEstoqueService;
+
+    @Autowired
+    public ProdutoEstoqueController(ProdutoEstoqueService produtoEstoqueService) {
+        this.produtoEstoqueService = produtoEstoqueService;
+    }
+
+    /**
+     * Soma uma variação (positiva ou negativa) à quantidade em estoque do produto.
+     *
+     * @param id o ID do produto
+     * @param ajuste a variação a ser aplicada
+     * @return 204 quando o ajuste foi aplicado, ou 202 quando foi aceito para gravação em lote
+     */
+    @PostMapping
+    @Operation(summary = "Ajustar Estoque", description = "Aplica uma variação à quantidade em estoque sem sobrescrever o produto.")
+    public ResponseEntity<Void> ajustarEstoque(@PathVariable Long id, @Valid @RequestBody AjusteEstoqueDTO ajuste) {
+        ProdutoEstoqueService.Resultado resultado = produtoEstoqueService.ajustarEstoque(id, ajuste.getDelta());
+        if (resultado == ProdutoEstoqueService.Resultado.ACUMULADO) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
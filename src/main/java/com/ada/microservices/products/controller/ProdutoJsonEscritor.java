@@ -0,0 +1,282 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve os produtos em JSON direto em um buffer de bytes, descarregado na saída sempre que enche. Os nomes dos
+ * campos já estão codificados, os números são convertidos em dígitos no próprio buffer e os textos são
+ * codificados em UTF-8 caractere a caractere, sem {@code String}s ou {@code byte[]} intermediários.
+ * <p>
+ * A saída é idêntica, byte a byte, à do {@code ObjectMapper} padrão escrevendo em bytes
+ * ({@code writeValueAsBytes}) o mesmo DTO: mesma ordem de campos, {@code null} explícito, os mesmos escapes,
+ * inclusive dos surrogates, e os números de ponto flutuante no formato de {@link Double#toString(double)}.
+ * Não é thread-safe; cada resposta usa o seu.
+ */
+final class ProdutoJsonEscritor {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] NOME = ascii(",\"nome\":");
+    private static final byte[] CATEGORIA = ascii(",\"categoria\":");
+    private static final byte[] PRECO = ascii(",\"preco\":");
+    private static final byte[] QUANTIDADE = ascii(",\"quantidade\":");
+    private static final byte[] DESCRICAO = ascii(",\"descricao\":");
+    private static final byte[] PRODUTOS = ascii("{\"produtos\":");
+    private static final byte[] PROXIMO_CURSOR = ascii(",\"proximoCursor\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+    private static final long BITS_ZERO_NEGATIVO = Double.doubleToRawLongBits(-0.0);
+
+    // maior sequência escrita de uma vez fora dos textos: um long com sinal (20 bytes) ou um caractere escapado (6)
+    private static final int RESERVA = 24;
+
+    private final OutputStream saida;
+    private final byte[] buffer;
+    private int posicao;
+
+    ProdutoJsonEscritor(OutputStream saida, byte[] buffer) {
+        this.saida = saida;
+        this.buffer = buffer;
+    }
+
+    void escreverPagina(ProdutoPaginaDTO pagina) throws IOException {
+        escrever(PRODUTOS);
+        escreverLista(pagina.getProdutos());
+        escrever(PROXIMO_CURSOR);
+        escreverLong(pagina.getProximoCursor());
+        escreverByte('}');
+    }
+
+    void escreverLista(Iterable<ProdutoResponseDTO> produtos) throws IOException {
+        if (produtos == null) {
+            escrever(NULL);
+            return;
+        }
+        escreverByte('[');
+        boolean primeiro = true;
+        for (ProdutoResponseDTO produto : produtos) {
+            if (!primeiro) {
+                escreverByte(',');
+            }
+            escreverProduto(produto);
+            primeiro = false;
+        }
+        escreverByte(']');
+    }
+
+    void escreverProduto(ProdutoResponseDTO produto) throws IOException {
+        if (produto == null) {
+            escrever(NULL);
+            return;
+        }
+        escrever(ID);
+        escreverLong(produto.getId());
+        escrever(NOME);
+        escreverTexto(produto.getNome());
+        escrever(CATEGORIA);
+        escreverTexto(produto.getCategoria());
+        escrever(PRECO);
+        escreverDouble(produto.getPreco());
+        escrever(QUANTIDADE);
+        escreverInteger(produto.getQuantidade());
+        escrever(DESCRICAO);
+        escreverTexto(produto.getDescricao());
+        escreverByte('}');
+    }
+
+    /**
+     * Envia o que restou no buffer para a saída, sem descarregar a própria saída.
+     */
+    void concluir() throws IOException {
+        descarregar();
+    }
+
+    private void escreverInteger(Integer valor) throws IOException {
+        if (valor == null) {
+            escrever(NULL);
+        } else {
+            escreverLong(valor.intValue());
+        }
+    }
+
+    private void escreverLong(Long valor) throws IOException {
+        if (valor == null) {
+            escrever(NULL);
+        } else {
+            escreverLong(valor.longValue());
+        }
+    }
+
+    private void escreverLong(long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            escrever(ascii(Long.toString(valor)));
+            return;
+        }
+        reservar(RESERVA);
+        if (valor < 0) {
+            buffer[posicao++] = '-';
+            valor = -valor;
+        }
+        escreverDigitos(valor);
+    }
+
+    /**
+     * Valores com no máximo duas casas decimais e magnitude abaixo de 10^7 (a faixa em que
+     * {@link Double#toString(double)} não usa notação científica), como os preços, são escritos sem alocação: a
+     * representação mais curta de um double que é exatamente {@code centavos / 100.0} é esse próprio decimal, já
+     * que nessa faixa dois decimais distintos de duas casas nunca arredondam para o mesmo double. Os demais
+     * valores usam {@link Double#toString(double)}, como o Jackson.
+     */
+    private void escreverDouble(Double valor) throws IOException {
+        if (valor == null) {
+            escrever(NULL);
+            return;
+        }
+        double d = valor;
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            // como WRITE_NAN_AS_STRINGS, habilitado por padrão no Jackson
+            escreverByte('"');
+            escrever(ascii(Double.toString(d)));
+            escreverByte('"');
+            return;
+        }
+        if (d > -1e7 && d < 1e7 && Double.doubleToRawLongBits(d) != BITS_ZERO_NEGATIVO) {
+            long centavos = Math.round(d * 100);
+            if (centavos / 100.0 == d) {
+                reservar(RESERVA);
+                if (centavos < 0) {
+                    buffer[posicao++] = '-';
+                    centavos = -centavos;
+                }
+                escreverDigitos(centavos / 100);
+                int fracao = (int) (centavos % 100);
+                buffer[posicao++] = '.';
+                buffer[posicao++] = (byte) ('0' + fracao / 10);
+                if (fracao % 10 != 0) {
+                    buffer[posicao++] = (byte) ('0' + fracao % 10);
+                }
+                return;
+            }
+        }
+        escrever(ascii(Double.toString(d)));
+    }
+
+    /**
+     * Dígitos de um valor não negativo; o espaço já deve estar reservado.
+     */
+    private void escreverDigitos(long valor) {
+        int inicio = posicao;
+        do {
+            buffer[posicao++] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor != 0);
+        for (int i = inicio, j = posicao - 1; i < j; i++, j--) {
+            byte digito = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digito;
+        }
+    }
+
+    private void escreverTexto(String texto) throws IOException {
+        if (texto == null) {
+            escrever(NULL);
+            return;
+        }
+        escreverByte('"');
+        int tamanho = texto.length();
+        for (int i = 0; i < tamanho; i++) {
+            if (posicao + RESERVA > buffer.length) {
+                descarregar();
+            }
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[posicao++] = (byte) c;
+                } else {
+                    escreverEscape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[posicao++] = (byte) (0xC0 | (c >> 6));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // como o gerador UTF-8 do Jackson: cada surrogate, em par ou isolado, vira o escape de quatro dígitos
+                escreverEscapeUnicode(c);
+            } else {
+                buffer[posicao++] = (byte) (0xE0 | (c >> 12));
+                buffer[posicao++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        escreverByte('"');
+    }
+
+    /**
+     * Os mesmos escapes do Jackson: forma curta para aspas, barra invertida e os controles usuais, e o código
+     * hexadecimal de quatro dígitos para os demais caracteres de controle.
+     */
+    private void escreverEscape(char c) {
+        byte curto = switch (c) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+        if (curto == 0) {
+            escreverEscapeUnicode(c);
+        } else {
+            buffer[posicao++] = '\\';
+            buffer[posicao++] = curto;
+        }
+    }
+
+    private void escreverEscapeUnicode(char c) {
+        buffer[posicao++] = '\\';
+        buffer[posicao++] = 'u';
+        buffer[posicao++] = HEX[c >> 12];
+        buffer[posicao++] = HEX[(c >> 8) & 0xF];
+        buffer[posicao++] = HEX[(c >> 4) & 0xF];
+        buffer[posicao++] = HEX[c & 0xF];
+    }
+
+    private void escreverByte(char c) throws IOException {
+        reservar(1);
+        buffer[posicao++] = (byte) c;
+    }
+
+    private void escrever(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - posicao) {
+            descarregar();
+            if (bytes.length > buffer.length) {
+                saida.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+        posicao += bytes.length;
+    }
+
+    private void reservar(int bytes) throws IOException {
+        if (posicao + bytes > buffer.length) {
+            descarregar();
+        }
+    }
+
+    private void descarregar() throws IOException {
+        if (posicao > 0) {
+            saida.write(buffer, 0, posicao);
+            posicao = 0;
+        }
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Conversor JSON apenas de escrita para as respostas de produtos de {@link ProdutoController}: um
+ * {@link ProdutoResponseDTO}, uma lista ou {@link Iterable} deles e a {@link ProdutoPaginaDTO}. Os demais tipos,
+ * a leitura das requisições e o Smile continuam com os conversores Jackson.
+ * <p>
+ * Os produtos são escritos pelo {@link ProdutoJsonEscritor} em um buffer descarregado direto na saída da
+ * resposta, sem a introspecção e as conversões do {@code ObjectMapper}. Os buffers são reaproveitados entre as
+ * respostas por um pool limitado (uma fila, já que com threads virtuais um buffer por thread não seria
+ * reaproveitado). Uma vez aquecido, o conversor aloca apenas o escritor de cada resposta e, para os números
+ * fora do caminho rápido do escritor, o texto de {@link Double#toString(double)}.
+ */
+public class ProdutoJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final int TAMANHO_BUFFER = 8 * 1024;
+    private static final int BUFFERS_NO_POOL = 256;
+
+    private final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(BUFFERS_NO_POOL);
+
+    public ProdutoJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Escreve o valor em JSON na saída, sem descarregá-la nem fechá-la.
+     *
+     * @param valor um {@link ProdutoResponseDTO}, {@link ProdutoPaginaDTO} ou {@link Iterable} de produtos
+     */
+    @SuppressWarnings("unchecked")
+    public void escrever(Object valor, OutputStream saida) throws IOException {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[TAMANHO_BUFFER];
+        }
+        try {
+            ProdutoJsonEscritor escritor = new ProdutoJsonEscritor(saida, buffer);
+            if (valor instanceof ProdutoResponseDTO produto) {
+                escritor.escreverProduto(produto);
+            } else if (valor instanceof ProdutoPaginaDTO pagina) {
+                escritor.escreverPagina(pagina);
+            } else {
+                escritor.escreverLista((Iterable<ProdutoResponseDTO>) valor);
+            }
+            escritor.concluir();
+        } finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ProdutoResponseDTO.class || clazz == ProdutoPaginaDTO.class;
+    }
+
+    /**
+     * Além das classes de {@link #supports}, aceita qualquer {@link Iterable} declarado com elementos
+     * {@link ProdutoResponseDTO}, como o retorno da listagem e da busca.
+     */
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return suportaTipo(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object valor, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        escrever(valor, outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Conversor somente de escrita", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Conversor somente de escrita", inputMessage);
+    }
+
+    static boolean suportaTipo(Type tipo) {
+        if (tipo instanceof Class<?> classe) {
+            return classe == ProdutoResponseDTO.class || classe == ProdutoPaginaDTO.class;
+        }
+        return tipo instanceof ParameterizedType parametrizado
+                && parametrizado.getRawType() instanceof Class<?> bruto
+                && Iterable.class.isAssignableFrom(bruto)
+                && parametrizado.getActualTypeArguments()[0] == ProdutoResponseDTO.class;
+    }
+}
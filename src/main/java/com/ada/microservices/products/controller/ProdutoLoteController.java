@@ -0,0 +1,66 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoAtualizacaoLoteDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.service.ProdutoLoteService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/produtos/batch", produces = "application/json")
+@Tag(name = "Produtos em Lote", description = "Criação, atualização e remoção de produtos em lote")
+public class ProdutoLoteController {
+
+    private final ProdutoLoteService produtoLoteService;
+
+    @Autowired
+    public ProdutoLoteController(ProdutoLoteService produtoLoteService) {
+        this.produtoLoteService = produtoLoteService;
+    }
+
+    /**
+     * Cria vários produtos em uma única requisição.
+     *
+     * @param produtos os produtos a serem criados
+     * @return ResponseEntity contendo o resultado de cada item, na mesma ordem da requisição
+     */
+    @PostMapping
+    @Operation(summary = "Criar Produtos em Lote", description = "Cria vários produtos, retornando o resultado de cada item.")
+    public ResponseEntity<List<ProdutoLoteResultadoDTO>> criarProdutos(@RequestBody List<ProdutoRequestDTO> produtos) {
+        return ResponseEntity.ok(produtoLoteService.criarProdutos(produtos));
+    }
+
+    /**
+     * Atualiza vários produtos em uma única requisição.
+     *
+     * @param produtos os produtos a serem atualizados, cada um com seu ID
+     * @return ResponseEntity contendo o resultado de cada item, na mesma ordem da requisição
+     */
+    @PutMapping
+    @Operation(summary = "Atualizar Produtos em Lote", description = "Atualiza vários produtos, retornando o resultado de cada item.")
+    public ResponseEntity<List<ProdutoLoteResultadoDTO>> atualizarProdutos(@RequestBody List<ProdutoAtualizacaoLoteDTO> produtos) {
+        return ResponseEntity.ok(produtoLoteService.atualizarProdutos(produtos));
+    }
+
+    /**
+     * Remove vários produtos em uma única requisição.
+     *
+     * @param ids os IDs dos produtos a serem removidos
+     * @return ResponseEntity contendo o resultado de cada item, na mesma ordem da requisição
+     */
+    @DeleteMapping
+    @Operation(summary = "Deletar Produtos em Lote", description = "Remove vários produtos pelos IDs, retornando o resultado de cada item.")
+    public ResponseEntity<List<ProdutoLoteResultadoDTO>> deletarProdutos(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(produtoLoteService.deletarProdutos(ids));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoMudancasDTO;
+import com.ada.microservices.products.service.ProdutoEventoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/produtos/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Alterações", description = "Feed incremental de alterações de produtos")
+public class ProdutoMudancasController {
+
+    /**
+     * Abaixo do tempo limite padrão das requisições assíncronas do Tomcat (30 segundos).
+     */
+    static final int ESPERA_MAXIMA_SEGUNDOS = 25;
+
+    private final ProdutoEventoService produtoEventoService;
+
+    @Autowired
+    public ProdutoMudancasController(ProdutoEventoService produtoEventoService) {
+        this.produtoEventoService = produtoEventoService;
+    }
+
+    /**
+     * Lista as alterações de produtos publicadas depois da posição {@code since}, para que os consumidores
+     * sincronizem sua cópia do catálogo de forma incremental em vez de reler {@code GET /produtos}.
+     * <p>
+     * Com {@code wait}, a requisição fica pendente até que uma alteração seja publicada ou o tempo acabe
+     * (long-poll), sem ocupar uma thread do servidor durante a espera.
+     *
+     * @param desde a última posição já processada (o {@code proximoCursor} da resposta anterior), ou 0 para o início
+     * @param limite a quantidade máxima de eventos na resposta
+     * @param espera quantos segundos aguardar por alterações quando não houver nenhuma, de 0 a 25
+     * @return os eventos, em ordem, e o cursor da próxima consulta
+     */
+    @GetMapping
+    @Operation(summary = "Listar Alterações", description = "Lista as alterações de produtos a partir de uma posição do feed, aguardando opcionalmente por novas (long-poll).")
+    public CompletableFuture<ProdutoMudancasDTO> listarMudancas(@RequestParam(value = "since", defaultValue = "0") Long desde,
+                                                                @RequestParam(value = "limit", defaultValue = "100") int limite,
+                                                                @RequestParam(value = "wait", defaultValue = "0") int espera) {
+        if (espera < 0 || espera > ESPERA_MAXIMA_SEGUNDOS) {
+            throw new IllegalArgumentException("A espera deve estar entre 0 e " + ESPERA_MAXIMA_SEGUNDOS + " segundos");
+        }
+        return produtoEventoService.aguardarMudancas(desde, limite, Duration.ofSeconds(espera));
+    }
+}
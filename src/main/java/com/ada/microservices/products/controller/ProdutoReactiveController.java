@@ -0,0 +1,162 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.AjusteEstoqueDTO;
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.service.ProdutoReactiveService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Os mesmos recursos de {@link ProdutoController} sobre WebFlux e R2DBC, ativos no profile {@code reactive}.
+ * Nenhuma thread fica bloqueada à espera do banco ou de um cliente lento.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/produtos", produces = "application/json")
+@Tag(name = "Produtos", description = "Gerenciamento de Produtos")
+public class ProdutoReactiveController {
+
+    private static final int TAMANHO_LOTE_STREAMING = 500;
+
+    private final ProdutoReactiveService produtoService;
+
+    @Autowired
+    public ProdutoReactiveController(ProdutoReactiveService produtoService) {
+        this.produtoService = produtoService;
+    }
+
+    /**
+     * Creates a new product.
+     *
+     * @param produtoRequestDTO the product request data transfer object
+     * @return the response entity containing the created product data transfer object
+     */
+    @PostMapping
+    @Operation(summary = "Criar Produto", description = "Cria um novo produto no sistema.")
+    public Mono<ResponseEntity<ProdutoResponseDTO>> criarProduto(@Valid @RequestBody ProdutoRequestDTO produtoRequestDTO) {
+        return produtoService.criarProduto(produtoRequestDTO)
+                .map(produto -> ProdutoETags.comETag(ResponseEntity.status(HttpStatus.CREATED), produto));
+    }
+
+    /**
+     * Obtém um produto pelo seu ID, com a versão como ETag ({@code If-None-Match} responde 304).
+     *
+     * @param id o ID do produto a ser obtido
+     * @return ResponseEntity contendo o ProdutoResponseDTO do produto obtido
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Obter Produto", description = "Busca um produto pelo ID.")
+    public Mono<ResponseEntity<ProdutoResponseDTO>> obterProduto(@PathVariable Long id) {
+        return produtoService.buscarProdutoPorId(id)
+                .map(produto -> ProdutoETags.comETag(ResponseEntity.ok(), produto));
+    }
+
+    /**
+     * Lista os produtos, opcionalmente filtrados, como um array JSON escrito à medida que o cliente consome
+     * a resposta.
+     *
+     * @param filtro os filtros da listagem; sem filtros, lista todos os produtos
+     * @return os produtos, em ordem de ID
+     */
+    @GetMapping
+    @Operation(summary = "Listar Produtos", description = "Lista os produtos disponíveis no sistema, filtrando no banco por categoria, precoMin, precoMax e prefixo do nome quando informados.")
+    public Flux<ProdutoResponseDTO> listarTodosProdutos(@ParameterObject ProdutoFiltroDTO filtro) {
+        return produtoService.percorrerProdutos(filtro, TAMANHO_LOTE_STREAMING);
+    }
+
+    /**
+     * Lista os produtos paginados por cursor (keyset), com os mesmos filtros da listagem.
+     *
+     * @param filtro os filtros da listagem
+     * @param after o ID do último produto recebido; omitido na primeira página
+     * @param limit a quantidade máxima de produtos por página
+     * @return a página de produtos e o cursor da próxima página
+     */
+    @GetMapping(params = "limit")
+    @Operation(summary = "Listar Produtos Paginados", description = "Lista os produtos em páginas ordenadas por ID, a partir do cursor informado.")
+    public Mono<ProdutoPaginaDTO> listarProdutosPaginados(@ParameterObject ProdutoFiltroDTO filtro,
+                                                          @RequestParam(value = "after", required = false) Long after,
+                                                          @RequestParam("limit") int limit) {
+        return produtoService.listarProdutosPaginados(filtro, after, limit);
+    }
+
+    /**
+     * Exporta todo o catálogo como NDJSON. A leitura do banco acompanha a demanda do cliente (backpressure).
+     *
+     * @return os produtos, um por linha
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar Produtos", description = "Transmite todos os produtos em NDJSON, um por linha, sem carregar o catálogo em memória.")
+    public Flux<ProdutoResponseDTO> exportarProdutos() {
+        return produtoService.percorrerProdutos(TAMANHO_LOTE_STREAMING);
+    }
+
+    /**
+     * Atualiza um produto existente.
+     *
+     * @param id o ID do produto a ser atualizado
+     * @param ifMatch ETag da versão conhecida pelo cliente; se o produto tiver outra versão, responde 412. Com
+     *                {@code *}, responde 412 se o produto não existir
+     * @param produtoRequestDTO os dados do produto a serem atualizados
+     * @return ResponseEntity contendo o ProdutoResponseDTO do produto atualizado e, com {@code If-Match} de uma
+     *         versão, o ETag da nova versão
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Atualizar Produto", description = "Atualiza os dados de um produto existente.")
+    public Mono<ResponseEntity<ProdutoResponseDTO>> atualizarProduto(@PathVariable Long id,
+                                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                     @Valid @RequestBody ProdutoRequestDTO produtoRequestDTO) {
+        return produtoService.atualizarProduto(id, produtoRequestDTO, ProdutoETags.versaoDeIfMatch(ifMatch))
+                .onErrorMap(ResourceNotFoundException.class, e -> ProdutoETags.qualquerVersao(ifMatch)
+                        ? new PreconditionFailedException("O produto com ID " + id + " não existe")
+                        : e)
+                .map(produto -> ProdutoETags.comETag(ResponseEntity.ok(), produto));
+    }
+
+    /**
+     * Ajusta o estoque de um produto somando a variação informada.
+     *
+     * @param id o ID do produto
+     * @param ajusteEstoqueDTO a variação a ser aplicada
+     * @return ResponseEntity sem conteúdo
+     */
+    @PostMapping("/{id}/estoque")
+    @Operation(summary = "Ajustar Estoque", description = "Soma a variação informada ao estoque do produto de forma atômica.")
+    public Mono<ResponseEntity<Void>> ajustarEstoque(@PathVariable Long id, @Valid @RequestBody AjusteEstoqueDTO ajusteEstoqueDTO) {
+        return produtoService.ajustarEstoque(id, ajusteEstoqueDTO.getDelta())
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    /**
+     * Deletes a product by its ID.
+     *
+     * @param id the ID of the product to be deleted
+     * @return ResponseEntity with no content
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Deletar Produto", description = "Remove um produto do sistema pelo ID.")
+    public Mono<ResponseEntity<Void>> deletarProduto(@PathVariable Long id) {
+        return produtoService.deletarProduto(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+public class AjusteEstoqueDTO {
+
+    @NotNull(message = "A variação do estoque é obrigatória")
+    private Integer delta;
+
+    public AjusteEstoqueDTO() {
+    }
+
+    public AjusteEstoqueDTO(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Uma variação zero não altera o estoque, mas geraria uma nova versão e um evento de atualização.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "A variação do estoque deve ser diferente de zero")
+    public boolean isDeltaDiferenteDeZero() {
+        return delta == null || delta != 0;
+    }
+
+}
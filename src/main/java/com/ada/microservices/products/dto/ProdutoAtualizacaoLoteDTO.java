@@ -0,0 +1,30 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotNull;
+
+public class ProdutoAtualizacaoLoteDTO extends ProdutoRequestDTO {
+
+    @NotNull(message = "O ID do produto é obrigatório")
+    private final Long id;
+
+    public ProdutoAtualizacaoLoteDTO(Long id, String nome, String categoria, Double preco, Integer quantidade) {
+        this(id, nome, categoria, preco, quantidade, null);
+    }
+
+    @JsonCreator
+    public ProdutoAtualizacaoLoteDTO(@JsonProperty("id") Long id, @JsonProperty("nome") String nome,
+                                     @JsonProperty("categoria") String categoria, @JsonProperty("preco") Double preco,
+                                     @JsonProperty("quantidade") Integer quantidade,
+                                     @JsonProperty("descricao") String descricao) {
+        super(nome, categoria, preco, quantidade, descricao);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+}
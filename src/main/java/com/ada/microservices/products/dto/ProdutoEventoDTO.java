@@ -0,0 +1,59 @@
+package com.ada.microservices.products.dto;
+
+import com.ada.microservices.products.model.ProdutoEvento;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public class ProdutoEventoDTO {
+
+    @JsonProperty("posicao")
+    private final Long posicao;
+
+    @JsonProperty("produtoId")
+    private final Long produtoId;
+
+    @JsonProperty("tipo")
+    private final ProdutoEvento.Tipo tipo;
+
+    @JsonProperty("ocorridoEm")
+    private final Instant ocorridoEm;
+
+    /**
+     * O produto após a alteração, copiado do outbox sem ser desserializado; ausente na remoção.
+     */
+    @JsonProperty("produto")
+    @JsonRawValue
+    private final String produto;
+
+    public ProdutoEventoDTO(Long posicao, Long produtoId, ProdutoEvento.Tipo tipo, Instant ocorridoEm, String produto) {
+        this.posicao = posicao;
+        this.produtoId = produtoId;
+        this.tipo = tipo;
+        this.ocorridoEm = ocorridoEm;
+        this.produto = produto;
+    }
+
+    public Long getPosicao() {
+        return posicao;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public ProdutoEvento.Tipo getTipo() {
+        return tipo;
+    }
+
+    public Instant getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public String getProduto() {
+        return produto;
+    }
+
+}
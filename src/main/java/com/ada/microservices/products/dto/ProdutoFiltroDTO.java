@@ -0,0 +1,81 @@
+package com.ada.microservices.products.dto;
+
+/**
+ * Filtros opcionais da listagem de produtos, recebidos como parâmetros de consulta. Textos em branco
+ * são tratados como ausentes.
+ */
+public class ProdutoFiltroDTO {
+
+    private String categoria;
+
+    private Double precoMin;
+
+    private Double precoMax;
+
+    private String nome;
+
+    public ProdutoFiltroDTO() {
+    }
+
+    public ProdutoFiltroDTO(String categoria, Double precoMin, Double precoMax, String nome) {
+        this.categoria = normalizar(categoria);
+        this.precoMin = precoMin;
+        this.precoMax = precoMax;
+        this.nome = normalizar(nome);
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(String categoria) {
+        this.categoria = normalizar(categoria);
+    }
+
+    public Double getPrecoMin() {
+        return precoMin;
+    }
+
+    public void setPrecoMin(Double precoMin) {
+        this.precoMin = precoMin;
+    }
+
+    public Double getPrecoMax() {
+        return precoMax;
+    }
+
+    public void setPrecoMax(Double precoMax) {
+        this.precoMax = precoMax;
+    }
+
+    /**
+     * Prefixo do nome do produto (sensível a maiúsculas e minúsculas, para usar o índice de {@code nome}).
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = normalizar(nome);
+    }
+
+    public boolean isVazio() {
+        return categoria == null && precoMin == null && precoMax == null && nome == null;
+    }
+
+    /**
+     * Verifica a combinação dos filtros, que não cabe em uma anotação de um único campo.
+     *
+     * @throws IllegalArgumentException se o preço mínimo for maior que o máximo
+     */
+    public void validar() {
+        if (precoMin != null && precoMax != null && precoMin > precoMax) {
+            throw new IllegalArgumentException("O preço mínimo não pode ser maior que o preço máximo");
+        }
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+
+}
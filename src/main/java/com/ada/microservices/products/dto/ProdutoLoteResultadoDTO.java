@@ -0,0 +1,51 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado de um item de uma operação em lote, identificado pela sua posição na requisição.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProdutoLoteResultadoDTO {
+
+    public enum Status {
+        CRIADO, ATUALIZADO, REMOVIDO, NAO_ENCONTRADO, INVALIDO, ERRO
+    }
+
+    @JsonProperty("indice")
+    private final int indice;
+
+    @JsonProperty("id")
+    private final Long id;
+
+    @JsonProperty("status")
+    private final Status status;
+
+    @JsonProperty("mensagem")
+    private final String mensagem;
+
+    public ProdutoLoteResultadoDTO(int indice, Long id, Status status, String mensagem) {
+        this.indice = indice;
+        this.id = id;
+        this.status = status;
+        this.mensagem = mensagem;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+}
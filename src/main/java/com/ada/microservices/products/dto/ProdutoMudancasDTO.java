@@ -0,0 +1,31 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class ProdutoMudancasDTO {
+
+    @JsonProperty("eventos")
+    private final List<ProdutoEventoDTO> eventos;
+
+    @JsonProperty("proximoCursor")
+    private final Long proximoCursor;
+
+    public ProdutoMudancasDTO(List<ProdutoEventoDTO> eventos, Long proximoCursor) {
+        this.eventos = eventos;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<ProdutoEventoDTO> getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Posição a ser enviada em {@code since} na próxima consulta. Sem eventos novos, é a própria posição consultada.
+     */
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class ProdutoPaginaDTO {
+
+    @JsonProperty("produtos")
+    private final List<ProdutoResponseDTO> produtos;
+
+    @JsonProperty("proximoCursor")
+    private final Long proximoCursor;
+
+    public ProdutoPaginaDTO(List<ProdutoResponseDTO> produtos, Long proximoCursor) {
+        this.produtos = produtos;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<ProdutoResponseDTO> getProdutos() {
+        return produtos;
+    }
+
+    /**
+     * ID a ser enviado em {@code after} para obter a próxima página, ou {@code null} quando não há mais produtos.
+     */
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+
+}
@@ -1,63 +1,75 @@
 package com.ada.microservices.products.dto;
 
+import com.ada.microservices.products.model.Produto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+/**
+ * Imutável: desserializado pelo construtor, sem setters.
+ */
 public class ProdutoRequestDTO {
 
     @NotBlank(message = "O nome do produto não pode estar vazio")
-    private String nome;
+    private final String nome;
 
     @NotBlank(message = "A categoria do produto não pode estar vazia")
-    private String categoria;
+    private final String categoria;
 
     @NotNull(message = "O preço do produto é obrigatório")
     @Min(value = 0, message = "O preço do produto deve ser maior ou igual a zero")
-    private Double preco;
+    private final Double preco;
 
     @NotNull(message = "A quantidade do produto é obrigatória")
     @Min(value = 0, message = "A quantidade do produto deve ser maior ou igual a zero")
-    private Integer quantidade;
+    private final Integer quantidade;
+
+    private final String descricao;
 
     public ProdutoRequestDTO(String nome, String categoria, Double preco, Integer quantidade) {
+        this(nome, categoria, preco, quantidade, null);
+    }
+
+    @JsonCreator
+    public ProdutoRequestDTO(@JsonProperty("nome") String nome, @JsonProperty("categoria") String categoria,
+                             @JsonProperty("preco") Double preco, @JsonProperty("quantidade") Integer quantidade,
+                             @JsonProperty("descricao") String descricao) {
         this.nome = nome;
         this.categoria = categoria;
         this.preco = preco;
         this.quantidade = quantidade;
+        this.descricao = descricao;
     }
 
-    // Getters and Setters
-    public String getNome() {
-        return nome;
+    /**
+     * Um produto novo, ainda sem ID, com os dados da requisição.
+     */
+    public Produto paraEntidade() {
+        return new Produto(nome, categoria, preco, quantidade, descricao);
     }
 
-    public void setNome(String nome) {
-        this.nome = nome;
+    public String getNome() {
+        return nome;
     }
 
     public String getCategoria() {
         return categoria;
     }
 
-    public void setCategoria(String categoria) {
-        this.categoria = categoria;
-    }
-
     public Double getPreco() {
         return preco;
     }
 
-    public void setPreco(Double preco) {
-        this.preco = preco;
-    }
-
     public Integer getQuantidade() {
         return quantidade;
     }
 
-    public void setQuantidade(Integer quantidade) {
-        this.quantidade = quantidade;
+    public String getDescricao() {
+        return descricao;
     }
 
 }
@@ -1,77 +1,96 @@
 package com.ada.microservices.products.dto;
 
+import com.ada.microservices.products.model.Produto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public class ProdutoResponseDTO {
+/**
+ * Imutável: a mesma instância é compartilhada pelo cache, pelo snapshot, pelo outbox e pelas respostas, sem
+ * cópias defensivas.
+ */
+public final class ProdutoResponseDTO {
 
     @JsonProperty("id")
-    private Long id;
+    private final Long id;
 
     @JsonProperty("nome")
-    private String nome;
+    private final String nome;
 
     @JsonProperty("categoria")
-    private String categoria;
+    private final String categoria;
 
     @JsonProperty("preco")
-    private Double preco;
+    private final Double preco;
 
     @JsonProperty("quantidade")
-    private Integer quantidade;
+    private final Integer quantidade;
 
     @JsonProperty("descricao")
-    private String descricao;
+    private final String descricao;
+
+    /**
+     * Versão do produto, exposta apenas como ETag, fora do corpo JSON.
+     */
+    @JsonIgnore
+    private final Long versao;
+
+    /**
+     * Também usado pelos clientes para ler a resposta, em JSON ou Smile.
+     */
+    @JsonCreator
+    public ProdutoResponseDTO(@JsonProperty("id") Long id, @JsonProperty("nome") String nome,
+                              @JsonProperty("categoria") String categoria, @JsonProperty("preco") Double preco,
+                              @JsonProperty("quantidade") Integer quantidade, @JsonProperty("descricao") String descricao) {
+        this(id, nome, categoria, preco, quantidade, descricao, null);
+    }
 
-    public ProdutoResponseDTO(Long id, String nome, String categoria, Double preco, Integer quantidade, String descricao) {
+    public ProdutoResponseDTO(Long id, String nome, String categoria, Double preco, Integer quantidade, String descricao, Long versao) {
         this.id = id;
         this.nome = nome;
         this.categoria = categoria;
         this.preco = preco;
         this.quantidade = quantidade;
         this.descricao = descricao;
+        this.versao = versao;
     }
-    public Long getId(){
-        return this.id;
+
+    /**
+     * Converte a entidade, com a versão. As leituras do JPA montam o DTO direto na consulta, sem passar pela
+     * entidade; esta conversão fica para as escritas e as listagens filtradas.
+     */
+    public static ProdutoResponseDTO de(Produto produto) {
+        return new ProdutoResponseDTO(produto.getId(), produto.getNome(), produto.getCategoria(), produto.getPreco(),
+                produto.getQuantidade(), produto.getDescricao(), produto.getVersao());
     }
 
-    public void setId(Long id) {
-        this.id = id;
+    public Long getId() {
+        return id;
     }
 
     public String getNome() {
         return nome;
     }
 
-    public void setNome(String nome) {
-        this.nome = nome;
-    }
-
     public String getCategoria() {
         return categoria;
     }
 
-    public void setCategoria(String categoria) {
-        this.categoria = categoria;
-    }
-
     public Double getPreco() {
         return preco;
     }
 
-    public void setPreco(Double preco) {
-        this.preco = preco;
-    }
-
     public Integer getQuantidade() {
         return quantidade;
     }
 
-    public void setQuantidade(Integer quantidade) {
-        this.quantidade = quantidade;
-    }
-
     public String getDescricao() {
         return descricao;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
 }
@@ -0,0 +1,63 @@
+package com.ada.microservices.products.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ProdutoSincronizacaoDTO {
+
+    @JsonProperty("produtos")
+    private final List<ProdutoResponseDTO> produtos;
+
+    @JsonProperty("removidos")
+    private final List<Long> removidos;
+
+    @JsonProperty("proximoCursor")
+    private final Instant proximoCursor;
+
+    @JsonProperty("continuacao")
+    private final String continuacao;
+
+    public ProdutoSincronizacaoDTO(List<ProdutoResponseDTO> produtos, List<Long> removidos, Instant proximoCursor) {
+        this(produtos, removidos, proximoCursor, null);
+    }
+
+    public ProdutoSincronizacaoDTO(List<ProdutoResponseDTO> produtos, List<Long> removidos, Instant proximoCursor,
+                                   String continuacao) {
+        this.produtos = produtos;
+        this.removidos = removidos;
+        this.proximoCursor = proximoCursor;
+        this.continuacao = continuacao;
+    }
+
+    /**
+     * Produtos criados ou alterados desde o instante consultado, no estado atual.
+     */
+    public List<ProdutoResponseDTO> getProdutos() {
+        return produtos;
+    }
+
+    /**
+     * IDs dos produtos removidos desde o instante consultado.
+     */
+    public List<Long> getRemovidos() {
+        return removidos;
+    }
+
+    /**
+     * Instante a ser enviado em {@code modifiedSince} na próxima sincronização, presente apenas na última página.
+     */
+    public Instant getProximoCursor() {
+        return proximoCursor;
+    }
+
+    /**
+     * Posição a ser enviada em {@code after}, com o mesmo {@code modifiedSince}, para obter a próxima página da
+     * sincronização, ou {@code null} na última página.
+     */
+    public String getContinuacao() {
+        return continuacao;
+    }
+
+}
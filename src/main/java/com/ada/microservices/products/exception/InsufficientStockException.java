@@ -0,0 +1,7 @@
+package com.ada.microservices.products.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String msg) {
+        super(msg);
+    }
+}
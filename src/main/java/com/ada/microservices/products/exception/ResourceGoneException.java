@@ -0,0 +1,7 @@
+package com.ada.microservices.products.exception;
+
+public class ResourceGoneException extends RuntimeException {
+    public ResourceGoneException(String msg) {
+        super(msg);
+    }
+}
@@ -1,9 +1,14 @@
 package com.ada.microservices.products.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,15 +18,37 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * The indexes back the filters of {@code GET /produtos}: categoria with an optional price range, price range
+ * alone, and name prefix; {@code atualizado_em} backs the incremental sync ({@code GET /produtos?modifiedSince=}).
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_produto_categoria_preco", columnList = "categoria, preco"),
+        @Index(name = "idx_produto_preco", columnList = "preco"),
+        @Index(name = "idx_produto_nome", columnList = "nome"),
+        @Index(name = "idx_produto_atualizado_em", columnList = "atualizado_em")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Produto {
 
+    /**
+     * Sequence-based IDs (instead of IDENTITY) let Hibernate assign IDs before the INSERT and group
+     * inserts into JDBC batches; {@code allocationSize} IDs are reserved per sequence round trip.
+     * The Spring Data annotations map the same class for the R2DBC repository used by the reactive stack.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produto_seq")
+    @SequenceGenerator(name = "produto_seq", sequenceName = "produto_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O nome do produto não pode estar vazio")
@@ -40,6 +67,32 @@ public class Produto {
 
     private String descricao;
 
+    @Version
+    @org.springframework.data.annotation.Version
+    private Long versao;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant criadoEm;
+
+    /**
+     * Set by Hibernate on every change made through the entity. The single-statement updates of
+     * {@link com.ada.microservices.products.repository.ProdutoRepository} bypass the entity and set it themselves.
+     */
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+
+    /**
+     * A new, not yet persisted product; used by the write paths instead of the builder.
+     */
+    public Produto(String nome, String categoria, Double preco, Integer quantidade, String descricao) {
+        this.nome = nome;
+        this.categoria = categoria;
+        this.preco = preco;
+        this.quantidade = quantidade;
+        this.descricao = descricao;
+    }
+
     public String getDescricao() {
         return this.descricao;
     }
@@ -0,0 +1,59 @@
+package com.ada.microservices.products.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Evento de alteração de um produto, gravado no outbox na mesma transação da alteração. {@code posicao} fica
+ * nula até o relay publicar o evento; a partir daí define a ordem do feed de alterações.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoEvento {
+
+    public enum Tipo {
+        CRIADO, ATUALIZADO, REMOVIDO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produto_evento_seq")
+    @SequenceGenerator(name = "produto_evento_seq", sequenceName = "produto_evento_seq", allocationSize = 50)
+    private Long id;
+
+    private Long produtoId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Tipo tipo;
+
+    /**
+     * O produto após a alteração, em JSON; nulo na remoção.
+     */
+    @Column(length = 4000)
+    private String dados;
+
+    private Instant ocorridoEm;
+
+    private Long posicao;
+
+    private Instant publicadoEm;
+}
@@ -0,0 +1,29 @@
+package com.ada.microservices.products.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Tombstone of a deleted product, so that incremental syncs can tell clients which products to drop.
+ * Written by the same statement sequence that deletes the product, see {@code ProdutoRepository#registrarRemocoes}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_produto_removido_em", columnList = "removido_em"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoRemovido {
+
+    @Id
+    private Long id;
+
+    private Instant removidoEm;
+}
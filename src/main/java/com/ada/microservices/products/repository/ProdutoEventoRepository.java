@@ -0,0 +1,44 @@
+package com.ada.microservices.products.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ada.microservices.products.model.ProdutoEvento;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProdutoEventoRepository extends JpaRepository<ProdutoEvento, Long> {
+
+    /**
+     * Oldest unpublished events, locked until the end of the transaction. A relay running on another instance
+     * blocks on the same rows and then skips them, so positions are assigned by one relay at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProdutoEvento> findByPosicaoIsNullOrderByIdAsc(Limit limit);
+
+    @Query("select coalesce(max(e.posicao), 0) from ProdutoEvento e")
+    long ultimaPosicao();
+
+    /**
+     * Published events after the given position, in publication order (uses the unique index on posicao).
+     */
+    List<ProdutoEvento> findByPosicaoGreaterThanOrderByPosicaoAsc(Long posicao, Limit limit);
+
+    /**
+     * Removes published events that occurred before {@code limite}, except the one with the highest position:
+     * {@link #ultimaPosicao()} numbers the next events from it, so the feed never restarts at position 1.
+     *
+     * @return the number of published events removed
+     */
+    @Modifying
+    @Query("delete from ProdutoEvento e where e.posicao is not null and e.ocorridoEm < :limite "
+            + "and e.posicao < (select max(u.posicao) from ProdutoEvento u)")
+    int removerPublicadosAntesDe(@Param("limite") Instant limite);
+}
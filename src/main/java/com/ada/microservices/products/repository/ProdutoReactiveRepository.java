@@ -0,0 +1,22 @@
+package com.ada.microservices.products.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.ada.microservices.products.model.Produto;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads for the reactive stack, in SQL against the table created by JPA. The reactive writes go
+ * through {@link ProdutoRepository}, in the JPA transaction that also records the outbox event.
+ */
+public interface ProdutoReactiveRepository extends R2dbcRepository<Produto, Long> {
+
+    /**
+     * Keyset pagination: returns up to {@code limite} products whose ID is greater than {@code id}, ordered by ID.
+     */
+    @Query("select * from produto where id > :id order by id limit :limite")
+    Flux<Produto> buscarPagina(@Param("id") Long id, @Param("limite") int limite);
+}
@@ -1,9 +1,172 @@
 package com.ada.microservices.products.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
 import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.model.ProdutoRemovido;
 
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
-}
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Filtered queries go through {@link JpaSpecificationExecutor} with {@link ProdutoSpecifications}.
+ */
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto> {
+
+    /**
+     * Constructor expression that reads the columns straight into {@link ProdutoResponseDTO}: no entity is
+     * instantiated or registered in the persistence context, so there is nothing to snapshot or dirty-check.
+     */
+    String SELECT_DTO = "select new com.ada.microservices.products.dto.ProdutoResponseDTO("
+            + "p.id, p.nome, p.categoria, p.preco, p.quantidade, p.descricao, p.versao) from Produto p";
+
+    @Query(SELECT_DTO + " where p.id = :id")
+    Optional<ProdutoResponseDTO> buscarDTOPorId(@Param("id") Long id);
+
+    /**
+     * Keyset pagination straight into the DTO, for bulk reads that do not need the entities.
+     */
+    @Query(SELECT_DTO + " where p.id > :id order by p.id")
+    List<ProdutoResponseDTO> listarDTOsAposId(@Param("id") Long id, Limit limit);
+
+    /**
+     * Reads several products by ID in one query. With {@code hibernate.query.in_clause_parameter_padding} the
+     * IN list is padded to the next power of two, so the number of distinct statements stays small.
+     */
+    @Query(SELECT_DTO + " where p.id in :ids")
+    List<ProdutoResponseDTO> listarDTOsPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Products created or changed at or after {@code desde}, read through the index on atualizadoEm.
+     */
+    @Query(SELECT_DTO + " where p.atualizadoEm >= :desde order by p.atualizadoEm, p.id")
+    List<ProdutoResponseDTO> listarDTOsAlteradosDesde(@Param("desde") Instant desde);
+
+    /**
+     * IDs of the products deleted at or after {@code desde}.
+     */
+    @Query("select r.id from ProdutoRemovido r where r.removidoEm >= :desde order by r.id")
+    List<Long> listarIdsRemovidosDesde(@Param("desde") Instant desde);
+
+    /**
+     * Position of a changed product in the incremental sync, which is ordered by {@code (atualizadoEm, id)}.
+     */
+    interface PosicaoAlteracao {
+
+        Long getId();
+
+        Instant getAtualizadoEm();
+    }
 
+    /**
+     * Keyset page of the changed products: those changed after {@code instante}, and those changed exactly at
+     * it with an ID greater than {@code id}. The leading range on atualizadoEm uses its index.
+     */
+    @Query("select p.id as id, p.atualizadoEm as atualizadoEm from Produto p where p.atualizadoEm >= :instante "
+            + "and (p.atualizadoEm > :instante or p.id > :id) order by p.atualizadoEm, p.id")
+    List<PosicaoAlteracao> listarAlteracoesApos(@Param("instante") Instant instante, @Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset page of the tombstones, ordered by {@code (removidoEm, id)} like {@link #listarAlteracoesApos}.
+     */
+    @Query("select r from ProdutoRemovido r where r.removidoEm >= :instante "
+            + "and (r.removidoEm > :instante or r.id > :id) order by r.removidoEm, r.id")
+    List<ProdutoRemovido> listarRemocoesApos(@Param("instante") Instant instante, @Param("id") Long id, Limit limit);
+
+    /**
+     * Purges the tombstones older than the sync retention.
+     *
+     * @return the number of tombstones removed
+     */
+    @Modifying
+    @Query("delete from ProdutoRemovido r where r.removidoEm < :limite")
+    int removerRemocoesAntesDe(@Param("limite") Instant limite);
+
+    /**
+     * Records a tombstone for each of the given products that still exists. Must run in the same transaction
+     * as, and before, the statement that deletes them.
+     *
+     * @return the number of tombstones recorded
+     */
+    @Modifying
+    @Query("insert into ProdutoRemovido (id, removidoEm) select p.id, instant from Produto p where p.id in :ids")
+    int registrarRemocoes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Identity of the database, written once by the migration that creates the table: a database recreated from
+     * scratch, like an in-memory H2 on every boot, gets a new one.
+     */
+    @Query(value = "select identidade from identidade_banco where id = 1", nativeQuery = true)
+    String identidadeDoBanco();
+
+    /**
+     * Updates the product in a single statement, without loading it first. Every column is replaced, so a
+     * {@code null} description clears it.
+     *
+     * @return the number of affected rows; {@code 0} means the product does not exist
+     */
+    @Modifying
+    @Query("update Produto p set p.nome = :nome, p.categoria = :categoria, p.preco = :preco, "
+            + "p.quantidade = :quantidade, p.descricao = :descricao, p.versao = p.versao + 1, p.atualizadoEm = instant "
+            + "where p.id = :id")
+    int atualizarPorId(@Param("id") Long id, @Param("nome") String nome, @Param("categoria") String categoria,
+                       @Param("preco") Double preco, @Param("quantidade") Integer quantidade,
+                       @Param("descricao") String descricao);
+
+    /**
+     * Same as {@link #atualizarPorId}, but only applies when the stored version matches {@code versao}
+     * (optimistic concurrency check done by the database in the same statement).
+     *
+     * @return the number of affected rows; {@code 0} means the product does not exist or has another version
+     */
+    @Modifying
+    @Query("update Produto p set p.nome = :nome, p.categoria = :categoria, p.preco = :preco, "
+            + "p.quantidade = :quantidade, p.descricao = :descricao, p.versao = p.versao + 1, p.atualizadoEm = instant "
+            + "where p.id = :id and p.versao = :versao")
+    int atualizarPorIdEVersao(@Param("id") Long id, @Param("versao") Long versao, @Param("nome") String nome,
+                              @Param("categoria") String categoria, @Param("preco") Double preco,
+                              @Param("quantidade") Integer quantidade, @Param("descricao") String descricao);
+
+    /**
+     * Same as {@link #atualizarPorId}, but only applies when the product has not changed after {@code aceitoEm}:
+     * a deferred update accepted at that instant does not overwrite a newer write, and writing it again is a no-op.
+     *
+     * @return the number of affected rows; {@code 0} means the product does not exist or was changed later
+     */
+    @Modifying
+    @Query("update Produto p set p.nome = :nome, p.categoria = :categoria, p.preco = :preco, "
+            + "p.quantidade = :quantidade, p.descricao = :descricao, p.versao = p.versao + 1, p.atualizadoEm = instant "
+            + "where p.id = :id and p.atualizadoEm <= :aceitoEm")
+    int atualizarPorIdSeInalteradoDesde(@Param("id") Long id, @Param("aceitoEm") Instant aceitoEm,
+                                        @Param("nome") String nome, @Param("categoria") String categoria,
+                                        @Param("preco") Double preco, @Param("quantidade") Integer quantidade,
+                                        @Param("descricao") String descricao);
+
+    /**
+     * Atomically adds {@code delta} to the stock, refusing any change that would make it negative.
+     * Concurrent adjustments are serialized by the row lock of the UPDATE itself, so none is lost.
+     *
+     * @return the number of affected rows; {@code 0} means the product does not exist or has insufficient stock
+     */
+    @Modifying
+    @Query("update Produto p set p.quantidade = p.quantidade + :delta, p.versao = p.versao + 1, p.atualizadoEm = instant "
+            + "where p.id = :id and p.quantidade + :delta >= 0")
+    int ajustarEstoque(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Deletes the product in a single statement, without loading it first.
+     *
+     * @return the number of affected rows; {@code 0} means the product does not exist
+     */
+    @Modifying
+    @Query("delete from Produto p where p.id = :id")
+    int deletarPorId(@Param("id") Long id);
+}
@@ -0,0 +1,67 @@
+package com.ada.microservices.products.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.model.Produto;
+
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications for filtered product queries. Every predicate is sargable (equality, range or prefix
+ * {@code like}), so the database can answer it from the indexes declared on {@link Produto}.
+ */
+public final class ProdutoSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private ProdutoSpecifications() {
+    }
+
+    /**
+     * Combines every filter present in {@code filtro} with {@code and}; absent filters are ignored.
+     */
+    public static Specification<Produto> doFiltro(ProdutoFiltroDTO filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.getCategoria() != null) {
+                predicados.add(cb.equal(root.get("categoria"), filtro.getCategoria()));
+            }
+            if (filtro.getPrecoMin() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.<Double>get("preco"), filtro.getPrecoMin()));
+            }
+            if (filtro.getPrecoMax() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.<Double>get("preco"), filtro.getPrecoMax()));
+            }
+            if (filtro.getNome() != null) {
+                predicados.add(cb.like(root.<String>get("nome"), prefixoLike(filtro.getNome()), ESCAPE));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset cursor: products whose ID is greater than {@code id}.
+     */
+    public static Specification<Produto> comIdMaiorQue(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.<Long>get("id"), id);
+    }
+
+    /**
+     * Builds a {@code like} pattern that matches values starting with {@code prefixo}, escaping the
+     * wildcards it may contain with a backslash.
+     */
+    public static String prefixoLike(String prefixo) {
+        StringBuilder padrao = new StringBuilder(prefixo.length() + 1);
+        for (char c : prefixo.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                padrao.append(ESCAPE);
+            }
+            padrao.append(c);
+        }
+        return padrao.append('%').toString();
+    }
+}
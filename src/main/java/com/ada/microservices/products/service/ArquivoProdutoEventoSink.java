@@ -0,0 +1,52 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acrescenta os eventos publicados a um arquivo NDJSON, um evento por linha. Como a entrega é pelo menos uma
+ * vez, o arquivo pode conter eventos repetidos; a posição identifica cada evento.
+ */
+public class ArquivoProdutoEventoSink implements ProdutoEventoSink {
+
+    private final Path arquivo;
+    private final ObjectWriter writer;
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    public ArquivoProdutoEventoSink(Path arquivo, ObjectMapper objectMapper) {
+        this.arquivo = arquivo;
+        this.writer = objectMapper.writerFor(ProdutoEventoDTO.class);
+    }
+
+    @Override
+    public void publicar(List<ProdutoEventoDTO> eventos) {
+        escrita.lock();
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ProdutoEventoDTO evento : eventos) {
+                saida.write(writer.writeValueAsString(evento));
+                saida.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém em memória os últimos {@code capacidade} eventos publicados. Útil em desenvolvimento e testes, e quando
+ * os consumidores usam apenas {@code GET /produtos/changes}.
+ */
+public class MemoriaProdutoEventoSink implements ProdutoEventoSink {
+
+    private final int capacidade;
+    private final Deque<ProdutoEventoDTO> eventos = new ArrayDeque<>();
+    private final ReentrantLock acesso = new ReentrantLock();
+
+    public MemoriaProdutoEventoSink(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    @Override
+    public void publicar(List<ProdutoEventoDTO> lote) {
+        acesso.lock();
+        try {
+            for (ProdutoEventoDTO evento : lote) {
+                if (eventos.size() == capacidade) {
+                    eventos.removeFirst();
+                }
+                eventos.addLast(evento);
+            }
+        } finally {
+            acesso.unlock();
+        }
+    }
+
+    public List<ProdutoEventoDTO> getEventos() {
+        acesso.lock();
+        try {
+            return List.copyOf(eventos);
+        } finally {
+            acesso.unlock();
+        }
+    }
+}
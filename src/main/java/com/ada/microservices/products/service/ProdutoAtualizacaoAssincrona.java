@@ -0,0 +1,358 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.config.MetricsConfig;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.ServiceUnavailableException;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Atualizações de produtos gravadas em segundo plano ({@code PUT /produtos/{id}} com
+ * {@code Prefer: respond-async}), para clientes de alto volume que não precisam ler a própria escrita, como o
+ * motor de preços.
+ * <p>
+ * Com {@code produtos.atualizacao-assincrona.habilitada=true}, a atualização é registrada no
+ * {@link ProdutoAtualizacaoDiario} e colocada em uma fila limitada, em que uma nova atualização do mesmo produto
+ * substitui a pendente. Só então é confirmada (202). A fila é gravada periodicamente em transações de até
+ * {@code tamanho-lote} produtos, com um UPDATE por produto. Com a fila cheia, uma atualização de um produto que
+ * ainda não está nela é recusada com {@link ServiceUnavailableException}.
+ * <p>
+ * Cada atualização guarda o instante em que foi aceita, e o UPDATE só se aplica se o produto não foi alterado
+ * depois dele ({@link ProdutoRepository#atualizarPorIdSeInalteradoDesde}): um PUT síncrono, um ajuste de estoque
+ * ou a escrita de outra instância entre a aceitação e a gravação prevalece, e a atualização aceita antes é
+ * descartada e registrada em log, assim como a de um produto removido. O instante da aceitação vem do relógio da
+ * aplicação e o {@code atualizadoEm}, do banco; os dois devem estar sincronizados. Uma nova atualização de um
+ * produto que está sendo gravado espera o fim da transação do bloco antes de ser aceita, para não ser descartada
+ * pela própria gravação anterior.
+ * <p>
+ * Uma atualização confirmada não se perde em uma queda: os segmentos do diário só são apagados depois que suas
+ * atualizações estão no banco, e são reaplicados na inicialização. Uma atualização que já estava no banco não é
+ * regravada pela reaplicação, porque o produto foi alterado depois da aceitação. Entre a confirmação e a gravação,
+ * as leituras ainda veem o produto anterior.
+ * <p>
+ * A gravação roda em uma thread própria a cada {@code intervalo-flush-ms}, fora do agendador compartilhado, para
+ * que uma tarefa agendada lenta não atrase o esvaziamento da fila e provoque recusas (503). Sob o lock da fila só
+ * acontecem a escrita do registro no diário e a troca de segmento; o {@code fsync} e a selagem do segmento ficam
+ * fora dele, então a aceitação não espera pelo disco de outras threads.
+ */
+@Service
+@Timed(MetricsConfig.SERVICO_TIMER)
+public class ProdutoAtualizacaoAssincrona {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoAtualizacaoAssincrona.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ProdutoIndiceBusca indiceBusca;
+    private final ProdutoEscritasRecentes escritasRecentes;
+    private final ProdutoEventoService eventos;
+    private final boolean habilitada;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final long intervaloFlushMs;
+    private final ProdutoAtualizacaoDiario diario;
+    // thread da gravação periódica, fora do agendador compartilhado pelas tarefas @Scheduled
+    private ScheduledExecutorService flush;
+    // protege a fila e a ordem dos registros no diário; a gravação no banco acontece fora dele
+    private final ReentrantLock fila = new ReentrantLock();
+    // sinalizada quando um bloco termina de ser gravado e seus produtos deixam de estar em gravação
+    private final Condition blocoGravado = fila.newCondition();
+    // ReentrantLock em vez de synchronized: a gravação faz I/O e não deve fixar (pin) a thread portadora
+    private final ReentrantLock gravacao = new ReentrantLock();
+    private Map<Long, ProdutoAtualizacaoDiario.Atualizacao> pendentes = new LinkedHashMap<>();
+    // produtos retirados da fila cuja transação ainda não terminou
+    private final Set<Long> emGravacao = new HashSet<>();
+
+    @Autowired
+    public ProdutoAtualizacaoAssincrona(ProdutoRepository produtoRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        CacheManager cacheManager,
+                                        ProdutoIndiceBusca indiceBusca,
+                                        ProdutoEscritasRecentes escritasRecentes,
+                                        ProdutoEventoService eventos,
+                                        @Value("${produtos.atualizacao-assincrona.habilitada:false}") boolean habilitada,
+                                        @Value("${produtos.atualizacao-assincrona.capacidade:10000}") int capacidade,
+                                        @Value("${produtos.atualizacao-assincrona.tamanho-lote:500}") int tamanhoLote,
+                                        @Value("${produtos.atualizacao-assincrona.intervalo-flush-ms:100}") long intervaloFlushMs,
+                                        @Value("${produtos.atualizacao-assincrona.diretorio:produtos-atualizacoes}") Path diretorio) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.indiceBusca = indiceBusca;
+        this.escritasRecentes = escritasRecentes;
+        this.eventos = eventos;
+        this.habilitada = habilitada;
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloFlushMs = intervaloFlushMs;
+        this.diario = habilitada ? new ProdutoAtualizacaoDiario(diretorio) : null;
+        if (habilitada) {
+            try {
+                pendentes.putAll(diario.recuperar());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao recuperar o diário de atualizações em " + diretorio, e);
+            }
+            if (!pendentes.isEmpty()) {
+                log.info("{} atualizações de produtos recuperadas do diário", pendentes.size());
+            }
+        }
+    }
+
+    /**
+     * Inicia a gravação periódica da fila na thread própria.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitada) {
+            return;
+        }
+        flush = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("atualizacao-assincrona").daemon().factory());
+        flush.scheduleWithFixedDelay(() -> {
+            try {
+                gravarPendentes();
+            } catch (RuntimeException e) {
+                // uma exceção cancelaria as execuções seguintes
+                log.error("Falha ao gravar atualizações de produtos; nova tentativa na próxima execução", e);
+            }
+        }, intervaloFlushMs, intervaloFlushMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Aceita a atualização para gravação em lote. Retorna depois que ela está em disco no diário. Se o produto
+     * estiver sendo gravado, espera o fim da transação do bloco.
+     *
+     * @throws ServiceUnavailableException se a fila estiver cheia e o produto ainda não estiver nela
+     */
+    public void aceitar(Long id, ProdutoRequestDTO dto) {
+        if (!habilitada) {
+            throw new IllegalStateException("Atualização assíncrona desabilitada");
+        }
+        ProdutoAtualizacaoDiario.Marca marca;
+        fila.lock();
+        try {
+            while (emGravacao.contains(id)) {
+                blocoGravado.awaitUninterruptibly();
+            }
+            if (pendentes.size() >= capacidade && !pendentes.containsKey(id)) {
+                throw new ServiceUnavailableException("Fila de atualizações cheia; tente novamente");
+            }
+            // depois da espera: a gravação anterior do mesmo produto já alterou o atualizadoEm
+            ProdutoAtualizacaoDiario.Atualizacao atualizacao =
+                    new ProdutoAtualizacaoDiario.Atualizacao(dto, Instant.now().truncatedTo(ChronoUnit.MICROS));
+            marca = diario.acrescentar(id, atualizacao);
+            // reinsere para que a ordem da fila siga a da última atualização de cada produto
+            pendentes.remove(id);
+            pendentes.put(id, atualizacao);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            fila.unlock();
+        }
+        try {
+            diario.sincronizar(marca);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quantidade de produtos com atualização ainda não gravada.
+     */
+    public int pendentes() {
+        fila.lock();
+        try {
+            return pendentes.size();
+        } finally {
+            fila.unlock();
+        }
+    }
+
+    public void gravarPendentes() {
+        if (!habilitada) {
+            return;
+        }
+        gravacao.lock();
+        try {
+            gravar();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    private void gravar() {
+        fila.lock();
+        try {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+        } finally {
+            fila.unlock();
+        }
+        try {
+            diario.prepararSegmento();
+        } catch (IOException e) {
+            log.error("Falha ao abrir o próximo segmento do diário de atualizações; nova tentativa na próxima execução", e);
+            return;
+        }
+        // só esta thread retira da fila, então ela continua com atualizações depois de liberada
+        List<Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao>> lote;
+        fila.lock();
+        try {
+            diario.trocarSegmento();
+            lote = new ArrayList<>(pendentes.entrySet());
+            pendentes = new LinkedHashMap<>();
+            emGravacao.addAll(lote.stream().map(Map.Entry::getKey).toList());
+        } finally {
+            fila.unlock();
+        }
+        List<Path> segmentos;
+        try {
+            segmentos = diario.selar();
+        } catch (IOException e) {
+            // as atualizações do lote seguem para o banco; os segmentos ficam no diário até uma selagem completa
+            log.error("Falha ao sincronizar o segmento do diário de atualizações", e);
+            segmentos = List.of();
+        }
+        for (int inicio = 0; inicio < lote.size(); inicio += tamanhoLote) {
+            List<Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao>> bloco =
+                    lote.subList(inicio, Math.min(inicio + tamanhoLote, lote.size()));
+            try {
+                gravarBloco(bloco);
+                liberar(bloco);
+            } catch (RuntimeException e) {
+                // a transação do bloco foi desfeita: devolve o restante do lote à fila, sem sobrescrever
+                // atualizações mais novas, e mantém os segmentos até uma gravação completa
+                devolver(lote.subList(inicio, lote.size()));
+                diario.devolver(segmentos);
+                log.error("Falha ao gravar atualizações de produtos; nova tentativa na próxima execução", e);
+                return;
+            }
+        }
+        try {
+            diario.descartar(segmentos);
+        } catch (IOException e) {
+            log.warn("Falha ao apagar segmentos gravados do diário de atualizações", e);
+        }
+    }
+
+    private void gravarBloco(List<Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao>> bloco) {
+        List<Long> descartados = new ArrayList<>();
+        List<Map.Entry<Long, ProdutoRequestDTO>> atualizados = transactionTemplate.execute(status -> {
+            List<Map.Entry<Long, ProdutoRequestDTO>> gravados = new ArrayList<>(bloco.size());
+            for (Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao> atualizacao : bloco) {
+                Long id = atualizacao.getKey();
+                ProdutoRequestDTO dto = atualizacao.getValue().dto();
+                if (produtoRepository.atualizarPorIdSeInalteradoDesde(id, atualizacao.getValue().aceitoEm(),
+                        dto.getNome(), dto.getCategoria(), dto.getPreco(), dto.getQuantidade(), dto.getDescricao()) == 0) {
+                    descartados.add(id);
+                    continue;
+                }
+                eventos.registrar(ProdutoEvento.Tipo.ATUALIZADO, id, new ProdutoResponseDTO(id, dto.getNome(),
+                        dto.getCategoria(), dto.getPreco(), dto.getQuantidade(), dto.getDescricao()));
+                gravados.add(Map.entry(id, dto));
+            }
+            return gravados;
+        });
+        List<Long> ids = new ArrayList<>(atualizados.size());
+        for (Map.Entry<Long, ProdutoRequestDTO> atualizacao : atualizados) {
+            ids.add(atualizacao.getKey());
+            indiceBusca.indexar(atualizacao.getKey(), atualizacao.getValue().getNome(), atualizacao.getValue().getDescricao());
+        }
+        escritasRecentes.registrar(ids);
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+        if (!descartados.isEmpty()) {
+            log.warn("Atualizações assíncronas descartadas (produto inexistente ou alterado depois da aceitação): {}",
+                    descartados);
+        }
+    }
+
+    private void liberar(List<Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao>> bloco) {
+        fila.lock();
+        try {
+            bloco.forEach(atualizacao -> emGravacao.remove(atualizacao.getKey()));
+            blocoGravado.signalAll();
+        } finally {
+            fila.unlock();
+        }
+    }
+
+    private void devolver(List<Map.Entry<Long, ProdutoAtualizacaoDiario.Atualizacao>> atualizacoes) {
+        fila.lock();
+        try {
+            Map<Long, ProdutoAtualizacaoDiario.Atualizacao> novas = pendentes;
+            pendentes = new LinkedHashMap<>();
+            atualizacoes.forEach(atualizacao -> pendentes.put(atualizacao.getKey(), atualizacao.getValue()));
+            novas.forEach((id, atualizacao) -> {
+                pendentes.remove(id);
+                pendentes.put(id, atualizacao);
+            });
+            atualizacoes.forEach(atualizacao -> emGravacao.remove(atualizacao.getKey()));
+            blocoGravado.signalAll();
+        } finally {
+            fila.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (!habilitada) {
+            return;
+        }
+        if (flush != null) {
+            flush.shutdown();
+            try {
+                flush.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        gravarPendentes();
+        try {
+            diario.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o diário de atualizações", e);
+        }
+    }
+}
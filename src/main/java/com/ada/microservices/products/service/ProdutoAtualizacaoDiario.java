@@ -0,0 +1,331 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário em disco das atualizações aceitas pela {@link ProdutoAtualizacaoAssincrona}, em segmentos
+ * {@code atualizacoes-<sequência>.log}. Cada atualização é acrescentada ao segmento atual antes de ser
+ * confirmada ao cliente; a cada gravação um novo segmento passa a receber as atualizações e o anterior é selado,
+ * e os segmentos selados são apagados quando todas as suas atualizações estão no banco.
+ * <p>
+ * Cada registro é {@code int tamanho, int CRC32C, long id}, o instante da aceitação ({@code long} segundos e
+ * {@code int} nanos) e os campos da requisição. Na recuperação os
+ * segmentos são lidos em ordem e a leitura de cada um para no primeiro registro incompleto ou com CRC
+ * divergente, o final de uma escrita interrompida por uma queda.
+ * <p>
+ * {@link #acrescentar} e {@link #trocarSegmento} devem ser chamados sob o mesmo lock, que define a ordem dos
+ * registros, e não fazem I/O além da escrita do registro. {@link #sincronizar} é chamado fora dele, para que as
+ * escritas concorrentes compartilhem um único {@code fsync}; {@link #prepararSegmento} e {@link #selar}, que
+ * abrem, sincronizam e fecham arquivos, também, antes e depois da troca.
+ */
+final class ProdutoAtualizacaoDiario implements Closeable {
+
+    private static final String PREFIXO = "atualizacoes-";
+    private static final String SUFIXO = ".log";
+    private static final int CABECALHO = 8;
+
+    /**
+     * Posição no diário logo após um registro.
+     */
+    record Marca(long segmento, long posicao) {
+    }
+
+    /**
+     * Uma atualização aceita e o instante em que foi aceita, que a gravação compara com o {@code atualizadoEm}
+     * do produto para não sobrescrever uma escrita mais nova.
+     */
+    record Atualizacao(ProdutoRequestDTO dto, Instant aceitoEm) {
+    }
+
+    /**
+     * Um segmento aberto e o seu canal.
+     */
+    private record Segmento(long sequencia, FileChannel canal) {
+    }
+
+    private final Path diretorio;
+    // segmentos selados cujas atualizações ainda não foram todas gravadas no banco, do mais antigo ao mais novo
+    private final List<Path> selados = new ArrayList<>();
+    // protege o fsync e o fechamento dos segmentos e os campos de sincronização abaixo
+    private final ReentrantLock sincronizacao = new ReentrantLock();
+    // sinalizada quando um segmento trocado termina de ser selado
+    private final Condition seladoCondicao = sincronizacao.newCondition();
+    // segmento que recebe as atualizações; trocado sob o lock de quem chama acrescentar
+    private volatile Segmento atual;
+    // próximo segmento, já aberto fora do lock, e o anterior, trocado e ainda não selado
+    private Segmento proximo;
+    private Segmento anterior;
+    private long seladoAte = -1;
+    private long falhaSelagem = -1;
+    private long sincronizadoSegmento = -1;
+    private long sincronizado;
+
+    ProdutoAtualizacaoDiario(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Lê as atualizações dos segmentos existentes, da mais antiga à mais nova, e abre um novo segmento. Os
+     * segmentos lidos ficam selados até a gravação seguinte.
+     *
+     * @return a última atualização de cada produto
+     */
+    Map<Long, Atualizacao> recuperar() throws IOException {
+        Files.createDirectories(diretorio);
+        List<Path> existentes;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            existentes = arquivos.filter(arquivo -> sequencia(arquivo) >= 0)
+                    .sorted((a, b) -> Long.compare(sequencia(a), sequencia(b)))
+                    .toList();
+        }
+        Map<Long, Atualizacao> atualizacoes = new LinkedHashMap<>();
+        long ultimo = 0;
+        for (Path arquivo : existentes) {
+            ler(arquivo, atualizacoes);
+            ultimo = sequencia(arquivo);
+        }
+        selados.addAll(existentes);
+        atual = abrirSegmento(ultimo + 1);
+        seladoAte = ultimo;
+        return atualizacoes;
+    }
+
+    /**
+     * Escreve a atualização no segmento atual, sem esperar que chegue ao disco.
+     */
+    Marca acrescentar(Long id, Atualizacao atualizacao) throws IOException {
+        ByteBuffer registro = codificar(id, atualizacao);
+        Segmento segmento = atual;
+        while (registro.hasRemaining()) {
+            segmento.canal().write(registro);
+        }
+        return new Marca(segmento.sequencia(), segmento.canal().position());
+    }
+
+    /**
+     * Espera que o diário esteja em disco até a marca. Se outra thread já sincronizou além dela, retorna sem
+     * novo {@code fsync}; se a marca está em um segmento já trocado, espera que ele seja selado.
+     *
+     * @throws IOException se o {@code fsync} falhar, inclusive o da selagem do segmento da marca
+     */
+    void sincronizar(Marca marca) throws IOException {
+        sincronizacao.lock();
+        try {
+            Segmento segmento = atual;
+            while (marca.segmento() > seladoAte && marca.segmento() != segmento.sequencia()) {
+                seladoCondicao.awaitUninterruptibly();
+                segmento = atual;
+            }
+            if (marca.segmento() <= seladoAte) {
+                if (marca.segmento() == falhaSelagem) {
+                    throw new IOException("Falha ao sincronizar o segmento " + marca.segmento() + " do diário");
+                }
+                return;
+            }
+            if (sincronizadoSegmento == segmento.sequencia() && marca.posicao() <= sincronizado) {
+                return;
+            }
+            // o canal continua aberto mesmo que o segmento seja trocado agora: só a selagem o fecha, sob este lock
+            long posicao = segmento.canal().position();
+            segmento.canal().force(false);
+            sincronizadoSegmento = segmento.sequencia();
+            sincronizado = posicao;
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    /**
+     * Abre o arquivo do próximo segmento, para que a troca não faça I/O.
+     */
+    void prepararSegmento() throws IOException {
+        if (proximo == null) {
+            proximo = abrirSegmento(atual.sequencia() + 1);
+        }
+    }
+
+    /**
+     * Passa a acrescentar as atualizações no segmento preparado. O anterior deve ser selado em seguida, fora do
+     * lock.
+     */
+    void trocarSegmento() {
+        if (proximo == null) {
+            throw new IllegalStateException("Próximo segmento do diário não preparado");
+        }
+        anterior = atual;
+        atual = proximo;
+        proximo = null;
+    }
+
+    /**
+     * Sincroniza e fecha o segmento trocado. Se o {@code fsync} falhar, os segmentos continuam guardados para a
+     * próxima selagem, e as escritas que esperavam por ele recebem a falha.
+     *
+     * @return os segmentos cujas atualizações devem ser gravadas antes de serem apagados
+     */
+    List<Path> selar() throws IOException {
+        sincronizacao.lock();
+        try {
+            Segmento selado = anterior;
+            anterior = null;
+            selados.add(arquivo(selado.sequencia()));
+            try (FileChannel canal = selado.canal()) {
+                canal.force(false);
+            } catch (IOException e) {
+                falhaSelagem = selado.sequencia();
+                throw e;
+            } finally {
+                seladoAte = selado.sequencia();
+                seladoCondicao.signalAll();
+            }
+            List<Path> segmentos = List.copyOf(selados);
+            selados.clear();
+            return segmentos;
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    /**
+     * Apaga segmentos cujas atualizações já estão no banco.
+     */
+    void descartar(List<Path> segmentos) throws IOException {
+        for (Path arquivo : segmentos) {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Mantém segmentos cuja gravação falhou, para que sejam apagados apenas depois de uma gravação completa.
+     */
+    void devolver(List<Path> segmentos) {
+        selados.addAll(0, segmentos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sincronizacao.lock();
+        try {
+            if (proximo != null) {
+                proximo.canal().close();
+                proximo = null;
+            }
+            if (atual != null && atual.canal().isOpen()) {
+                atual.canal().force(false);
+                atual.canal().close();
+            }
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    private Segmento abrirSegmento(long sequencia) throws IOException {
+        return new Segmento(sequencia, FileChannel.open(arquivo(sequencia), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    private Path arquivo(long sequencia) {
+        return diretorio.resolve(PREFIXO + sequencia + SUFIXO);
+    }
+
+    private static long sequencia(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.startsWith(PREFIXO) || !nome.endsWith(SUFIXO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome, PREFIXO.length(), nome.length() - SUFIXO.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void ler(Path arquivo, Map<Long, Atualizacao> atualizacoes) throws IOException {
+        ByteBuffer entrada = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        while (entrada.remaining() >= CABECALHO) {
+            int tamanho = entrada.getInt();
+            int crc = entrada.getInt();
+            if (tamanho < 20 || tamanho > entrada.remaining()) {
+                return;
+            }
+            ByteBuffer corpo = entrada.slice(entrada.position(), tamanho);
+            CRC32C calculado = new CRC32C();
+            calculado.update(corpo.duplicate());
+            if ((int) calculado.getValue() != crc) {
+                return;
+            }
+            entrada.position(entrada.position() + tamanho);
+            long id = corpo.getLong();
+            Instant aceitoEm = Instant.ofEpochSecond(corpo.getLong(), corpo.getInt());
+            String nome = lerTexto(corpo);
+            String categoria = lerTexto(corpo);
+            double preco = corpo.getDouble();
+            int quantidade = corpo.getInt();
+            String descricao = lerTexto(corpo);
+            atualizacoes.remove(id);
+            atualizacoes.put(id, new Atualizacao(new ProdutoRequestDTO(nome, categoria, preco, quantidade, descricao), aceitoEm));
+        }
+    }
+
+    /**
+     * Os campos obrigatórios já foram validados pelo controller; apenas a descrição pode ser nula.
+     */
+    private static ByteBuffer codificar(Long id, Atualizacao atualizacao) {
+        ProdutoRequestDTO dto = atualizacao.dto();
+        byte[] nome = bytes(dto.getNome());
+        byte[] categoria = bytes(dto.getCategoria());
+        byte[] descricao = bytes(dto.getDescricao());
+        int tamanho = 8 + 8 + 4 + 4 + nome.length + 4 + categoria.length + 8 + 4 + 4 + (descricao == null ? 0 : descricao.length);
+        ByteBuffer registro = ByteBuffer.allocate(CABECALHO + tamanho);
+        registro.putInt(tamanho).putInt(0).putLong(id);
+        registro.putLong(atualizacao.aceitoEm().getEpochSecond()).putInt(atualizacao.aceitoEm().getNano());
+        escreverTexto(registro, nome);
+        escreverTexto(registro, categoria);
+        registro.putDouble(dto.getPreco()).putInt(dto.getQuantidade());
+        escreverTexto(registro, descricao);
+        CRC32C crc = new CRC32C();
+        crc.update(registro.array(), CABECALHO, tamanho);
+        registro.putInt(4, (int) crc.getValue());
+        return registro.flip();
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void escreverTexto(ByteBuffer registro, byte[] texto) {
+        if (texto == null) {
+            registro.putInt(-1);
+        } else {
+            registro.putInt(texto.length).put(texto);
+        }
+    }
+
+    private static String lerTexto(ByteBuffer corpo) {
+        int tamanho = corpo.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        String texto = new String(corpo.array(), corpo.arrayOffset() + corpo.position(), tamanho, StandardCharsets.UTF_8);
+        corpo.position(corpo.position() + tamanho);
+        return texto;
+    }
+}
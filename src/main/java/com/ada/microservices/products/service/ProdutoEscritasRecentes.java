@@ -0,0 +1,44 @@
+package com.ada.microservices.products.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Produtos alterados nesta instância há menos de {@code produtos.replicas.janela-leitura-propria}. Enquanto a
+ * réplica pode não ter recebido a alteração, a leitura desses produtos vai ao primário (read-your-writes).
+ * Com a janela zerada nada é registrado.
+ */
+@Component
+public class ProdutoEscritasRecentes {
+
+    private static final int MAXIMO_REGISTROS = 100_000;
+
+    private final Cache<Long, Boolean> escritas;
+
+    public ProdutoEscritasRecentes(@Value("${produtos.replicas.janela-leitura-propria:2s}") Duration janela) {
+        this.escritas = janela.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .maximumSize(MAXIMO_REGISTROS)
+                .build();
+    }
+
+    public void registrar(Long id) {
+        if (escritas != null && id != null) {
+            escritas.put(id, Boolean.TRUE);
+        }
+    }
+
+    public void registrar(Collection<Long> ids) {
+        ids.forEach(this::registrar);
+    }
+
+    public boolean recente(Long id) {
+        return escritas != null && escritas.getIfPresent(id) != null;
+    }
+}
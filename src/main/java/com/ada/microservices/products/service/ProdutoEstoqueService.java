@@ -0,0 +1,204 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.config.MetricsConfig;
+import com.ada.microservices.products.exception.InsufficientStockException;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ajustes de estoque por variação (delta).
+ * <p>
+ * No modo padrão cada ajuste é um UPDATE atômico com proteção contra estoque negativo. Com
+ * {@code produtos.estoque.acumular=true}, as entradas são somadas em contadores {@link LongAdder} por produto,
+ * que distribuem a contenção entre células por thread, e gravadas periodicamente em uma única transação. As
+ * saídas continuam aplicadas na hora, pelo mesmo UPDATE do modo padrão: uma saída só é confirmada se o estoque a
+ * comporta, e a recusa chega ao cliente como {@link InsufficientStockException}, em vez de ser descartada depois
+ * da confirmação. Uma saída recusada com entradas do produto ainda não gravadas grava as pendentes e é tentada
+ * de novo.
+ * <p>
+ * Nesse modo a entrada de um produto inexistente é recusada na hora (a existência é consultada quando o produto
+ * não tem contador), e as demais são apenas aceitas. Uma entrada aceita só se perde se o produto for removido
+ * antes da gravação. O contador de um produto sem entradas durante um intervalo inteiro é removido, para que o
+ * mapa não cresça com todos os produtos já ajustados.
+ */
+@Service
+@Timed(MetricsConfig.SERVICO_TIMER)
+public class ProdutoEstoqueService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoEstoqueService.class);
+
+    public enum Resultado {
+        APLICADO, ACUMULADO
+    }
+
+    private final ProdutoService produtoService;
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ProdutoEventoService eventos;
+    private final boolean acumular;
+    // entradas ainda não gravadas, por produto
+    private final Map<Long, LongAdder> pendentes = new ConcurrentHashMap<>();
+    // ReentrantLock em vez de synchronized: a gravação faz I/O e não deve fixar (pin) a thread portadora
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    @Autowired
+    public ProdutoEstoqueService(ProdutoService produtoService,
+                                 ProdutoRepository produtoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 CacheManager cacheManager,
+                                 ProdutoEventoService eventos,
+                                 @Value("${produtos.estoque.acumular:false}") boolean acumular) {
+        this.produtoService = produtoService;
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventos = eventos;
+        this.acumular = acumular;
+    }
+
+    /**
+     * @throws InsufficientStockException se o ajuste deixaria o estoque negativo
+     */
+    public Resultado ajustarEstoque(Long id, int delta) {
+        if (!acumular || delta < 0) {
+            aplicar(id, delta);
+            return Resultado.APLICADO;
+        }
+        if (!pendentes.containsKey(id) && !produtoRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+        }
+        acumular(id, delta);
+        return Resultado.ACUMULADO;
+    }
+
+    /**
+     * Grava as entradas acumuladas desde a última execução e remove os contadores que ficaram o intervalo
+     * inteiro sem entradas.
+     */
+    @Scheduled(fixedDelayString = "${produtos.estoque.intervalo-flush-ms:100}")
+    public void gravarAjustesPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        gravacao.lock();
+        try {
+            gravar();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    private void aplicar(Long id, int delta) {
+        try {
+            produtoService.ajustarEstoque(id, delta);
+        } catch (InsufficientStockException e) {
+            LongAdder entradas = pendentes.get(id);
+            if (!acumular || entradas == null || entradas.sum() == 0) {
+                throw e;
+            }
+            // as entradas ainda não gravadas podem comportar a saída
+            gravarAjustesPendentes();
+            produtoService.ajustarEstoque(id, delta);
+        }
+    }
+
+    /**
+     * Soma a entrada ao contador do produto. Se a gravação removeu o contador entre a leitura e a soma, o que
+     * ficou nele é recolhido e somado ao contador atual: cada célula é zerada atomicamente por
+     * {@link LongAdder#sumThenReset()}, então uma entrada é recolhida uma única vez, aqui ou pela gravação.
+     */
+    private void acumular(Long id, long entrada) {
+        long restante = entrada;
+        while (restante != 0) {
+            LongAdder entradas = pendentes.computeIfAbsent(id, chave -> new LongAdder());
+            entradas.add(restante);
+            if (pendentes.get(id) == entradas) {
+                return;
+            }
+            restante = entradas.sumThenReset();
+        }
+    }
+
+    private void gravar() {
+        Map<Long, Long> lote = new LinkedHashMap<>();
+        pendentes.forEach((id, entradas) -> {
+            long total = entradas.sumThenReset();
+            if (total != 0) {
+                lote.put(id, total);
+            } else if (pendentes.remove(id, entradas)) {
+                // sem entradas no intervalo: remove o contador e recolhe uma entrada que tenha chegado nele agora
+                acumular(id, entradas.sumThenReset());
+            }
+        });
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Long> removidos = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> lote.forEach((id, total) -> {
+                if (gravarEntradas(id, total)) {
+                    eventos.registrarAtualizacao(id);
+                } else {
+                    removidos.add(id);
+                }
+            }));
+        } catch (RuntimeException e) {
+            // a transação foi desfeita: devolve as entradas aos contadores para a próxima execução
+            lote.forEach(this::acumular);
+            log.error("Falha ao gravar entradas de estoque acumuladas; nova tentativa na próxima execução", e);
+            return;
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+        if (cache != null) {
+            lote.keySet().forEach(cache::evict);
+        }
+        if (!removidos.isEmpty()) {
+            // uma entrada que ainda chegue ao produto removido é descartada na próxima execução
+            removidos.forEach(pendentes::remove);
+            log.warn("Entradas de estoque acumuladas descartadas (produto removido): {}", removidos);
+        }
+    }
+
+    /**
+     * Soma as entradas ao estoque, em UPDATEs de até {@link Integer#MAX_VALUE}.
+     *
+     * @return se o produto ainda existe
+     */
+    private boolean gravarEntradas(Long id, long total) {
+        for (long restante = total; restante > 0; restante -= Integer.MAX_VALUE) {
+            if (produtoRepository.ajustarEstoque(id, (int) Math.min(restante, Integer.MAX_VALUE)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarAjustesPendentes();
+    }
+}
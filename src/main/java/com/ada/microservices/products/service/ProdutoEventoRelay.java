@@ -0,0 +1,109 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoEventoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Publica os eventos do outbox no {@link ProdutoEventoSink}, em lotes de {@code produtos.eventos.tamanho-lote}.
+ * <p>
+ * Cada lote é lido com bloqueio, recebe posições consecutivas no feed, é entregue ao sink e marcado como
+ * publicado na mesma transação. Se o sink falhar a transação é desfeita e o lote volta a ser entregue na
+ * próxima execução (entrega pelo menos uma vez). Com várias instâncias, o bloqueio faz com que apenas um relay
+ * atribua posições por vez, então a ordem do feed é a ordem de publicação.
+ */
+@Component
+public class ProdutoEventoRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoEventoRelay.class);
+
+    private final ProdutoEventoRepository eventoRepository;
+    private final ProdutoEventoService eventoService;
+    private final ProdutoEventoSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration retencao;
+    // ReentrantLock em vez de synchronized: a publicação faz I/O e não deve fixar (pin) a thread portadora
+    private final ReentrantLock publicacao = new ReentrantLock();
+
+    @Autowired
+    public ProdutoEventoRelay(ProdutoEventoRepository eventoRepository,
+                              ProdutoEventoService eventoService,
+                              ProdutoEventoSink sink,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${produtos.eventos.tamanho-lote:500}") int tamanhoLote,
+                              @Value("${produtos.eventos.retencao:7d}") Duration retencao) {
+        this.eventoRepository = eventoRepository;
+        this.eventoService = eventoService;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.retencao = retencao;
+    }
+
+    /**
+     * Publica os eventos pendentes, lote a lote, até esvaziar o outbox.
+     */
+    @Scheduled(fixedDelayString = "${produtos.eventos.intervalo-relay-ms:500}")
+    public void publicarPendentes() {
+        if (!publicacao.tryLock()) {
+            return;
+        }
+        try {
+            while (publicarLote() == tamanhoLote) {
+                // lote cheio: ainda pode haver eventos pendentes
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao publicar eventos de produtos; nova tentativa na próxima execução", e);
+        } finally {
+            publicacao.unlock();
+        }
+    }
+
+    /**
+     * Remove os eventos publicados há mais de {@code produtos.eventos.retencao}, mantendo sempre o de maior
+     * posição, a partir do qual os próximos são numerados. Consumidores parados por mais tempo que isso recebem
+     * 410 em {@code GET /produtos/changes} e devem refazer a carga completa por {@code GET /produtos}.
+     */
+    @Scheduled(fixedDelayString = "${produtos.eventos.intervalo-limpeza-ms:3600000}")
+    public void removerAntigos() {
+        Integer removidos = transactionTemplate.execute(status ->
+                eventoRepository.removerPublicadosAntesDe(Instant.now().minus(retencao)));
+        if (removidos != null && removidos > 0) {
+            log.info("{} eventos de produtos publicados há mais de {} removidos", removidos, retencao);
+        }
+    }
+
+    private int publicarLote() {
+        Integer publicados = transactionTemplate.execute(status -> {
+            List<ProdutoEvento> pendentes = eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(tamanhoLote));
+            if (pendentes.isEmpty()) {
+                return 0;
+            }
+            long posicao = eventoRepository.ultimaPosicao();
+            Instant agora = Instant.now();
+            for (ProdutoEvento evento : pendentes) {
+                evento.setPosicao(++posicao);
+                evento.setPublicadoEm(agora);
+            }
+            sink.publicar(pendentes.stream().map(eventoService::paraDTO).collect(Collectors.toList()));
+            return pendentes.size();
+        });
+        return publicados == null ? 0 : publicados;
+    }
+}
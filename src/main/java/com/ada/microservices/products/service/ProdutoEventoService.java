@@ -0,0 +1,199 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.MetricsConfig;
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+import com.ada.microservices.products.dto.ProdutoMudancasDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.ResourceGoneException;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoEventoRepository;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de alterações de produtos (transactional outbox).
+ * <p>
+ * As escritas chamam {@link #registrar} dentro da própria transação, então o evento só existe se a alteração
+ * for confirmada. O {@link ProdutoEventoRelay} publica os eventos e atribui a cada um a sua posição no feed,
+ * na ordem em que foram publicados; os consumidores leem o feed a partir da última posição que processaram.
+ */
+@Service
+@Timed(MetricsConfig.SERVICO_TIMER)
+public class ProdutoEventoService {
+
+    public static final int LIMITE_MAXIMO_MUDANCAS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoEventoService.class);
+
+    private record Espera(long desde, int limite, long prazo, CompletableFuture<ProdutoMudancasDTO> resultado) {
+    }
+
+    private final ProdutoEventoRepository eventoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final ObjectMapper objectMapper;
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public ProdutoEventoService(ProdutoEventoRepository eventoRepository, ProdutoRepository produtoRepository,
+                                ObjectMapper objectMapper) {
+        this.eventoRepository = eventoRepository;
+        this.produtoRepository = produtoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Grava o evento no outbox, na transação da alteração.
+     *
+     * @param produto o produto após a alteração, ou {@code null} na remoção
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(ProdutoEvento.Tipo tipo, Long produtoId, ProdutoResponseDTO produto) {
+        eventoRepository.save(ProdutoEvento.builder()
+                .produtoId(produtoId)
+                .tipo(tipo)
+                .dados(produto == null ? null : paraJson(produto))
+                .ocorridoEm(Instant.now())
+                .build());
+    }
+
+    /**
+     * Grava um evento de atualização com o estado atual do produto, lido na transação da alteração. Usado
+     * pelas escritas que só conhecem a variação aplicada, como os ajustes de estoque.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAtualizacao(Long produtoId) {
+        registrar(ProdutoEvento.Tipo.ATUALIZADO, produtoId, produtoRepository.buscarDTOPorId(produtoId).orElse(null));
+    }
+
+    /**
+     * Lista os eventos publicados depois da posição {@code desde}, na ordem do feed.
+     *
+     * @param desde a última posição já processada pelo consumidor, ou {@code null} para o início do feed
+     * @param limite a quantidade máxima de eventos
+     * @throws ResourceGoneException se eventos seguintes a {@code desde} já foram removidos pela retenção
+     */
+    @Transactional(readOnly = true)
+    public ProdutoMudancasDTO listarMudancas(Long desde, int limite) {
+        validarLimite(limite);
+        long cursor = desde == null ? 0 : desde;
+        List<ProdutoEventoDTO> eventos = buscar(cursor, limite);
+        if (eventosRemovidos(cursor, eventos)) {
+            throw cursorExpirado(cursor, eventos);
+        }
+        return mudancas(cursor, eventos);
+    }
+
+    /**
+     * Como {@link #listarMudancas}, mas quando não há eventos novos aguarda até {@code espera} que algum seja
+     * publicado (long-poll), sem ocupar uma thread durante a espera: as consultas pendentes são atendidas por
+     * {@link #atenderEsperas()}, com uma consulta ao banco por cursor distinto.
+     */
+    public CompletableFuture<ProdutoMudancasDTO> aguardarMudancas(Long desde, int limite, Duration espera) {
+        ProdutoMudancasDTO mudancas = listarMudancas(desde, limite);
+        if (!mudancas.getEventos().isEmpty() || espera.isZero()) {
+            return CompletableFuture.completedFuture(mudancas);
+        }
+        CompletableFuture<ProdutoMudancasDTO> resultado = new CompletableFuture<>();
+        esperas.add(new Espera(mudancas.getProximoCursor(), limite, System.nanoTime() + espera.toNanos(), resultado));
+        return resultado;
+    }
+
+    @Scheduled(fixedDelayString = "${produtos.eventos.intervalo-espera-ms:250}")
+    public void atenderEsperas() {
+        if (esperas.isEmpty()) {
+            return;
+        }
+        long agora = System.nanoTime();
+        Map<Long, List<Espera>> porCursor = new HashMap<>();
+        for (Espera espera : esperas) {
+            porCursor.computeIfAbsent(espera.desde(), cursor -> new ArrayList<>()).add(espera);
+        }
+        porCursor.forEach((desde, grupo) -> {
+            List<ProdutoEventoDTO> eventos;
+            try {
+                eventos = buscar(desde, grupo.stream().mapToInt(Espera::limite).max().orElse(1));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao consultar o feed de alterações; nova tentativa na próxima execução", e);
+                eventos = List.of();
+            }
+            for (Espera espera : grupo) {
+                if (eventosRemovidos(desde, eventos)) {
+                    espera.resultado().completeExceptionally(cursorExpirado(desde, eventos));
+                } else if (!eventos.isEmpty()) {
+                    espera.resultado().complete(mudancas(desde, eventos.subList(0, Math.min(espera.limite(), eventos.size()))));
+                } else if (agora - espera.prazo() >= 0) {
+                    espera.resultado().complete(mudancas(desde, List.of()));
+                }
+            }
+        });
+        esperas.removeIf(espera -> espera.resultado().isDone());
+    }
+
+    public ProdutoEventoDTO paraDTO(ProdutoEvento evento) {
+        return new ProdutoEventoDTO(evento.getPosicao(), evento.getProdutoId(), evento.getTipo(), evento.getOcorridoEm(),
+                evento.getDados());
+    }
+
+    private List<ProdutoEventoDTO> buscar(long desde, int limite) {
+        return eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(desde, Limit.of(limite)).stream()
+                .map(this::paraDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * As posições são consecutivas e o relay nunca remove o evento de maior posição: se há eventos depois do
+     * cursor, mas o primeiro não é o seguinte a ele, os intermediários foram removidos pela retenção.
+     */
+    private static boolean eventosRemovidos(long desde, List<ProdutoEventoDTO> eventos) {
+        return !eventos.isEmpty() && eventos.get(0).getPosicao() > desde + 1;
+    }
+
+    private static ResourceGoneException cursorExpirado(long desde, List<ProdutoEventoDTO> eventos) {
+        return new ResourceGoneException("Os eventos posteriores à posição " + desde + " já foram removidos; refaça a "
+                + "carga completa por GET /produtos e continue o feed com since=" + (eventos.get(0).getPosicao() - 1));
+    }
+
+    private static ProdutoMudancasDTO mudancas(long desde, List<ProdutoEventoDTO> eventos) {
+        Long proximoCursor = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getPosicao();
+        return new ProdutoMudancasDTO(List.copyOf(eventos), proximoCursor);
+    }
+
+    private String paraJson(ProdutoResponseDTO produto) {
+        try {
+            return objectMapper.writeValueAsString(produto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_MUDANCAS) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO_MUDANCAS);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos publicados pelo {@link ProdutoEventoRelay}. Por padrão os eventos ficam em memória
+ * ({@link MemoriaProdutoEventoSink}) ou são gravados em arquivo ({@link ArquivoProdutoEventoSink}); um adaptador
+ * para um broker de mensagens é registrado declarando um bean que implemente esta interface.
+ */
+public interface ProdutoEventoSink {
+
+    /**
+     * Entrega um lote de eventos, na ordem do feed. Chamado dentro da transação que os marca como publicados:
+     * se lançar uma exceção, o lote inteiro é entregue de novo na próxima execução do relay.
+     */
+    void publicar(List<ProdutoEventoDTO> eventos);
+}
@@ -0,0 +1,376 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.config.RoteamentoDataSource;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre o nome e a descrição dos produtos, para a busca textual de
+ * {@code GET /produtos/busca}.
+ * <p>
+ * Os textos são divididos em termos sem acentos e em minúsculas ("Pão de Açúcar" gera {@code pao}, {@code de},
+ * {@code acucar}). Cada termo da consulta casa por prefixo com os termos indexados, e um produto só é
+ * retornado se casar com todos os termos da consulta. O vocabulário fica ordenado em um
+ * {@link ConcurrentSkipListSet}, então um prefixo é resolvido por um intervalo do conjunto, sem varrer o índice,
+ * e os IDs de cada termo também, para que a busca percorra os produtos em ordem de ID e pare ao atingir o limite.
+ * <p>
+ * O índice é reconstruído na inicialização, antes de o servidor aceitar requisições, e mantido pelas escritas
+ * de {@link ProdutoService} e {@link ProdutoLoteService}, aplicadas após o commit. Como cada instância tem o seu
+ * índice, ele também é atualizado a cada {@code produtos.busca.intervalo-atualizacao-ms} pelas consultas da
+ * sincronização incremental, que trazem as alterações feitas por outras instâncias e pelos demais caminhos de
+ * escrita.
+ * <p>
+ * A mesma leitura descarta esses produtos do cache de leitura por ID, que também é local: uma escrita de outra
+ * instância fica visível nas leituras desta em até um intervalo de atualização, em vez de só quando a entrada
+ * expira. A janela de leitura de alterações é recuada pela margem da sincronização, então uma carga concorrente
+ * que devolva ao cache o estado anterior é descartada de novo nos ciclos seguintes.
+ */
+@Component
+public class ProdutoIndiceBusca implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoIndiceBusca.class);
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final boolean reconstruirNaInicializacao;
+    private final int tamanhoLote;
+    // ReentrantLock em vez de synchronized, que prenderia a thread virtual à portadora durante as consultas
+    private final ReentrantLock atualizacao = new ReentrantLock();
+
+    // termo -> IDs dos produtos que o contêm, em ordem crescente
+    private final Map<String, NavigableSet<Long>> produtosPorTermo = new ConcurrentHashMap<>();
+    // ID -> termos indexados do produto, para reindexar e remover sem consultar o banco
+    private final Map<Long, Set<String>> termosPorProduto = new ConcurrentHashMap<>();
+    // vocabulário ordenado para a busca por prefixo; só contém termos com produtos
+    private final NavigableSet<String> vocabulario = new ConcurrentSkipListSet<>();
+    // início da última leitura das alterações, já recuado pela margem da sincronização; protegido por atualizacao
+    private Instant cursor;
+
+    @Autowired
+    public ProdutoIndiceBusca(ProdutoRepository produtoRepository,
+                              PlatformTransactionManager transactionManager,
+                              CacheManager cacheManager,
+                              @Value("${produtos.busca.reconstruir-na-inicializacao:true}") boolean reconstruirNaInicializacao,
+                              @Value("${produtos.busca.tamanho-lote:1000}") int tamanhoLote) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheManager = cacheManager;
+        this.reconstruirNaInicializacao = reconstruirNaInicializacao;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (reconstruirNaInicializacao) {
+            reconstruir();
+            return;
+        }
+        atualizacao.lock();
+        try {
+            cursor = Instant.now().minus(ProdutoService.MARGEM_SINCRONIZACAO);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Descarta o índice e o reconstrói a partir do banco. Os produtos são lidos em lotes por cursor (keyset),
+     * direto nos DTOs, e indexados em sequência, na thread que chamou: a tokenização de um lote custa menos que
+     * a consulta do seguinte, e dividi-la no pool comum do {@code ForkJoinPool} só disputaria as threads dele com
+     * o restante da aplicação durante a inicialização.
+     */
+    public void reconstruir() {
+        atualizacao.lock();
+        try {
+            long inicio = System.nanoTime();
+            Instant desde = Instant.now().minus(ProdutoService.MARGEM_SINCRONIZACAO);
+            produtosPorTermo.clear();
+            termosPorProduto.clear();
+            vocabulario.clear();
+            long apos = Long.MIN_VALUE;
+            long total = 0;
+            List<ProdutoResponseDTO> lote;
+            do {
+                long cursorLote = apos;
+                lote = RoteamentoDataSource.noPrimario(() -> transactionTemplate.execute(
+                        status -> produtoRepository.listarDTOsAposId(cursorLote, Limit.of(tamanhoLote))));
+                lote.forEach(produto -> aplicar(produto.getId(), produto.getNome(), produto.getDescricao()));
+                if (!lote.isEmpty()) {
+                    apos = lote.get(lote.size() - 1).getId();
+                    total += lote.size();
+                }
+            } while (lote.size() == tamanhoLote);
+            cursor = desde;
+            log.info("Índice de busca reconstruído com {} produtos e {} termos em {} ms",
+                    total, vocabulario.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Aplica as alterações e remoções gravadas no banco desde a última atualização, por qualquer instância, e
+     * descarta os produtos alterados ou removidos do cache de leitura por ID. As consultas vão ao primário, como
+     * as da sincronização incremental; reaplicar um produto já indexado não muda o índice.
+     */
+    @Scheduled(fixedDelayString = "${produtos.busca.intervalo-atualizacao-ms:1000}")
+    public void atualizar() {
+        if (!atualizacao.tryLock()) {
+            return;
+        }
+        try {
+            if (cursor == null) {
+                return;
+            }
+            Instant inicio = Instant.now();
+            Instant desde = cursor;
+            record Alteracoes(List<ProdutoResponseDTO> alterados, List<Long> removidos) {
+            }
+            Alteracoes alteracoes = RoteamentoDataSource.noPrimario(() -> transactionTemplate.execute(
+                    status -> new Alteracoes(produtoRepository.listarDTOsAlteradosDesde(desde),
+                            produtoRepository.listarIdsRemovidosDesde(desde))));
+            alteracoes.alterados().forEach(produto -> aplicar(produto.getId(), produto.getNome(), produto.getDescricao()));
+            alteracoes.removidos().forEach(this::desindexar);
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+            if (cache != null) {
+                alteracoes.alterados().forEach(produto -> cache.evict(produto.getId()));
+                alteracoes.removidos().forEach(cache::evict);
+            }
+            cursor = inicio.minus(ProdutoService.MARGEM_SINCRONIZACAO);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o índice de busca; nova tentativa no próximo ciclo", e);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Indexa (ou reindexa) o produto com o nome e a descrição informados.
+     */
+    public void indexar(Long id, String nome, String descricao) {
+        aposCommit(() -> aplicar(id, nome, descricao));
+    }
+
+    public void remover(Long id) {
+        aposCommit(() -> desindexar(id));
+    }
+
+    /**
+     * Busca os produtos que contêm, para cada termo da consulta, algum termo iniciado por ele.
+     * <p>
+     * Os IDs do prefixo mais longo, em geral o mais seletivo, são percorridos em ordem crescente, intercalando
+     * as listas dos termos que ele casa; cada ID é conferido contra os demais prefixos pelos termos do próprio
+     * produto, e a busca para ao atingir o limite. Assim um prefixo curto, que casa com boa parte do catálogo,
+     * não obriga a unir todas as suas listas.
+     *
+     * @param consulta o texto digitado; acentos e maiúsculas são ignorados
+     * @param limite a quantidade máxima de IDs retornados
+     * @return os IDs encontrados, em ordem crescente
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> termos = tokenizar(consulta);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+        termos.sort((a, b) -> Integer.compare(b.length(), a.length()));
+        String principal = termos.get(0);
+        List<String> demais = termos.subList(1, termos.size());
+        // um iterador por termo casado pelo prefixo principal, ordenados pelo próximo ID de cada um
+        PriorityQueue<Cabeca> cabecas = new PriorityQueue<>();
+        for (String termo : vocabulario.subSet(principal, true, principal + Character.MAX_VALUE, false)) {
+            NavigableSet<Long> ids = produtosPorTermo.get(termo);
+            if (ids != null) {
+                Cabeca cabeca = new Cabeca(ids.iterator());
+                if (cabeca.avancar()) {
+                    cabecas.add(cabeca);
+                }
+            }
+        }
+        List<Long> encontrados = new ArrayList<>(Math.min(limite, 16));
+        long anterior = Long.MIN_VALUE;
+        boolean primeiro = true;
+        while (!cabecas.isEmpty() && encontrados.size() < limite) {
+            Cabeca cabeca = cabecas.poll();
+            long id = cabeca.id;
+            if (cabeca.avancar()) {
+                cabecas.add(cabeca);
+            }
+            if (!primeiro && id == anterior) {
+                continue;
+            }
+            primeiro = false;
+            anterior = id;
+            if (casaTodos(id, demais)) {
+                encontrados.add(id);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Quantidade de termos no vocabulário.
+     */
+    int termos() {
+        return vocabulario.size();
+    }
+
+    private boolean casaTodos(Long id, List<String> prefixos) {
+        if (prefixos.isEmpty()) {
+            return true;
+        }
+        Set<String> termosDoProduto = termosPorProduto.get(id);
+        if (termosDoProduto == null) {
+            return false;
+        }
+        for (String prefixo : prefixos) {
+            if (termosDoProduto.stream().noneMatch(termo -> termo.startsWith(prefixo))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Posição em uma lista de IDs de um termo, ordenada pelo ID atual.
+     */
+    private static final class Cabeca implements Comparable<Cabeca> {
+
+        private final Iterator<Long> ids;
+        private long id;
+
+        private Cabeca(Iterator<Long> ids) {
+            this.ids = ids;
+        }
+
+        boolean avancar() {
+            if (!ids.hasNext()) {
+                return false;
+            }
+            id = ids.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cabeca outra) {
+            return Long.compare(id, outra.id);
+        }
+    }
+
+    /**
+     * Divide o texto em termos sem acentos e em minúsculas, descartando repetições.
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return new ArrayList<>();
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADORES.split(semAcentos.toLowerCase(Locale.ROOT))) {
+            if (!termo.isEmpty() && !termos.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    /**
+     * As alterações de um mesmo produto são serializadas pelo {@code compute} do mapa de termos por produto.
+     */
+    private void aplicar(Long id, String nome, String descricao) {
+        Set<String> novos = new HashSet<>(tokenizar(nome));
+        novos.addAll(tokenizar(descricao));
+        termosPorProduto.compute(id, (chave, antigos) -> {
+            if (antigos != null) {
+                antigos.stream().filter(termo -> !novos.contains(termo)).forEach(termo -> desvincular(termo, id));
+            }
+            for (String termo : novos) {
+                vincular(termo, id);
+            }
+            return novos;
+        });
+    }
+
+    private void desindexar(Long id) {
+        termosPorProduto.compute(id, (chave, termos) -> {
+            if (termos != null) {
+                termos.forEach(termo -> desvincular(termo, id));
+            }
+            return null;
+        });
+    }
+
+    // a inclusão e a remoção do termo no vocabulário acontecem dentro do compute do termo, para que um termo com
+    // produtos nunca fique fora do vocabulário
+    private void vincular(String termo, Long id) {
+        produtosPorTermo.compute(termo, (t, ids) -> {
+            NavigableSet<Long> conjunto = ids;
+            if (conjunto == null) {
+                conjunto = new ConcurrentSkipListSet<>();
+                vocabulario.add(termo);
+            }
+            conjunto.add(id);
+            return conjunto;
+        });
+    }
+
+    private void desvincular(String termo, Long id) {
+        produtosPorTermo.computeIfPresent(termo, (t, ids) -> {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                vocabulario.remove(termo);
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Leitura de produtos por ID agrupada em lotes.
+ * <p>
+ * As leituras que chegam dentro de uma janela de {@code produtos.leitura-agrupada.janela} (ou até
+ * {@code produtos.leitura-agrupada.tamanho-maximo} IDs) viram uma única consulta: leituras concorrentes do mesmo
+ * ID compartilham o resultado, e IDs distintos são lidos juntos por {@code id in (...)}. Cada lote é executado
+ * em uma thread virtual própria, em uma transação somente leitura, enquanto o próximo já é formado. Com a janela
+ * zerada, cada leitura faz a sua própria consulta.
+ */
+@Component
+public class ProdutoLeituraAgrupada implements DisposableBean {
+
+    private record Pedido(Long id, CompletableFuture<Optional<ProdutoResponseDTO>> resultado) {
+    }
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final BlockingQueue<Pedido> pedidos = new LinkedBlockingQueue<>();
+    private final ExecutorService execucao;
+    private final Thread despachante;
+
+    @Autowired
+    public ProdutoLeituraAgrupada(ProdutoRepository produtoRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${produtos.leitura-agrupada.janela:1ms}") Duration janela,
+                                  @Value("${produtos.leitura-agrupada.tamanho-maximo:100}") int tamanhoMaximo) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.janelaNanos = janela.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        if (janela.isZero()) {
+            this.execucao = null;
+            this.despachante = null;
+        } else {
+            this.execucao = Executors.newVirtualThreadPerTaskExecutor();
+            this.despachante = Thread.ofVirtual().name("produtos-leitura-agrupada").start(this::despachar);
+        }
+    }
+
+    /**
+     * Lê o produto, aguardando o lote em que a leitura foi incluída.
+     */
+    public Optional<ProdutoResponseDTO> buscar(Long id) {
+        if (despachante == null) {
+            return transactionTemplate.execute(status -> produtoRepository.buscarDTOPorId(id));
+        }
+        CompletableFuture<Optional<ProdutoResponseDTO>> resultado = new CompletableFuture<>();
+        pedidos.add(new Pedido(id, resultado));
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void despachar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pedido> lote = new ArrayList<>(tamanhoMaximo);
+            try {
+                lote.add(pedidos.take());
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < tamanhoMaximo) {
+                    Pedido pedido = pedidos.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (pedido == null) {
+                        break;
+                    }
+                    lote.add(pedido);
+                }
+            } catch (InterruptedException e) {
+                lote.forEach(pedido -> pedido.resultado().completeExceptionally(new CancellationException()));
+                return;
+            }
+            execucao.execute(() -> executar(lote));
+        }
+    }
+
+    private void executar(List<Pedido> lote) {
+        Map<Long, List<Pedido>> porId = lote.stream()
+                .collect(Collectors.groupingBy(Pedido::id, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, ProdutoResponseDTO> encontrados;
+        try {
+            encontrados = transactionTemplate.execute(status -> porId.size() == 1
+                    ? produtoRepository.buscarDTOPorId(porId.keySet().iterator().next()).stream()
+                            .collect(Collectors.toMap(ProdutoResponseDTO::getId, Function.identity()))
+                    : produtoRepository.listarDTOsPorIds(porId.keySet()).stream()
+                            .collect(Collectors.toMap(ProdutoResponseDTO::getId, Function.identity())));
+        } catch (RuntimeException e) {
+            lote.forEach(pedido -> pedido.resultado().completeExceptionally(e));
+            return;
+        }
+        porId.forEach((id, pedidosDoId) -> {
+            Optional<ProdutoResponseDTO> produto = Optional.ofNullable(encontrados.get(id));
+            pedidosDoId.forEach(pedido -> pedido.resultado().complete(produto));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (despachante != null) {
+            despachante.interrupt();
+            execucao.close();
+            List<Pedido> restantes = new ArrayList<>();
+            pedidos.drainTo(restantes);
+            restantes.forEach(pedido -> pedido.resultado().completeExceptionally(new CancellationException()));
+        }
+    }
+}
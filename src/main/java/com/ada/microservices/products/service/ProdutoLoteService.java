@@ -0,0 +1,288 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.config.MetricsConfig;
+import com.ada.microservices.products.dto.ProdutoAtualizacaoLoteDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO.Status;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Operações de escrita em lote. Cada lote é dividido em blocos de {@code produtos.lote.tamanho-transacao}
+ * itens, cada bloco em sua própria transação, para que o Hibernate agrupe os comandos em batches JDBC
+ * sem manter o lote inteiro no contexto de persistência. A falha de um bloco não desfaz os anteriores.
+ * <p>
+ * Nas atualizações e remoções, um ID repetido no lote só é aplicado na primeira ocorrência; as demais são
+ * rejeitadas como inválidas, para que cada produto tenha um único resultado.
+ */
+@Service
+@Timed(MetricsConfig.SERVICO_TIMER)
+public class ProdutoLoteService {
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ProdutoIndiceBusca indiceBusca;
+    private final ProdutoEscritasRecentes escritasRecentes;
+    private final ProdutoEventoService eventos;
+    private final int tamanhoTransacao;
+    private final int tamanhoMaximo;
+
+    @Autowired
+    public ProdutoLoteService(ProdutoRepository produtoRepository,
+                              PlatformTransactionManager transactionManager,
+                              Validator validator,
+                              CacheManager cacheManager,
+                              ProdutoIndiceBusca indiceBusca,
+                              ProdutoEscritasRecentes escritasRecentes,
+                              ProdutoEventoService eventos,
+                              @Value("${produtos.lote.tamanho-transacao:500}") int tamanhoTransacao,
+                              @Value("${produtos.lote.tamanho-maximo:10000}") int tamanhoMaximo) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.indiceBusca = indiceBusca;
+        this.escritasRecentes = escritasRecentes;
+        this.eventos = eventos;
+        this.tamanhoTransacao = tamanhoTransacao;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    public List<ProdutoLoteResultadoDTO> criarProdutos(List<ProdutoRequestDTO> dtos) {
+        validarTamanho(dtos);
+        ProdutoLoteResultadoDTO[] resultados = new ProdutoLoteResultadoDTO[dtos.size()];
+        for (int inicio = 0; inicio < dtos.size(); inicio += tamanhoTransacao) {
+            int fim = Math.min(inicio + tamanhoTransacao, dtos.size());
+            List<Integer> indices = new ArrayList<>(fim - inicio);
+            List<Produto> produtos = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                ProdutoRequestDTO dto = dtos.get(i);
+                String erro = validar(dto);
+                if (erro != null) {
+                    resultados[i] = new ProdutoLoteResultadoDTO(i, null, Status.INVALIDO, erro);
+                    continue;
+                }
+                indices.add(i);
+                produtos.add(dto.paraEntidade());
+            }
+            if (produtos.isEmpty()) {
+                continue;
+            }
+            try {
+                List<Produto> salvos = transactionTemplate.execute(status -> {
+                    List<Produto> criados = produtoRepository.saveAll(produtos);
+                    criados.forEach(criado -> eventos.registrar(ProdutoEvento.Tipo.CRIADO, criado.getId(), ProdutoResponseDTO.de(criado)));
+                    return criados;
+                });
+                for (int j = 0; j < indices.size(); j++) {
+                    int indice = indices.get(j);
+                    Produto salvo = salvos.get(j);
+                    indiceBusca.indexar(salvo.getId(), salvo.getNome(), salvo.getDescricao());
+                    escritasRecentes.registrar(salvo.getId());
+                    resultados[indice] = new ProdutoLoteResultadoDTO(indice, salvo.getId(), Status.CRIADO, null);
+                }
+            } catch (RuntimeException e) {
+                for (int indice : indices) {
+                    resultados[indice] = new ProdutoLoteResultadoDTO(indice, null, Status.ERRO, e.getMessage());
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    public List<ProdutoLoteResultadoDTO> atualizarProdutos(List<ProdutoAtualizacaoLoteDTO> dtos) {
+        validarTamanho(dtos);
+        Map<Long, Integer> primeiras = primeirasOcorrencias(dtos.stream().map(dto -> dto == null ? null : dto.getId()).toList());
+        ProdutoLoteResultadoDTO[] resultados = new ProdutoLoteResultadoDTO[dtos.size()];
+        for (int inicio = 0; inicio < dtos.size(); inicio += tamanhoTransacao) {
+            int fim = Math.min(inicio + tamanhoTransacao, dtos.size());
+            List<Integer> indices = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                ProdutoAtualizacaoLoteDTO dto = dtos.get(i);
+                String erro = validar(dto);
+                if (erro == null) {
+                    erro = repetido(primeiras, dto.getId(), i);
+                }
+                if (erro != null) {
+                    resultados[i] = new ProdutoLoteResultadoDTO(i, dto == null ? null : dto.getId(), Status.INVALIDO, erro);
+                } else {
+                    indices.add(i);
+                }
+            }
+            if (indices.isEmpty()) {
+                continue;
+            }
+            Set<Long> ids = indices.stream().map(i -> dtos.get(i).getId()).collect(Collectors.toSet());
+            try {
+                Set<Long> atualizados = transactionTemplate.execute(status -> {
+                    Map<Long, Produto> existentes = produtoRepository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Produto::getId, Function.identity()));
+                    List<Produto> alterados = new ArrayList<>(existentes.size());
+                    for (int indice : indices) {
+                        ProdutoAtualizacaoLoteDTO dto = dtos.get(indice);
+                        Produto produto = existentes.get(dto.getId());
+                        if (produto != null) {
+                            alterados.add(produto);
+                            produto.setNome(dto.getNome());
+                            produto.setCategoria(dto.getCategoria());
+                            produto.setPreco(dto.getPreco());
+                            produto.setQuantidade(dto.getQuantidade());
+                            produto.setDescricao(dto.getDescricao());
+                        }
+                    }
+                    // a versão só é incrementada no flush; os eventos levam a versão gravada
+                    produtoRepository.flush();
+                    alterados.forEach(produto ->
+                            eventos.registrar(ProdutoEvento.Tipo.ATUALIZADO, produto.getId(), ProdutoResponseDTO.de(produto)));
+                    return existentes.keySet();
+                });
+                invalidarCache(atualizados);
+                for (int indice : indices) {
+                    ProdutoAtualizacaoLoteDTO dto = dtos.get(indice);
+                    Long id = dto.getId();
+                    if (atualizados.contains(id)) {
+                        indiceBusca.indexar(id, dto.getNome(), dto.getDescricao());
+                    }
+                    Status status = atualizados.contains(id) ? Status.ATUALIZADO : Status.NAO_ENCONTRADO;
+                    resultados[indice] = new ProdutoLoteResultadoDTO(indice, id, status, null);
+                }
+            } catch (RuntimeException e) {
+                for (int indice : indices) {
+                    resultados[indice] = new ProdutoLoteResultadoDTO(indice, dtos.get(indice).getId(), Status.ERRO, e.getMessage());
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    public List<ProdutoLoteResultadoDTO> deletarProdutos(List<Long> ids) {
+        validarTamanho(ids);
+        Map<Long, Integer> primeiras = primeirasOcorrencias(ids);
+        ProdutoLoteResultadoDTO[] resultados = new ProdutoLoteResultadoDTO[ids.size()];
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoTransacao) {
+            int fim = Math.min(inicio + tamanhoTransacao, ids.size());
+            Set<Long> bloco = new HashSet<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                Long id = ids.get(i);
+                String erro = id == null ? "O ID do produto é obrigatório" : repetido(primeiras, id, i);
+                if (erro != null) {
+                    resultados[i] = new ProdutoLoteResultadoDTO(i, id, Status.INVALIDO, erro);
+                } else {
+                    bloco.add(id);
+                }
+            }
+            if (bloco.isEmpty()) {
+                continue;
+            }
+            try {
+                Set<Long> removidos = transactionTemplate.execute(status -> {
+                    Set<Long> existentes = produtoRepository.findAllById(bloco).stream()
+                            .map(Produto::getId)
+                            .collect(Collectors.toSet());
+                    if (!existentes.isEmpty()) {
+                        produtoRepository.registrarRemocoes(existentes);
+                        produtoRepository.deleteAllByIdInBatch(existentes);
+                        existentes.forEach(id -> eventos.registrar(ProdutoEvento.Tipo.REMOVIDO, id, null));
+                    }
+                    return existentes;
+                });
+                invalidarCache(removidos);
+                removidos.forEach(indiceBusca::remover);
+                for (int i = inicio; i < fim; i++) {
+                    if (resultados[i] == null) {
+                        Long id = ids.get(i);
+                        Status status = removidos.contains(id) ? Status.REMOVIDO : Status.NAO_ENCONTRADO;
+                        resultados[i] = new ProdutoLoteResultadoDTO(i, id, status, null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // os itens já rejeitados mantêm o resultado da validação, na sua posição
+                for (int i = inicio; i < fim; i++) {
+                    if (resultados[i] == null) {
+                        resultados[i] = new ProdutoLoteResultadoDTO(i, ids.get(i), Status.ERRO, e.getMessage());
+                    }
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void validarTamanho(Collection<?> itens) {
+        if (itens == null || itens.isEmpty()) {
+            throw new IllegalArgumentException("O lote não pode estar vazio");
+        }
+        if (itens.size() > tamanhoMaximo) {
+            throw new IllegalArgumentException("O lote deve ter no máximo " + tamanhoMaximo + " itens");
+        }
+    }
+
+    /**
+     * Posição da primeira ocorrência de cada ID no lote; IDs nulos são ignorados.
+     */
+    private static Map<Long, Integer> primeirasOcorrencias(List<Long> ids) {
+        Map<Long, Integer> primeiras = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) != null) {
+                primeiras.putIfAbsent(ids.get(i), i);
+            }
+        }
+        return primeiras;
+    }
+
+    private static String repetido(Map<Long, Integer> primeiras, Long id, int indice) {
+        int primeira = primeiras.get(id);
+        return primeira == indice ? null : "ID repetido no lote, já informado no item " + primeira;
+    }
+
+    private String validar(ProdutoRequestDTO dto) {
+        if (dto == null) {
+            return "O item do lote não pode ser nulo";
+        }
+        Set<ConstraintViolation<ProdutoRequestDTO>> violacoes = validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void invalidarCache(Collection<Long> ids) {
+        escritasRecentes.registrar(ids);
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoReactiveRepository;
+import com.ada.microservices.products.repository.ProdutoSpecifications;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Versão não bloqueante do {@link ProdutoService}, com a mesma semântica, usada pela pilha reativa
+ * (profile {@code reactive}). As leituras vão ao banco pelo R2DBC, sem o cache de leitura da pilha servlet.
+ * <p>
+ * As escritas são delegadas ao próprio {@link ProdutoService}, em threads do {@link Schedulers#boundedElastic()},
+ * para que passem pelos mesmos ganchos: o evento no outbox na transação da alteração, a evicção do cache, o
+ * índice de busca e a janela de leitura própria. O R2DBC não participa das transações do JPA.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProdutoReactiveService {
+
+    private final ProdutoReactiveRepository produtoRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final ProdutoService produtoService;
+
+    @Autowired
+    public ProdutoReactiveService(ProdutoReactiveRepository produtoRepository, R2dbcEntityTemplate entityTemplate,
+                                  ProdutoService produtoService) {
+        this.produtoRepository = produtoRepository;
+        this.entityTemplate = entityTemplate;
+        this.produtoService = produtoService;
+    }
+
+    /**
+     * @see ProdutoService#criarProduto(ProdutoRequestDTO)
+     */
+    public Mono<ProdutoResponseDTO> criarProduto(ProdutoRequestDTO dto) {
+        return escrever(() -> produtoService.criarProduto(dto));
+    }
+
+    public Mono<ProdutoResponseDTO> buscarProdutoPorId(Long id) {
+        return produtoRepository.findById(id)
+                .map(ProdutoResponseDTO::de)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id)));
+    }
+
+    /**
+     * @see ProdutoService#atualizarProduto(Long, ProdutoRequestDTO, Long)
+     */
+    public Mono<ProdutoResponseDTO> atualizarProduto(Long id, ProdutoRequestDTO dto, Long versaoEsperada) {
+        return escrever(() -> produtoService.atualizarProduto(id, dto, versaoEsperada));
+    }
+
+    /**
+     * @see ProdutoService#ajustarEstoque(Long, int)
+     */
+    public Mono<Void> ajustarEstoque(Long id, int delta) {
+        return escrever(() -> {
+            produtoService.ajustarEstoque(id, delta);
+            return null;
+        });
+    }
+
+    /**
+     * @see ProdutoService#deletarProduto(Long)
+     */
+    public Mono<Void> deletarProduto(Long id) {
+        return escrever(() -> {
+            produtoService.deletarProduto(id);
+            return null;
+        });
+    }
+
+    /**
+     * @see ProdutoService#listarProdutosPaginados(Long, int)
+     */
+    public Mono<ProdutoPaginaDTO> listarProdutosPaginados(Long apos, int limite) {
+        return listarProdutosPaginados(null, apos, limite);
+    }
+
+    /**
+     * @see ProdutoService#listarProdutosPaginados(ProdutoFiltroDTO, Long, int)
+     */
+    public Mono<ProdutoPaginaDTO> listarProdutosPaginados(ProdutoFiltroDTO filtro, Long apos, int limite) {
+        if (limite < 1 || limite > ProdutoService.LIMITE_MAXIMO_PAGINA) {
+            return Mono.error(new IllegalArgumentException("O limite deve estar entre 1 e " + ProdutoService.LIMITE_MAXIMO_PAGINA));
+        }
+        try {
+            if (filtro != null) {
+                filtro.validar();
+            }
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        return buscarPagina(filtro, apos, limite).collectList().map(produtos -> {
+            Long proximoCursor = produtos.size() == limite ? produtos.get(produtos.size() - 1).getId() : null;
+            return new ProdutoPaginaDTO(produtos, proximoCursor);
+        });
+    }
+
+    /**
+     * Percorre todo o catálogo em lotes de {@code tamanhoLote}. A leitura avança conforme a demanda do
+     * assinante (backpressure), com no máximo um lote adiantado: um cliente lento segura a leitura do banco
+     * em vez de acumular o catálogo em memória.
+     */
+    public Flux<ProdutoResponseDTO> percorrerProdutos(int tamanhoLote) {
+        return percorrerProdutos(null, tamanhoLote);
+    }
+
+    /**
+     * Como {@link #percorrerProdutos(int)}, apenas com os produtos que atendem ao filtro.
+     */
+    public Flux<ProdutoResponseDTO> percorrerProdutos(ProdutoFiltroDTO filtro, int tamanhoLote) {
+        try {
+            if (filtro != null) {
+                filtro.validar();
+            }
+        } catch (IllegalArgumentException e) {
+            return Flux.error(e);
+        }
+        return buscarPagina(filtro, null, tamanhoLote).collectList()
+                .expand(lote -> lote.size() < tamanhoLote
+                        ? Mono.empty()
+                        : buscarPagina(filtro, lote.get(lote.size() - 1).getId(), tamanhoLote).collectList())
+                .concatMapIterable(lote -> lote, 1);
+    }
+
+    /**
+     * Executa a escrita bloqueante fora das threads do event loop; um resultado {@code null} completa vazio.
+     */
+    private static <T> Mono<T> escrever(Callable<T> escrita) {
+        return Mono.fromCallable(escrita).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<ProdutoResponseDTO> buscarPagina(ProdutoFiltroDTO filtro, Long apos, int limite) {
+        Long cursor = apos == null ? Long.MIN_VALUE : apos;
+        if (filtro == null || filtro.isVazio()) {
+            return produtoRepository.buscarPagina(cursor, limite).map(ProdutoResponseDTO::de);
+        }
+        Query consulta = Query.query(criterio(filtro, cursor)).sort(Sort.by("id")).limit(limite);
+        return entityTemplate.select(Produto.class).matching(consulta).all().map(ProdutoResponseDTO::de);
+    }
+
+    /**
+     * Mesmos predicados de {@link ProdutoSpecifications#doFiltro(ProdutoFiltroDTO)}, para o R2DBC.
+     */
+    private static Criteria criterio(ProdutoFiltroDTO filtro, Long cursor) {
+        Criteria criterio = Criteria.where("id").greaterThan(cursor);
+        if (filtro.getCategoria() != null) {
+            criterio = criterio.and("categoria").is(filtro.getCategoria());
+        }
+        if (filtro.getPrecoMin() != null) {
+            criterio = criterio.and("preco").greaterThanOrEquals(filtro.getPrecoMin());
+        }
+        if (filtro.getPrecoMax() != null) {
+            criterio = criterio.and("preco").lessThanOrEquals(filtro.getPrecoMax());
+        }
+        if (filtro.getNome() != null) {
+            criterio = criterio.and("nome").like(ProdutoSpecifications.prefixoLike(filtro.getNome()));
+        }
+        return criterio;
+    }
+}
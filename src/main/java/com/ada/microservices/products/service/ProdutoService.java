@@ -1,73 +1,436 @@
 package com.ada.microservices.products.service;
 
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.config.MetricsConfig;
+import com.ada.microservices.config.RoteamentoDataSource;
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
 import com.ada.microservices.products.dto.ProdutoRequestDTO;
 import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.dto.ProdutoSincronizacaoDTO;
 import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.model.ProdutoRemovido;
 import com.ada.microservices.products.repository.ProdutoRepository;
+import com.ada.microservices.products.repository.ProdutoSpecifications;
+import com.ada.microservices.products.exception.InsufficientStockException;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+import com.ada.microservices.products.exception.ResourceGoneException;
 import com.ada.microservices.products.exception.ResourceNotFoundException;
 
+import io.micrometer.core.annotation.Timed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICO_TIMER)
 public class ProdutoService {
 
+    public static final int LIMITE_MAXIMO_PAGINA = 1000;
+    public static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    /**
+     * Recuo aplicado ao cursor da sincronização incremental. Cobre as transações que gravaram o instante da
+     * alteração mas ainda não estavam confirmadas durante a consulta, e a diferença entre os relógios das
+     * instâncias e do banco; o preço é reenviar as alterações dos últimos segundos.
+     */
+    public static final Duration MARGEM_SINCRONIZACAO = Duration.ofSeconds(5);
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoService.class);
+
     private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate leitura;
+    private final ProdutoIndiceBusca indiceBusca;
+    private final ProdutoEscritasRecentes escritasRecentes;
+    private final ProdutoEventoService eventos;
+    private final ProdutoLeituraAgrupada leituraAgrupada;
+    private final ProdutoSnapshot snapshot;
+    private final Duration retencaoRemocoes;
 
     @Autowired
-    public ProdutoService(ProdutoRepository produtoRepository) {
+    public ProdutoService(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager,
+                          ProdutoIndiceBusca indiceBusca, ProdutoEscritasRecentes escritasRecentes,
+                          ProdutoEventoService eventos, ProdutoLeituraAgrupada leituraAgrupada, ProdutoSnapshot snapshot,
+                          @Value("${produtos.sincronizacao.retencao-remocoes:30d}") Duration retencaoRemocoes) {
         this.produtoRepository = produtoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.indiceBusca = indiceBusca;
+        this.escritasRecentes = escritasRecentes;
+        this.eventos = eventos;
+        this.leituraAgrupada = leituraAgrupada;
+        this.snapshot = snapshot;
+        this.retencaoRemocoes = retencaoRemocoes;
     }
 
+    @Transactional
     public ProdutoResponseDTO criarProduto(ProdutoRequestDTO dto) {
-        Produto produto = Produto.builder()
-                .nome(dto.getNome())
-                .categoria(dto.getCategoria())
-                .preco(dto.getPreco())
-                .quantidade(dto.getQuantidade())
-                .build();
-        produto = produtoRepository.save(produto);
-        return entityToDTO(produto);
+        Produto produto = produtoRepository.save(dto.paraEntidade());
+        indiceBusca.indexar(produto.getId(), produto.getNome(), produto.getDescricao());
+        escritasRecentes.registrar(produto.getId());
+        ProdutoResponseDTO criado = ProdutoResponseDTO.de(produto);
+        eventos.registrar(ProdutoEvento.Tipo.CRIADO, criado.getId(), criado);
+        return criado;
     }
 
+    /**
+     * Lê o produto direto no DTO. Em uma falta no cache, leituras concorrentes do mesmo ID esperam por uma única
+     * carga ({@code sync = true}), e a carga entra em um lote do {@link ProdutoLeituraAgrupada} com as de outros
+     * IDs, em uma transação somente leitura (servida por uma réplica, quando configuradas). Um produto alterado
+     * por esta instância dentro da janela de leitura própria é lido do primário, fora do lote.
+     * <p>
+     * O método não abre transação: a thread da requisição não deve segurar uma conexão enquanto espera o lote.
+     * <p>
+     * Com o {@link ProdutoSnapshot} ativo, o produto é lido do snapshot, sem passar pelo cache; só os produtos
+     * ausentes dele (criados depois da última atualização) são lidos do banco.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRODUTOS_CACHE, key = "#id", sync = true, condition = "!@produtoSnapshot.ativo")
     public ProdutoResponseDTO buscarProdutoPorId(Long id) {
-        Produto produto = produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        return entityToDTO(produto);
+        Optional<ProdutoResponseDTO> produto;
+        if (escritasRecentes.recente(id)) {
+            produto = RoteamentoDataSource.noPrimario(() -> produtoRepository.buscarDTOPorId(id));
+        } else {
+            produto = snapshot.isAtivo() ? snapshot.buscar(id) : Optional.empty();
+            if (produto.isEmpty()) {
+                produto = leituraAgrupada.buscar(id);
+            }
+        }
+        return produto.orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
     }
 
-    public ProdutoResponseDTO atualizarProduto(Long id, ProdutoRequestDTO dto) {
-        Produto produto = produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        produto.setNome(dto.getNome());
-        produto.setCategoria(dto.getCategoria());
-        produto.setPreco(dto.getPreco());
-        produto.setQuantidade(dto.getQuantidade());
-        produto = produtoRepository.save(produto);
-        return entityToDTO(produto);
+    /**
+     * Atualiza o produto em um único comando. Quando {@code versaoEsperada} é informada, a atualização só é
+     * aplicada se a versão armazenada for a mesma; caso contrário lança {@link PreconditionFailedException}.
+     *
+     * @return o produto atualizado, com a nova versão ({@code versaoEsperada + 1}); sem {@code versaoEsperada},
+     *         sem versão, já que o comando não a devolve e lê-la custaria mais uma ida ao banco
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS_CACHE, key = "#id")
+    public ProdutoResponseDTO atualizarProduto(Long id, ProdutoRequestDTO dto, Long versaoEsperada) {
+        if (versaoEsperada == null) {
+            int atualizados = produtoRepository.atualizarPorId(id, dto.getNome(), dto.getCategoria(), dto.getPreco(),
+                    dto.getQuantidade(), dto.getDescricao());
+            if (atualizados == 0) {
+                throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+            }
+            indiceBusca.indexar(id, dto.getNome(), dto.getDescricao());
+            escritasRecentes.registrar(id);
+            ProdutoResponseDTO atualizado = new ProdutoResponseDTO(id, dto.getNome(), dto.getCategoria(), dto.getPreco(),
+                    dto.getQuantidade(), dto.getDescricao());
+            eventos.registrar(ProdutoEvento.Tipo.ATUALIZADO, id, atualizado);
+            return atualizado;
+        }
+        int atualizados = produtoRepository.atualizarPorIdEVersao(id, versaoEsperada, dto.getNome(), dto.getCategoria(),
+                dto.getPreco(), dto.getQuantidade(), dto.getDescricao());
+        if (atualizados == 0) {
+            if (produtoRepository.existsById(id)) {
+                throw new PreconditionFailedException("O produto com ID " + id + " foi alterado por outra requisição");
+            }
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+        }
+        indiceBusca.indexar(id, dto.getNome(), dto.getDescricao());
+        escritasRecentes.registrar(id);
+        ProdutoResponseDTO atualizado = new ProdutoResponseDTO(id, dto.getNome(), dto.getCategoria(), dto.getPreco(),
+                dto.getQuantidade(), dto.getDescricao(), versaoEsperada + 1);
+        eventos.registrar(ProdutoEvento.Tipo.ATUALIZADO, id, atualizado);
+        return atualizado;
     }
 
+    /**
+     * Soma {@code delta} à quantidade em estoque com um único UPDATE atômico.
+     *
+     * @throws InsufficientStockException se o ajuste deixaria o estoque negativo
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS_CACHE, key = "#id")
+    public void ajustarEstoque(Long id, int delta) {
+        if (produtoRepository.ajustarEstoque(id, delta) == 0) {
+            if (produtoRepository.existsById(id)) {
+                throw new InsufficientStockException("Estoque insuficiente para o produto com ID: " + id);
+            }
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+        }
+        escritasRecentes.registrar(id);
+        eventos.registrarAtualizacao(id);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS_CACHE, key = "#id")
     public void deletarProduto(Long id) {
-        Produto produto = produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        produtoRepository.delete(produto);
+        produtoRepository.registrarRemocoes(List.of(id));
+        if (produtoRepository.deletarPorId(id) == 0) {
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+        }
+        indiceBusca.remover(id);
+        escritasRecentes.registrar(id);
+        eventos.registrar(ProdutoEvento.Tipo.REMOVIDO, id, null);
     }
 
+    /**
+     * Sincronização incremental: os produtos criados ou alterados e os IDs dos removidos a partir de
+     * {@code desde}, lidos pelos índices de data de alteração e de remoção, sem percorrer o catálogo. As
+     * consultas vão ao primário, já que o atraso de uma réplica poderia esconder alterações anteriores ao cursor.
+     * <p>
+     * A resposta é paginada por cursor (keyset): primeiro os produtos, em ordem de {@code (atualizadoEm, id)},
+     * depois os removidos, em ordem de {@code (removidoEm, id)}, até {@code limite} itens por página. Enquanto
+     * houver páginas, a resposta traz a {@code continuacao}; a última traz o cursor da próxima sincronização,
+     * fixado no início da primeira página.
+     *
+     * @param desde o {@code proximoCursor} da sincronização anterior
+     * @param continuacao a {@code continuacao} da página anterior, ou {@code null} na primeira página
+     * @param limite a quantidade máxima de produtos e removidos na página
+     * @return as alterações e a continuação ou o cursor da próxima sincronização; o cliente deve aplicá-las de
+     *         forma idempotente, pois alterações próximas ao cursor podem ser reenviadas
+     * @throws ResourceGoneException se {@code desde} for anterior à retenção das remoções, cujos registros já
+     *         podem ter sido apagados: o cliente deve refazer a carga completa por {@code GET /produtos}
+     */
+    @Transactional(readOnly = true)
+    public ProdutoSincronizacaoDTO sincronizarDesde(Instant desde, String continuacao, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        if (desde.isBefore(Instant.now().minus(retencaoRemocoes))) {
+            throw new ResourceGoneException("O cursor " + desde + " é anterior à retenção das remoções ("
+                    + retencaoRemocoes + "); refaça a carga completa por GET /produtos");
+        }
+        Continuacao posicao = continuacao == null
+                ? new Continuacao(false, desde, Long.MIN_VALUE, Instant.now().minus(MARGEM_SINCRONIZACAO))
+                : Continuacao.ler(continuacao);
+        return RoteamentoDataSource.noPrimario(() -> paginaDaSincronizacao(desde, posicao, limite));
+    }
 
-    private ProdutoResponseDTO entityToDTO(Produto produto) {
-        return new ProdutoResponseDTO(
-                produto.getId(),
-                produto.getNome(),
-                produto.getCategoria(),
-                produto.getPreco(),
-                produto.getQuantidade(),
-                produto.getDescricao()
-        );
+    /**
+     * Remove os registros de remoção mais antigos que {@code produtos.sincronizacao.retencao-remocoes}. Clientes
+     * que não sincronizam há mais tempo que isso recebem 410 e refazem a carga completa.
+     */
+    @Scheduled(fixedDelayString = "${produtos.sincronizacao.intervalo-limpeza-ms:3600000}")
+    @Transactional
+    public void removerRemocoesAntigas() {
+        int removidas = produtoRepository.removerRemocoesAntesDe(Instant.now().minus(retencaoRemocoes));
+        if (removidas > 0) {
+            log.info("{} registros de produtos removidos há mais de {} apagados", removidas, retencaoRemocoes);
+        }
     }
 
-    public List<ProdutoResponseDTO> listarTodosProdutos() {
-        return produtoRepository.findAll().stream()
-                .map(this::entityToDTO)
+    /**
+     * Busca textual no nome e na descrição pelo {@link ProdutoIndiceBusca}, sem varrer a tabela. Apenas os
+     * produtos encontrados são lidos do banco, pela chave primária e direto no DTO, sem entidades.
+     *
+     * @param consulta os termos buscados; cada um casa com o início de uma palavra, ignorando acentos
+     * @param limite a quantidade máxima de produtos retornados
+     * @return os produtos encontrados, ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    public List<ProdutoResponseDTO> buscarPorTexto(String consulta, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_BUSCA) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO_BUSCA);
+        }
+        List<Long> ids = indiceBusca.buscar(consulta, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProdutoResponseDTO> produtos = produtoRepository.listarDTOsPorIds(ids).stream()
+                .collect(Collectors.toMap(ProdutoResponseDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(produtos::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Lista uma página de produtos usando paginação por cursor (keyset).
+     *
+     * @param apos o ID do último produto da página anterior, ou {@code null} para a primeira página
+     * @param limite a quantidade máxima de produtos na página
+     * @return a página de produtos e o cursor da próxima página
+     */
+    public ProdutoPaginaDTO listarProdutosPaginados(Long apos, int limite) {
+        return listarProdutosPaginados(null, apos, limite);
+    }
+
+    /**
+     * Lista uma página dos produtos que atendem ao filtro, usando paginação por cursor (keyset).
+     *
+     * @param filtro os filtros da listagem, ou {@code null} para todos os produtos
+     * @param apos o ID do último produto da página anterior, ou {@code null} para a primeira página
+     * @param limite a quantidade máxima de produtos na página
+     * @return a página de produtos e o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public ProdutoPaginaDTO listarProdutosPaginados(ProdutoFiltroDTO filtro, Long apos, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        if (filtro != null) {
+            filtro.validar();
+        }
+        List<ProdutoResponseDTO> produtos = buscarPagina(filtro, apos, limite);
+        Long proximoCursor = produtos.size() == limite ? produtos.get(produtos.size() - 1).getId() : null;
+        return new ProdutoPaginaDTO(produtos, proximoCursor);
+    }
+
+    /**
+     * Percorre todo o catálogo em lotes de {@code tamanhoLote}, entregando cada produto ao consumidor.
+     * Apenas um lote fica em memória por vez, independentemente do tamanho do catálogo.
+     */
+    public void percorrerProdutos(int tamanhoLote, Consumer<ProdutoResponseDTO> consumidor) {
+        percorrerProdutos(null, tamanhoLote).forEach(consumidor);
+    }
+
+    /**
+     * Como {@link #percorrerProdutos(int, Consumer)}, mas devolve os produtos que atendem ao filtro como um
+     * {@link Iterable} preguiçoso: cada lote só é lido do banco quando o anterior termina de ser consumido, o que
+     * permite serializar a resposta diretamente na saída, sem montar a lista inteira.
+     */
+    public Iterable<ProdutoResponseDTO> percorrerProdutos(ProdutoFiltroDTO filtro, int tamanhoLote) {
+        if (filtro != null) {
+            filtro.validar();
+        }
+        return () -> new Iterator<>() {
+
+            private List<ProdutoResponseDTO> lote = buscarPagina(filtro, null, tamanhoLote);
+            private int posicao;
+
+            @Override
+            public boolean hasNext() {
+                if (posicao == lote.size() && lote.size() == tamanhoLote) {
+                    lote = buscarPagina(filtro, lote.get(lote.size() - 1).getId(), tamanhoLote);
+                    posicao = 0;
+                }
+                return posicao < lote.size();
+            }
+
+            @Override
+            public ProdutoResponseDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return lote.get(posicao++);
+            }
+        };
+    }
+
+    /**
+     * Sem filtros, as páginas vêm do {@link ProdutoSnapshot} quando ativo; as listagens filtradas vão sempre ao
+     * banco, que tem os índices. Sem filtros, a página é lida direto nos DTOs, sem carregar entidades; com
+     * filtros, pela {@link Specification}, que só consulta entidades. Cada página é lida em uma transação somente leitura, e portanto em uma réplica
+     * quando configuradas: os lotes de {@link #percorrerProdutos(ProdutoFiltroDTO, int)} são lidos durante a
+     * serialização, fora de qualquer método transacional.
+     */
+    private List<ProdutoResponseDTO> buscarPagina(ProdutoFiltroDTO filtro, Long apos, int limite) {
+        Long cursor = apos == null ? Long.MIN_VALUE : apos;
+        if ((filtro == null || filtro.isVazio()) && snapshot.isAtivo()) {
+            return snapshot.pagina(cursor, limite);
+        }
+        return leitura.execute(status -> {
+            if (filtro == null || filtro.isVazio()) {
+                return produtoRepository.listarDTOsAposId(cursor, Limit.of(limite));
+            }
+            Specification<Produto> especificacao = ProdutoSpecifications.doFiltro(filtro)
+                    .and(ProdutoSpecifications.comIdMaiorQue(cursor));
+            return produtoRepository.findBy(especificacao, consulta -> consulta.sortBy(Sort.by("id")).limit(limite).all())
+                    .stream()
+                    .map(ProdutoResponseDTO::de)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private ProdutoSincronizacaoDTO paginaDaSincronizacao(Instant desde, Continuacao posicao, int limite) {
+        List<ProdutoResponseDTO> produtos = List.of();
+        if (!posicao.removidos()) {
+            List<ProdutoRepository.PosicaoAlteracao> alteracoes =
+                    produtoRepository.listarAlteracoesApos(posicao.instante(), posicao.id(), Limit.of(limite));
+            produtos = lerNaOrdem(alteracoes);
+            if (alteracoes.size() == limite) {
+                ProdutoRepository.PosicaoAlteracao ultima = alteracoes.get(alteracoes.size() - 1);
+                return new ProdutoSincronizacaoDTO(produtos, List.of(), null, new Continuacao(false,
+                        ultima.getAtualizadoEm(), ultima.getId(), posicao.proximoCursor()).escrever());
+            }
+            posicao = new Continuacao(true, desde, Long.MIN_VALUE, posicao.proximoCursor());
+        }
+        int restante = limite - produtos.size();
+        List<ProdutoRemovido> remocoes = produtoRepository.listarRemocoesApos(posicao.instante(), posicao.id(),
+                Limit.of(restante));
+        List<Long> removidos = remocoes.stream().map(ProdutoRemovido::getId).collect(Collectors.toList());
+        if (remocoes.size() == restante) {
+            ProdutoRemovido ultima = remocoes.get(remocoes.size() - 1);
+            return new ProdutoSincronizacaoDTO(produtos, removidos, null, new Continuacao(true,
+                    ultima.getRemovidoEm(), ultima.getId(), posicao.proximoCursor()).escrever());
+        }
+        return new ProdutoSincronizacaoDTO(produtos, removidos, posicao.proximoCursor());
+    }
+
+    /**
+     * Lê os produtos pelos IDs, na ordem das alterações. Um produto alterado de novo entre as duas consultas vem
+     * no estado mais novo e volta a aparecer adiante; um removido nesse meio tempo fica de fora, e aparece entre
+     * os removidos.
+     */
+    private List<ProdutoResponseDTO> lerNaOrdem(List<ProdutoRepository.PosicaoAlteracao> alteracoes) {
+        if (alteracoes.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProdutoResponseDTO> produtos = produtoRepository.listarDTOsPorIds(alteracoes.stream()
+                        .map(ProdutoRepository.PosicaoAlteracao::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(ProdutoResponseDTO::getId, Function.identity()));
+        return alteracoes.stream()
+                .map(alteracao -> produtos.get(alteracao.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Posição de uma sincronização paginada: a fase (produtos ou removidos), a última posição
+     * {@code (instante, id)} entregue nela e o cursor da próxima sincronização. Vai ao cliente em Base64, como
+     * um valor opaco.
+     */
+    private record Continuacao(boolean removidos, Instant instante, long id, Instant proximoCursor) {
+
+        String escrever() {
+            String texto = String.join(",", removidos ? "R" : "P", instante.toString(), Long.toString(id),
+                    proximoCursor.toString());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Continuacao ler(String valor) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(valor), StandardCharsets.UTF_8).split(",");
+                if (partes.length != 4 || !(partes[0].equals("P") || partes[0].equals("R"))) {
+                    throw new IllegalArgumentException("Continuação da sincronização inválida: " + valor);
+                }
+                return new Continuacao(partes[0].equals("R"), Instant.parse(partes[1]), Long.parseLong(partes[2]),
+                        Instant.parse(partes[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Continuação da sincronização inválida: " + valor, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,722 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.RoteamentoDataSource;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cópia compacta e somente leitura do catálogo, para as instâncias que só servem leituras
+ * ({@code produtos.snapshot.habilitado=true}).
+ * <p>
+ * Os produtos ficam em colunas de arrays primitivos ordenadas por ID, em vez de uma entidade e um DTO por
+ * produto com {@code Long}/{@code Double}/{@code Integer} e {@code String}s próprios: a categoria é codificada
+ * por um dicionário (cada categoria distinta é guardada uma vez) e o nome e a descrição ficam em UTF-8 em um
+ * único {@code byte[]}. O catálogo inteiro ocupa uma dezena de arrays, sem referências a percorrer, então o
+ * coletor praticamente não o enxerga. O DTO é montado apenas na leitura e descartado com a resposta.
+ * <p>
+ * O snapshot é carregado na inicialização, antes de o servidor aceitar requisições, em lotes por cursor
+ * (keyset), e atualizado a cada {@code produtos.snapshot.intervalo-atualizacao-ms} pelas mesmas consultas de
+ * {@link ProdutoService#sincronizarDesde}. As colunas são divididas em blocos de IDs consecutivos: cada
+ * atualização copia os blocos alterados, compartilha os demais e publica as colunas novas de uma vez, então
+ * uma leitura nunca vê uma atualização pela metade. As consultas vão ao primário, como as da sincronização.
+ * <p>
+ * Com {@code produtos.snapshot.arquivo} configurado, o snapshot é gravado nesse arquivo a cada
+ * {@code produtos.snapshot.intervalo-gravacao-ms} (em {@link ProdutoSnapshotArquivo}), junto com o cursor da
+ * atualização. Na inicialização, se o arquivo existir, ele é mapeado e o snapshot passa a servir as leituras
+ * imediatamente, sem ler o catálogo do banco; as alterações posteriores ao cursor gravado são aplicadas pela
+ * primeira atualização agendada. O arquivo só vale para o banco em que foi montado: ele guarda a identidade
+ * do banco ({@link ProdutoRepository#identidadeDoBanco}), e um arquivo de outro banco, como o de um H2 em memória
+ * recriado na inicialização, é apagado e o catálogo é carregado do banco.
+ */
+@Component
+public class ProdutoSnapshot implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoSnapshot.class);
+
+    /**
+     * Linhas por bloco das colunas: o quanto uma atualização copia para trocar um produto.
+     */
+    static final int LINHAS_POR_BLOCO = 4096;
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+    private final Path arquivo;
+    private final ReentrantLock atualizacao = new ReentrantLock();
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    /**
+     * As colunas e o cursor da atualização que as montou: o início da consulta, já recuado pela margem da
+     * sincronização. Publicados juntos para que o arquivo nunca grave um cursor à frente das colunas.
+     */
+    private record Estado(Colunas colunas, Instant cursor) {
+    }
+
+    private volatile Estado estado;
+    // colunas do último arquivo gravado ou restaurado; protegido por gravacao
+    private Colunas gravadas;
+    // do banco atual, lida na inicialização quando há arquivo configurado
+    private volatile String identidade;
+
+    @Autowired
+    public ProdutoSnapshot(ProdutoRepository produtoRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${produtos.snapshot.habilitado:false}") boolean habilitado,
+                           @Value("${produtos.snapshot.tamanho-lote:1000}") int tamanhoLote,
+                           @Value("${produtos.snapshot.arquivo:#{null}}") Path arquivo) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+        this.arquivo = arquivo;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitado) {
+            return;
+        }
+        if (arquivo != null) {
+            identidade = RoteamentoDataSource.noPrimario(() -> transactionTemplate.execute(
+                    status -> produtoRepository.identidadeDoBanco()));
+        }
+        if (!restaurar()) {
+            carregar();
+        }
+    }
+
+    /**
+     * Grava o snapshot ao encerrar, para que a próxima inicialização tenha menos alterações a aplicar.
+     */
+    @Override
+    public void destroy() {
+        gravar();
+    }
+
+    /**
+     * Indica se as leituras devem ser servidas pelo snapshot: habilitado e já carregado.
+     */
+    public boolean isAtivo() {
+        return estado != null;
+    }
+
+    /**
+     * Mapeia o arquivo gravado por uma execução anterior e passa a servir as leituras por ele.
+     *
+     * @return {@code false} se não houver arquivo configurado, ele não puder ser lido ou for de outro banco
+     */
+    boolean restaurar() {
+        if (arquivo == null || !Files.exists(arquivo)) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        ProdutoSnapshotArquivo.Conteudo conteudo;
+        try {
+            conteudo = ProdutoSnapshotArquivo.ler(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível restaurar o snapshot de produtos de {}; carregando do banco", arquivo, e);
+            return false;
+        }
+        if (!conteudo.identidade().equals(identidade)) {
+            log.warn("Snapshot de produtos em {} foi montado em outro banco ({}, atual {}); descartando e carregando do banco",
+                    arquivo, conteudo.identidade(), identidade);
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                log.warn("Falha ao apagar o snapshot de produtos {}", arquivo, e);
+            }
+            return false;
+        }
+        gravacao.lock();
+        try {
+            gravadas = conteudo.colunas();
+        } finally {
+            gravacao.unlock();
+        }
+        estado = new Estado(conteudo.colunas(), conteudo.cursor());
+        log.info("Snapshot de produtos restaurado de {} com {} produtos em {} ms; aplicando as alterações desde {}",
+                arquivo, conteudo.colunas().tamanho, (System.nanoTime() - inicio) / 1_000_000, conteudo.cursor());
+        return true;
+    }
+
+    /**
+     * Grava o snapshot no arquivo configurado, se ele mudou desde a última gravação.
+     */
+    @Scheduled(fixedDelayString = "${produtos.snapshot.intervalo-gravacao-ms:60000}")
+    public void gravar() {
+        Estado atual = estado;
+        if (arquivo == null || atual == null || !gravacao.tryLock()) {
+            return;
+        }
+        try {
+            if (atual.colunas() == gravadas) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            ProdutoSnapshotArquivo.gravar(arquivo, atual.colunas(), atual.cursor(), identidade);
+            gravadas = atual.colunas();
+            log.debug("Snapshot de produtos gravado em {} ({} produtos) em {} ms",
+                    arquivo, atual.colunas().tamanho, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o snapshot de produtos em {}; nova tentativa no próximo ciclo", arquivo, e);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    /**
+     * Descarta o snapshot e o carrega inteiro a partir do banco.
+     */
+    public void carregar() {
+        atualizacao.lock();
+        try {
+            long inicio = System.nanoTime();
+            Instant desde = Instant.now().minus(ProdutoService.MARGEM_SINCRONIZACAO);
+            Montagem montagem = new Montagem(LINHAS_POR_BLOCO);
+            long apos = Long.MIN_VALUE;
+            List<ProdutoResponseDTO> lote;
+            do {
+                long cursorLote = apos;
+                lote = RoteamentoDataSource.noPrimario(() -> transactionTemplate.execute(
+                        status -> produtoRepository.listarDTOsAposId(cursorLote, Limit.of(tamanhoLote))));
+                lote.forEach(montagem::adicionar);
+                if (!lote.isEmpty()) {
+                    apos = lote.get(lote.size() - 1).getId();
+                }
+            } while (lote.size() == tamanhoLote);
+            Colunas colunas = montagem.concluir();
+            estado = new Estado(colunas, desde);
+            log.info("Snapshot de produtos carregado com {} produtos ({} KB) em {} ms",
+                    colunas.tamanho, colunas.bytesOcupados() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    /**
+     * Aplica as alterações feitas no banco desde a última atualização. As alterações reenviadas pela margem do
+     * cursor, já presentes no snapshot, são ignoradas; sem alterações novas as colunas não são remontadas, e com
+     * elas apenas os blocos alterados são copiados.
+     */
+    @Scheduled(fixedDelayString = "${produtos.snapshot.intervalo-atualizacao-ms:1000}")
+    public void atualizar() {
+        if (estado == null || !atualizacao.tryLock()) {
+            return;
+        }
+        try {
+            Instant inicio = Instant.now();
+            Instant desde = estado.cursor();
+            record Alteracoes(List<ProdutoResponseDTO> alterados, List<Long> removidos) {
+            }
+            Alteracoes alteracoes = RoteamentoDataSource.noPrimario(() -> transactionTemplate.execute(
+                    status -> new Alteracoes(produtoRepository.listarDTOsAlteradosDesde(desde),
+                            produtoRepository.listarIdsRemovidosDesde(desde))));
+            Colunas atuais = estado.colunas();
+            Colunas novas = atuais.aplicar(alteracoes.alterados(), alteracoes.removidos());
+            if (novas != atuais) {
+                log.debug("Snapshot de produtos atualizado: {} produtos", novas.tamanho);
+            }
+            estado = new Estado(novas, inicio.minus(ProdutoService.MARGEM_SINCRONIZACAO));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o snapshot de produtos; nova tentativa no próximo ciclo", e);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    public Optional<ProdutoResponseDTO> buscar(long id) {
+        return estado.colunas().buscar(id);
+    }
+
+    /**
+     * Uma página por cursor (keyset), como {@code ProdutoRepository#listarDTOsAposId}.
+     */
+    public List<ProdutoResponseDTO> pagina(long apos, int limite) {
+        return estado.colunas().pagina(apos, limite);
+    }
+
+    public List<ProdutoResponseDTO> listar() {
+        return pagina(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public int tamanho() {
+        Estado atual = estado;
+        return atual == null ? 0 : atual.colunas().tamanho;
+    }
+
+    /**
+     * Memória ocupada pelos arrays do snapshot, em bytes.
+     */
+    public long bytesOcupados() {
+        Estado atual = estado;
+        return atual == null ? 0 : atual.colunas().bytesOcupados();
+    }
+
+    /**
+     * Colunas imutáveis do snapshot, divididas em blocos de IDs consecutivos de até {@code linhasPorBloco}
+     * linhas. Uma atualização copia apenas os blocos com produtos alterados; os demais são compartilhados com as
+     * colunas anteriores. O dicionário de categorias só cresce, então os códigos gravados em um bloco continuam
+     * válidos nas colunas seguintes.
+     */
+    static final class Colunas {
+
+        final int tamanho;
+        final Bloco[] blocos;
+        // primeiro ID de cada bloco, para localizar por busca binária o bloco de um ID
+        final long[] primeiros;
+        final String[] dicionarioCategorias;
+        final int linhasPorBloco;
+
+        Colunas(Bloco[] blocos, String[] dicionarioCategorias, int linhasPorBloco) {
+            this.blocos = blocos;
+            this.dicionarioCategorias = dicionarioCategorias;
+            this.linhasPorBloco = linhasPorBloco;
+            this.primeiros = new long[blocos.length];
+            int linhas = 0;
+            for (int b = 0; b < blocos.length; b++) {
+                primeiros[b] = blocos[b].ids[0];
+                linhas += blocos[b].tamanho;
+            }
+            this.tamanho = linhas;
+        }
+
+        /**
+         * Divide em blocos as linhas de um único bloco, como as lidas do arquivo, cujos códigos de categoria
+         * referem-se a {@code dicionarioCategorias}.
+         */
+        static Colunas dividir(Bloco linhas, String[] dicionarioCategorias, int linhasPorBloco) {
+            Montagem montagem = new Montagem(dicionarioCategorias, linhasPorBloco);
+            for (int i = 0; i < linhas.tamanho; i++) {
+                montagem.copiar(linhas, i);
+            }
+            return montagem.concluir();
+        }
+
+        Optional<ProdutoResponseDTO> buscar(long id) {
+            int b = bloco(id);
+            if (b < 0) {
+                return Optional.empty();
+            }
+            int indice = blocos[b].indice(id);
+            return indice < 0 ? Optional.empty() : Optional.of(blocos[b].produto(indice, dicionarioCategorias));
+        }
+
+        List<ProdutoResponseDTO> pagina(long apos, int limite) {
+            List<ProdutoResponseDTO> produtos = new ArrayList<>(Math.min(limite, tamanho));
+            int b = Math.max(bloco(apos), 0);
+            int i = 0;
+            if (b < blocos.length) {
+                int indice = blocos[b].indice(apos);
+                i = indice < 0 ? -indice - 1 : indice + 1;
+            }
+            for (; b < blocos.length && produtos.size() < limite; b++, i = 0) {
+                Bloco bloco = blocos[b];
+                for (; i < bloco.tamanho && produtos.size() < limite; i++) {
+                    produtos.add(bloco.produto(i, dicionarioCategorias));
+                }
+            }
+            return produtos;
+        }
+
+        /**
+         * Soma o conteúdo dos arrays; o dicionário de categorias é estimado em 64 bytes por categoria mais o texto.
+         */
+        long bytesOcupados() {
+            long dicionario = 0;
+            for (String categoria : dicionarioCategorias) {
+                dicionario += 64 + categoria.length();
+            }
+            long linhas = 0;
+            for (Bloco bloco : blocos) {
+                linhas += bloco.bytesOcupados();
+            }
+            return primeiros.length * 8L + linhas + dicionario;
+        }
+
+        /**
+         * Monta as colunas com as alterações aplicadas. Os blocos sem alterações são mantidos; um bloco em que só
+         * mudaram preço, quantidade, categoria ou versão de produtos existentes é copiado com essas linhas trocadas
+         * no lugar, compartilhando IDs e textos; apenas os blocos com inserções, remoções ou textos alterados são
+         * remontados, intercalando as linhas atuais, já ordenadas, com as alteradas. IDs anteriores ao primeiro
+         * bloco caem nele, e os posteriores ao último bloco, no último.
+         *
+         * @return estas mesmas colunas, se nenhuma alteração for nova
+         */
+        Colunas aplicar(List<ProdutoResponseDTO> alterados, List<Long> removidos) {
+            // alterações de cada bloco, em ordem de ID; em ordem de alteração, a última leitura de cada ID prevalece
+            Map<Integer, TreeMap<Long, ProdutoResponseDTO>> novos = new HashMap<>();
+            for (ProdutoResponseDTO produto : alterados) {
+                int b = Math.max(bloco(produto.getId()), 0);
+                int indice = b < blocos.length ? blocos[b].indice(produto.getId()) : -1;
+                if (indice < 0 || !blocos[b].igual(indice, produto, dicionarioCategorias)) {
+                    novos.computeIfAbsent(b, chave -> new TreeMap<>()).put(produto.getId(), produto);
+                } else if (novos.containsKey(b)) {
+                    novos.get(b).remove(produto.getId());
+                }
+            }
+            Map<Integer, Set<Long>> remover = new HashMap<>();
+            for (Long id : removidos) {
+                int b = bloco(id);
+                if (b >= 0 && blocos[b].indice(id) >= 0) {
+                    remover.computeIfAbsent(b, chave -> new HashSet<>()).add(id);
+                }
+            }
+            novos.values().removeIf(Map::isEmpty);
+            if (novos.isEmpty() && remover.isEmpty()) {
+                return this;
+            }
+            Montagem montagem = new Montagem(dicionarioCategorias, linhasPorBloco);
+            if (blocos.length == 0) {
+                novos.get(0).values().forEach(montagem::adicionar);
+                return montagem.concluir();
+            }
+            List<Bloco> resultado = new ArrayList<>(blocos.length + 1);
+            for (int b = 0; b < blocos.length; b++) {
+                TreeMap<Long, ProdutoResponseDTO> doBloco = novos.getOrDefault(b, new TreeMap<>());
+                Set<Long> removidosDoBloco = remover.getOrDefault(b, Set.of());
+                if (doBloco.isEmpty() && removidosDoBloco.isEmpty()) {
+                    resultado.add(blocos[b]);
+                    continue;
+                }
+                Bloco corrigido = removidosDoBloco.isEmpty() ? blocos[b].corrigir(doBloco.values(), montagem) : null;
+                if (corrigido != null) {
+                    resultado.add(corrigido);
+                } else {
+                    blocos[b].remontar(doBloco.values(), removidosDoBloco, montagem);
+                    resultado.addAll(montagem.retirarBlocos());
+                }
+            }
+            return new Colunas(resultado.toArray(Bloco[]::new), montagem.dicionario(dicionarioCategorias),
+                    linhasPorBloco);
+        }
+
+        private int bloco(long id) {
+            int indice = Arrays.binarySearch(primeiros, id);
+            return indice >= 0 ? indice : -indice - 2;
+        }
+    }
+
+    /**
+     * Linhas consecutivas das colunas: a linha {@code i} de cada array é o produto {@code ids[i]}.
+     */
+    static final class Bloco {
+
+        // versão de um produto gravado sem versão (coluna nula)
+        private static final long SEM_VERSAO = Long.MIN_VALUE;
+
+        final int tamanho;
+        final long[] ids;
+        final long[] versoes;
+        final double[] precos;
+        final int[] quantidades;
+        final int[] categorias;
+        // nome de i em textos[limites[2i], limites[2i + 1]), descrição em textos[limites[2i + 1], limites[2i + 2])
+        final int[] limites;
+        final byte[] textos;
+        // bit i ligado: descrição nula, distinta da vazia
+        final long[] descricoesNulas;
+
+        Bloco(int tamanho, long[] ids, long[] versoes, double[] precos, int[] quantidades, int[] categorias,
+              int[] limites, byte[] textos, long[] descricoesNulas) {
+            this.tamanho = tamanho;
+            this.ids = ids;
+            this.versoes = versoes;
+            this.precos = precos;
+            this.quantidades = quantidades;
+            this.categorias = categorias;
+            this.limites = limites;
+            this.textos = textos;
+            this.descricoesNulas = descricoesNulas;
+        }
+
+        int indice(long id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id);
+        }
+
+        ProdutoResponseDTO produto(int i, String[] dicionarioCategorias) {
+            return new ProdutoResponseDTO(ids[i], nome(i), dicionarioCategorias[categorias[i]], precos[i],
+                    quantidades[i], descricao(i), versoes[i] == SEM_VERSAO ? null : versoes[i]);
+        }
+
+        String nome(int i) {
+            return texto(limites[2 * i], limites[2 * i + 1]);
+        }
+
+        String descricao(int i) {
+            return descricaoNula(i) ? null : texto(limites[2 * i + 1], limites[2 * i + 2]);
+        }
+
+        boolean descricaoNula(int i) {
+            return (descricoesNulas[i >>> 6] & (1L << i)) != 0;
+        }
+
+        private String texto(int inicio, int fim) {
+            return new String(textos, inicio, fim - inicio, StandardCharsets.UTF_8);
+        }
+
+        long bytesOcupados() {
+            return ids.length * 8L + versoes.length * 8L + precos.length * 8L + quantidades.length * 4L
+                    + categorias.length * 4L + limites.length * 4L + textos.length + descricoesNulas.length * 8L;
+        }
+
+        /**
+         * Cópia do bloco com os campos de tamanho fixo dos produtos alterados trocados no lugar. IDs, limites e
+         * textos não mudam e são compartilhados com este bloco.
+         *
+         * @return {@code null} se algum produto não estiver no bloco ou tiver o nome ou a descrição alterados
+         */
+        Bloco corrigir(Collection<ProdutoResponseDTO> alterados, Montagem montagem) {
+            int[] indices = new int[alterados.size()];
+            int k = 0;
+            for (ProdutoResponseDTO produto : alterados) {
+                int indice = indice(produto.getId());
+                if (indice < 0 || !nome(indice).equals(produto.getNome())
+                        || !Objects.equals(descricao(indice), produto.getDescricao())) {
+                    return null;
+                }
+                indices[k++] = indice;
+            }
+            long[] novasVersoes = versoes.clone();
+            double[] novosPrecos = precos.clone();
+            int[] novasQuantidades = quantidades.clone();
+            int[] novasCategorias = categorias.clone();
+            k = 0;
+            for (ProdutoResponseDTO produto : alterados) {
+                int i = indices[k++];
+                novasVersoes[i] = produto.getVersao() == null ? SEM_VERSAO : produto.getVersao();
+                novosPrecos[i] = produto.getPreco();
+                novasQuantidades[i] = produto.getQuantidade();
+                novasCategorias[i] = montagem.codigo(produto.getCategoria());
+            }
+            return new Bloco(tamanho, ids, novasVersoes, novosPrecos, novasQuantidades, novasCategorias, limites,
+                    textos, descricoesNulas);
+        }
+
+        /**
+         * Acrescenta à montagem as linhas deste bloco intercaladas com as alteradas, sem as removidas. As linhas
+         * não alteradas são copiadas sem decodificar os textos.
+         */
+        void remontar(Collection<ProdutoResponseDTO> alterados, Set<Long> removidos, Montagem montagem) {
+            int i = 0;
+            for (ProdutoResponseDTO produto : alterados) {
+                long id = produto.getId();
+                for (; i < tamanho && ids[i] < id; i++) {
+                    if (!removidos.contains(ids[i])) {
+                        montagem.copiar(this, i);
+                    }
+                }
+                if (i < tamanho && ids[i] == id) {
+                    i++;
+                }
+                if (!removidos.contains(id)) {
+                    montagem.adicionar(produto);
+                }
+            }
+            for (; i < tamanho; i++) {
+                if (!removidos.contains(ids[i])) {
+                    montagem.copiar(this, i);
+                }
+            }
+        }
+
+        private boolean igual(int i, ProdutoResponseDTO produto, String[] dicionarioCategorias) {
+            Long versao = versoes[i] == SEM_VERSAO ? null : versoes[i];
+            return Objects.equals(versao, produto.getVersao())
+                    && Objects.equals(precos[i], produto.getPreco())
+                    && Objects.equals(quantidades[i], produto.getQuantidade())
+                    && dicionarioCategorias[categorias[i]].equals(produto.getCategoria())
+                    && nome(i).equals(produto.getNome())
+                    && Objects.equals(descricao(i), produto.getDescricao());
+        }
+    }
+
+    /**
+     * Acumula as linhas, em ordem crescente de ID, e as sela em blocos de {@code linhasPorBloco} linhas. Os
+     * arrays de trabalho são reaproveitados de um bloco para o outro; cada bloco selado recebe cópias do
+     * tamanho exato, que viveriam tanto quanto o snapshot.
+     */
+    static final class Montagem {
+
+        private final int linhasPorBloco;
+        private final Map<String, Integer> codigosCategorias = new HashMap<>();
+        private final List<String> dicionarioCategorias = new ArrayList<>();
+        private final List<Bloco> blocos = new ArrayList<>();
+        private long ultimoId = Long.MIN_VALUE;
+        private boolean vazia = true;
+        private int tamanho;
+        private final long[] ids;
+        private final long[] versoes;
+        private final double[] precos;
+        private final int[] quantidades;
+        private final int[] categorias;
+        private final int[] limites;
+        private byte[] textos;
+        private int tamanhoTextos;
+        private final long[] descricoesNulas;
+
+        Montagem(int linhasPorBloco) {
+            this(new String[0], linhasPorBloco);
+        }
+
+        /**
+         * @param dicionarioCategorias o dicionário das colunas de onde as linhas são copiadas, estendido com as
+         *                             categorias novas
+         */
+        Montagem(String[] dicionarioCategorias, int linhasPorBloco) {
+            for (String categoria : dicionarioCategorias) {
+                codigo(categoria);
+            }
+            this.linhasPorBloco = linhasPorBloco;
+            ids = new long[linhasPorBloco];
+            versoes = new long[linhasPorBloco];
+            precos = new double[linhasPorBloco];
+            quantidades = new int[linhasPorBloco];
+            categorias = new int[linhasPorBloco];
+            limites = new int[2 * linhasPorBloco + 1];
+            textos = new byte[linhasPorBloco * 32];
+            descricoesNulas = new long[(linhasPorBloco + 63) >>> 6];
+        }
+
+        void adicionar(ProdutoResponseDTO produto) {
+            int i = proximaLinha(produto.getId());
+            versoes[i] = produto.getVersao() == null ? Bloco.SEM_VERSAO : produto.getVersao();
+            precos[i] = produto.getPreco();
+            quantidades[i] = produto.getQuantidade();
+            categorias[i] = codigo(produto.getCategoria());
+            acrescentarTexto(produto.getNome().getBytes(StandardCharsets.UTF_8));
+            limites[2 * i + 1] = tamanhoTextos;
+            if (produto.getDescricao() == null) {
+                descricoesNulas[i >>> 6] |= 1L << i;
+            } else {
+                acrescentarTexto(produto.getDescricao().getBytes(StandardCharsets.UTF_8));
+            }
+            limites[2 * i + 2] = tamanhoTextos;
+        }
+
+        /**
+         * Copia a linha {@code j} de um bloco cujos códigos de categoria referem-se ao dicionário desta montagem.
+         */
+        void copiar(Bloco origem, int j) {
+            int i = proximaLinha(origem.ids[j]);
+            versoes[i] = origem.versoes[j];
+            precos[i] = origem.precos[j];
+            quantidades[i] = origem.quantidades[j];
+            categorias[i] = origem.categorias[j];
+            int inicio = origem.limites[2 * j];
+            int meio = origem.limites[2 * j + 1];
+            int fim = origem.limites[2 * j + 2];
+            garantirTextos(fim - inicio);
+            System.arraycopy(origem.textos, inicio, textos, tamanhoTextos, fim - inicio);
+            limites[2 * i + 1] = tamanhoTextos + (meio - inicio);
+            tamanhoTextos += fim - inicio;
+            limites[2 * i + 2] = tamanhoTextos;
+            if (origem.descricaoNula(j)) {
+                descricoesNulas[i >>> 6] |= 1L << i;
+            }
+        }
+
+        Colunas concluir() {
+            return new Colunas(retirarBlocos().toArray(Bloco[]::new), dicionario(null), linhasPorBloco);
+        }
+
+        /**
+         * Sela o bloco em montagem e devolve os blocos selados desde a última retirada.
+         */
+        List<Bloco> retirarBlocos() {
+            selar();
+            List<Bloco> selados = List.copyOf(blocos);
+            blocos.clear();
+            return selados;
+        }
+
+        /**
+         * O dicionário com as categorias acrescentadas, ou {@code anterior} se nenhuma foi.
+         */
+        String[] dicionario(String[] anterior) {
+            if (anterior != null && anterior.length == dicionarioCategorias.size()) {
+                return anterior;
+            }
+            return dicionarioCategorias.toArray(String[]::new);
+        }
+
+        private void selar() {
+            if (tamanho == 0) {
+                return;
+            }
+            int palavras = (tamanho + 63) >>> 6;
+            blocos.add(new Bloco(tamanho, Arrays.copyOf(ids, tamanho), Arrays.copyOf(versoes, tamanho),
+                    Arrays.copyOf(precos, tamanho), Arrays.copyOf(quantidades, tamanho),
+                    Arrays.copyOf(categorias, tamanho), Arrays.copyOf(limites, 2 * tamanho + 1),
+                    Arrays.copyOf(textos, tamanhoTextos), Arrays.copyOf(descricoesNulas, palavras)));
+            Arrays.fill(descricoesNulas, 0, palavras, 0L);
+            tamanho = 0;
+            tamanhoTextos = 0;
+        }
+
+        private int proximaLinha(long id) {
+            if (!vazia && ultimoId >= id) {
+                throw new IllegalStateException("Produtos fora da ordem de ID: " + id + " após " + ultimoId);
+            }
+            if (tamanho == linhasPorBloco) {
+                selar();
+            }
+            vazia = false;
+            ultimoId = id;
+            int i = tamanho++;
+            ids[i] = id;
+            limites[2 * i] = tamanhoTextos;
+            return i;
+        }
+
+        private int codigo(String categoria) {
+            return codigosCategorias.computeIfAbsent(categoria, chave -> {
+                dicionarioCategorias.add(chave);
+                return dicionarioCategorias.size() - 1;
+            });
+        }
+
+        private void acrescentarTexto(byte[] bytes) {
+            garantirTextos(bytes.length);
+            System.arraycopy(bytes, 0, textos, tamanhoTextos, bytes.length);
+            tamanhoTextos += bytes.length;
+        }
+
+        private void garantirTextos(int adicionais) {
+            if (tamanhoTextos + adicionais > textos.length) {
+                textos = Arrays.copyOf(textos, Math.max(tamanhoTextos + adicionais, textos.length + (textos.length >> 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ada.microservices.products.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Formato binário do {@link ProdutoSnapshot} em disco: um cabeçalho seguido das colunas, com os blocos
+ * concatenados. A leitura mapeia o arquivo, copia cada coluna de uma vez e a divide em blocos copiando as linhas,
+ * sem decodificar produto a produto.
+ * <pre>
+ * int    marca "PRDS"          int    versão do formato
+ * int    tamanho, UTF-8        identidade do banco em que foi montado
+ * long   cursor (segundos)     int    cursor (nanos)
+ * int    produtos (n)          int    categorias (c)       int   bytes de texto (t)
+ * c x    (int tamanho, UTF-8)  dicionário de categorias
+ * n x    long ids, long versões, double preços, int quantidades, int categorias
+ * 2n+1 x int limites           ceil(n / 64) x long descrições nulas
+ * t x    byte textos
+ * </pre>
+ */
+final class ProdutoSnapshotArquivo {
+
+    private static final int MARCA = 0x50524453;
+    private static final int VERSAO_FORMATO = 2;
+
+    /**
+     * Colunas lidas do arquivo, o cursor da atualização em que foram montadas e a identidade do banco de onde
+     * vieram ({@code ProdutoRepository#identidadeDoBanco}).
+     */
+    record Conteudo(ProdutoSnapshot.Colunas colunas, Instant cursor, String identidade) {
+    }
+
+    private ProdutoSnapshotArquivo() {
+    }
+
+    /**
+     * Grava em um arquivo temporário ao lado do destino e o move sobre ele, para que uma falha no meio da
+     * gravação nunca deixe um arquivo incompleto no lugar do anterior.
+     */
+    static void gravar(Path arquivo, ProdutoSnapshot.Colunas colunas, Instant cursor, String identidade)
+            throws IOException {
+        byte[] bytesIdentidade = identidade.getBytes(StandardCharsets.UTF_8);
+        byte[][] categorias = new byte[colunas.dicionarioCategorias.length][];
+        long tamanho = 4 + 4 + 4 + bytesIdentidade.length + 8 + 4 + 4 + 4 + 4;
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = colunas.dicionarioCategorias[i].getBytes(StandardCharsets.UTF_8);
+            tamanho += 4 + categorias[i].length;
+        }
+        int n = colunas.tamanho;
+        int tamanhoTextos = 0;
+        for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+            tamanhoTextos += bloco.limites[2 * bloco.tamanho];
+        }
+        long[] descricoesNulas = new long[(n + 63) >>> 6];
+        tamanho += n * (8L + 8 + 8 + 4 + 4) + (2L * n + 1) * 4 + descricoesNulas.length * 8L + tamanhoTextos;
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot de " + tamanho + " bytes excede o tamanho máximo do arquivo mapeado");
+        }
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer saida = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            saida.putInt(MARCA).putInt(VERSAO_FORMATO)
+                    .putInt(bytesIdentidade.length).put(bytesIdentidade)
+                    .putLong(cursor.getEpochSecond()).putInt(cursor.getNano())
+                    .putInt(n).putInt(categorias.length).putInt(tamanhoTextos);
+            for (byte[] categoria : categorias) {
+                saida.putInt(categoria.length).put(categoria);
+            }
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.asLongBuffer().put(bloco.ids, 0, bloco.tamanho);
+                saida.position(saida.position() + bloco.tamanho * 8);
+            }
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.asLongBuffer().put(bloco.versoes, 0, bloco.tamanho);
+                saida.position(saida.position() + bloco.tamanho * 8);
+            }
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.asDoubleBuffer().put(bloco.precos, 0, bloco.tamanho);
+                saida.position(saida.position() + bloco.tamanho * 8);
+            }
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.asIntBuffer().put(bloco.quantidades, 0, bloco.tamanho);
+                saida.position(saida.position() + bloco.tamanho * 4);
+            }
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.asIntBuffer().put(bloco.categorias, 0, bloco.tamanho);
+                saida.position(saida.position() + bloco.tamanho * 4);
+            }
+            // os limites de cada bloco começam em zero; no arquivo, os textos dos blocos ficam em sequência
+            int deslocamento = 0;
+            int linha = 0;
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                for (int i = 0; i < bloco.tamanho; i++, linha++) {
+                    saida.putInt(bloco.limites[2 * i] + deslocamento).putInt(bloco.limites[2 * i + 1] + deslocamento);
+                    if (bloco.descricaoNula(i)) {
+                        descricoesNulas[linha >>> 6] |= 1L << linha;
+                    }
+                }
+                deslocamento += bloco.limites[2 * bloco.tamanho];
+            }
+            saida.putInt(deslocamento);
+            saida.asLongBuffer().put(descricoesNulas);
+            saida.position(saida.position() + descricoesNulas.length * 8);
+            for (ProdutoSnapshot.Bloco bloco : colunas.blocos) {
+                saida.put(bloco.textos, 0, bloco.limites[2 * bloco.tamanho]);
+            }
+            saida.force();
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException se o arquivo não puder ser lido ou não estiver no formato esperado
+     */
+    static Conteudo ler(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de snapshot grande demais: " + canal.size() + " bytes");
+            }
+            MappedByteBuffer entrada = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            try {
+                if (entrada.getInt() != MARCA) {
+                    throw new IOException("Arquivo não é um snapshot de produtos: " + arquivo);
+                }
+                int versao = entrada.getInt();
+                if (versao != VERSAO_FORMATO) {
+                    throw new IOException("Versão de formato do snapshot não suportada: " + versao);
+                }
+                byte[] identidade = new byte[entrada.getInt()];
+                entrada.get(identidade);
+                Instant cursor = Instant.ofEpochSecond(entrada.getLong(), entrada.getInt());
+                int n = entrada.getInt();
+                int quantidadeCategorias = entrada.getInt();
+                int tamanhoTextos = entrada.getInt();
+                if (n < 0 || quantidadeCategorias < 0 || tamanhoTextos < 0
+                        || n * 36L + quantidadeCategorias * 4L + tamanhoTextos > entrada.remaining()) {
+                    throw new IOException("Arquivo de snapshot truncado: " + arquivo);
+                }
+                String[] categorias = new String[quantidadeCategorias];
+                byte[] textos = new byte[tamanhoTextos];
+                for (int i = 0; i < categorias.length; i++) {
+                    byte[] categoria = new byte[entrada.getInt()];
+                    entrada.get(categoria);
+                    categorias[i] = new String(categoria, StandardCharsets.UTF_8);
+                }
+                long[] ids = new long[n];
+                long[] versoes = new long[n];
+                double[] precos = new double[n];
+                int[] quantidades = new int[n];
+                int[] codigos = new int[n];
+                int[] limites = new int[2 * n + 1];
+                long[] descricoesNulas = new long[(n + 63) >>> 6];
+                entrada.asLongBuffer().get(ids);
+                entrada.position(entrada.position() + n * 8);
+                entrada.asLongBuffer().get(versoes);
+                entrada.position(entrada.position() + n * 8);
+                entrada.asDoubleBuffer().get(precos);
+                entrada.position(entrada.position() + n * 8);
+                entrada.asIntBuffer().get(quantidades);
+                entrada.position(entrada.position() + n * 4);
+                entrada.asIntBuffer().get(codigos);
+                entrada.position(entrada.position() + n * 4);
+                entrada.asIntBuffer().get(limites);
+                entrada.position(entrada.position() + (2 * n + 1) * 4);
+                entrada.asLongBuffer().get(descricoesNulas);
+                entrada.position(entrada.position() + descricoesNulas.length * 8);
+                entrada.get(textos);
+                if (entrada.hasRemaining() || limites[2 * n] != textos.length) {
+                    throw new IOException("Arquivo de snapshot inconsistente: " + arquivo);
+                }
+                ProdutoSnapshot.Bloco linhas = new ProdutoSnapshot.Bloco(n, ids, versoes, precos, quantidades, codigos,
+                        limites, textos, descricoesNulas);
+                return new Conteudo(ProdutoSnapshot.Colunas.dividir(linhas, categorias, ProdutoSnapshot.LINHAS_POR_BLOCO),
+                        cursor, new String(identidade, StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                // BufferUnderflowException, tamanhos negativos etc.: arquivo truncado ou corrompido
+                throw new IOException("Arquivo de snapshot inválido: " + arquivo, e);
+            }
+        }
+    }
+}
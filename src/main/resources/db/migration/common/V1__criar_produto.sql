@@ -0,0 +1,17 @@
+-- Esquema inicial dos produtos. SQL comum ao PostgreSQL e ao H2 (usado localmente e nos testes).
+-- O incremento da sequência deve ser igual ao allocationSize de Produto.id.
+CREATE SEQUENCE produto_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE produto (
+    id         BIGINT           NOT NULL PRIMARY KEY,
+    nome       VARCHAR(255)     NOT NULL,
+    categoria  VARCHAR(255)     NOT NULL,
+    preco      DOUBLE PRECISION NOT NULL,
+    quantidade INTEGER          NOT NULL,
+    descricao  VARCHAR(255),
+    versao     BIGINT
+);
+
+CREATE INDEX idx_produto_categoria_preco ON produto (categoria, preco);
+CREATE INDEX idx_produto_preco ON produto (preco);
+CREATE INDEX idx_produto_nome ON produto (nome);
@@ -0,0 +1,15 @@
+-- Outbox das alterações de produtos. Os eventos são gravados na mesma transação da alteração; o relay atribui
+-- a posição (ordem de publicação, usada como cursor por GET /produtos/changes) ao publicá-los.
+CREATE SEQUENCE produto_evento_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE produto_evento (
+    id           BIGINT                   NOT NULL PRIMARY KEY,
+    produto_id   BIGINT                   NOT NULL,
+    tipo         VARCHAR(20)              NOT NULL,
+    dados        VARCHAR(4000),
+    ocorrido_em  TIMESTAMP WITH TIME ZONE NOT NULL,
+    posicao      BIGINT,
+    publicado_em TIMESTAMP WITH TIME ZONE
+);
+
+CREATE UNIQUE INDEX idx_produto_evento_posicao ON produto_evento (posicao);
@@ -0,0 +1,13 @@
+-- Sincronização incremental (GET /produtos?modifiedSince=): instante da criação e da última alteração de cada
+-- produto, e as remoções (tombstones), já que os produtos removidos deixam de existir na tabela produto.
+ALTER TABLE produto ADD COLUMN criado_em TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE produto ADD COLUMN atualizado_em TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX idx_produto_atualizado_em ON produto (atualizado_em);
+
+CREATE TABLE produto_removido (
+    id          BIGINT                   NOT NULL PRIMARY KEY,
+    removido_em TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_produto_removido_em ON produto_removido (removido_em);
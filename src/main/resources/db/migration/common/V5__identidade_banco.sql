@@ -0,0 +1,9 @@
+-- Identidade do banco: o instante em que esta migração rodou, gravado uma única vez. Um banco recriado do zero
+-- (como o H2 em memória a cada inicialização) recebe outra, e o snapshot de produtos gravado em disco para o
+-- banco anterior é descartado.
+CREATE TABLE identidade_banco (
+    id         INTEGER     NOT NULL PRIMARY KEY,
+    identidade VARCHAR(64) NOT NULL
+);
+
+INSERT INTO identidade_banco (id, identidade) VALUES (1, CAST(CURRENT_TIMESTAMP AS VARCHAR(64)));
@@ -0,0 +1,3 @@
+-- Fora da collation "C", o PostgreSQL só usa um índice B-tree em "nome LIKE 'x%'" com varchar_pattern_ops.
+-- O índice comum continua atendendo às comparações e à ordenação por nome.
+CREATE INDEX idx_produto_nome_prefixo ON produto (nome varchar_pattern_ops);
@@ -1,15 +1,25 @@
 package com.ada.microservices;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 public class MicroservicesApplicationTest {
 
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
     @Test
     void applicationStarts() {
         MicroservicesApplication.main(new String[] {});
         assertThat(true).isTrue();
     }
+
+    @Test
+    void scheduledTasksDoNotShareASingleThread() {
+        assertThat(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize()).isGreaterThan(1);
+    }
 }
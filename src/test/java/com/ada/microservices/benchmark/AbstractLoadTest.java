@@ -0,0 +1,130 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga HTTP: {@code benchmark.clientes} clientes concorrentes (padrão 1000) paginam o catálogo
+ * durante {@code benchmark.segundos} segundos. Cada subclasse sobe a aplicação em um modo de execução, e só
+ * {@code spring.threads.virtual.enabled} muda entre elas: o pool de conexões é o mesmo nos dois modos, para que
+ * a diferença medida venha apenas das threads.
+ * <p>
+ * Executar com {@code mvn test -Pbenchmark}; o resultado é impresso no console.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=200",
+        "spring.datasource.hikari.maximum-pool-size=40",
+        "spring.datasource.hikari.connection-timeout=3000"
+})
+abstract class AbstractLoadTest {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 1000);
+    private static final int SEGUNDOS = Integer.getInteger("benchmark.segundos", 10);
+    private static final int PRODUTOS = 5000;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    protected abstract String modo();
+
+    @BeforeEach
+    void popularCatalogo() {
+        if (produtoRepository.count() >= PRODUTOS) {
+            return;
+        }
+        List<Produto> produtos = IntStream.range(0, PRODUTOS)
+                .mapToObj(i -> Produto.builder()
+                        .nome("Produto " + i)
+                        .categoria("Categoria " + (i % 20))
+                        .preco(10.0 + i)
+                        .quantidade(i % 100)
+                        .build())
+                .toList();
+        produtoRepository.saveAll(produtos);
+    }
+
+    @Test
+    void throughputListagemPaginada() throws Exception {
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(SEGUNDOS);
+        LongAdder sucesso = new LongAdder();
+        LongAdder erros = new LongAdder();
+        List<long[]> latencias = new ArrayList<>();
+
+        // os clientes usam threads virtuais para que o lado do cliente não seja o gargalo em nenhum dos modos
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTES; c++) {
+                long[] amostras = new long[1 << 16];
+                latencias.add(amostras);
+                clientes.submit(() -> executarCliente(cliente, fim, amostras, sucesso, erros));
+            }
+        }
+
+        long[] todas = latencias.stream().flatMapToLong(a -> Arrays.stream(a).filter(l -> l > 0)).sorted().toArray();
+        double porSegundo = sucesso.sum() / (double) SEGUNDOS;
+        System.out.printf("%n[benchmark] modo=%s clientes=%d duracao=%ds req/s=%.0f p50=%.1fms p99=%.1fms erros=%d%n",
+                modo(), CLIENTES, SEGUNDOS, porSegundo, percentil(todas, 0.50), percentil(todas, 0.99), erros.sum());
+        assertTrue(sucesso.sum() > 0);
+    }
+
+    private void executarCliente(HttpClient cliente, long fim, long[] amostras, LongAdder sucesso, LongAdder erros) {
+        int i = 0;
+        while (System.nanoTime() < fim) {
+            long after = ThreadLocalRandom.current().nextLong(PRODUTOS);
+            HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/produtos?limit=20&after=" + after))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() == 200) {
+                    sucesso.increment();
+                    if (i < amostras.length) {
+                        amostras[i++] = System.nanoTime() - inicio;
+                    }
+                } else {
+                    erros.increment();
+                }
+            } catch (Exception e) {
+                erros.increment();
+            }
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+}
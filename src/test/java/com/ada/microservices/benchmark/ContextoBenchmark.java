@@ -0,0 +1,63 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.MicroservicesApplication;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Apoio comum aos benchmarks JMH: sobe a aplicação sem ruído de log e popula o catálogo com dados
+ * determinísticos, para que duas execuções meçam exatamente o mesmo trabalho.
+ */
+final class ContextoBenchmark {
+
+    static final long SEMENTE = 42L;
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(WebApplicationType tipo, String... propriedades) {
+        return new SpringApplicationBuilder(MicroservicesApplication.class)
+                .web(tipo)
+                .properties("spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "server.port=0",
+                        "spring.jpa.show-sql=false")
+                .properties(propriedades)
+                .run();
+    }
+
+    static List<Produto> produtos(int quantidade) {
+        return IntStream.range(0, quantidade)
+                .mapToObj(i -> Produto.builder()
+                        .nome("Produto " + i)
+                        .categoria("Categoria " + (i % 20))
+                        .preco(10.0 + i)
+                        .quantidade(i % 100)
+                        .descricao(i % 2 == 0 ? "Descrição do produto " + i : null)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * @return os IDs dos produtos gravados, na ordem de inserção
+     */
+    static List<Long> popular(ProdutoRepository produtoRepository, int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        produtoRepository.saveAll(produtos(quantidade)).forEach(produto -> ids.add(produto.getId()));
+        return ids;
+    }
+
+    /**
+     * Sequência fixa de índices em {@code [0, limite)} para alternar os alvos de cada invocação.
+     */
+    static int[] indices(int quantidade, int limite) {
+        return new SplittableRandom(SEMENTE).ints(quantidade, 0, limite).toArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.repository.ProdutoRepository;
+import com.ada.microservices.products.service.ProdutoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rajada de leituras por ID sobre poucos produtos populares, com um cache que expira a cada 20 ms para que as
+ * faltas se repitam durante toda a medição. Compara quantos comandos SQL por segundo chegam ao banco com a
+ * leitura agrupada ({@code produtos.leitura-agrupada.janela=1ms}) e sem ela ({@code janela=0}); nos dois casos
+ * leituras concorrentes do mesmo ID já compartilham a carga pelo cache.
+ * <p>
+ * Executar com {@code mvn test -Pbenchmark -Dtest=LeituraConcorrenteLoadTest}; o resultado é impresso no console.
+ */
+@Tag("benchmark")
+class LeituraConcorrenteLoadTest {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 1000);
+    private static final int SEGUNDOS = Integer.getInteger("benchmark.segundos", 10);
+    private static final int PRODUTOS = 1000;
+    private static final int POPULARES = 200;
+
+    @Test
+    void leituraAgrupadaReduzConsultas() throws Exception {
+        String[] semAgrupamento = medir("0");
+        String[] agrupada = medir("1ms");
+        System.out.printf("%n[benchmark] leitura por ID sem agrupamento: %s leituras/s, %s comandos/s"
+                + " | agrupada: %s leituras/s, %s comandos/s (clientes=%d)%n",
+                semAgrupamento[0], semAgrupamento[1], agrupada[0], agrupada[1], CLIENTES);
+    }
+
+    private String[] medir(String janela) throws Exception {
+        try (ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar(WebApplicationType.NONE,
+                "spring.datasource.url=jdbc:h2:mem:leitura_" + (janela.equals("0") ? "direta" : "agrupada"),
+                "produtos.leitura-agrupada.janela=" + janela,
+                "spring.cache.caffeine.spec=maximumSize=10000,expireAfterWrite=20ms",
+                "produtos.busca.reconstruir-na-inicializacao=false")) {
+            List<Long> ids = ContextoBenchmark.popular(contexto.getBean(ProdutoRepository.class), PRODUTOS);
+            ProdutoService produtoService = contexto.getBean(ProdutoService.class);
+            Statistics estatisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            estatisticas.clear();
+
+            long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(SEGUNDOS);
+            LongAdder leituras = new LongAdder();
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTES; c++) {
+                    clientes.submit(() -> {
+                        while (System.nanoTime() < fim) {
+                            produtoService.buscarProdutoPorId(ids.get(ThreadLocalRandom.current().nextInt(POPULARES)));
+                            leituras.increment();
+                        }
+                    });
+                }
+            }
+            assertTrue(leituras.sum() > 0);
+            return new String[] {
+                    String.format("%.0f", leituras.sum() / (double) SEGUNDOS),
+                    String.format("%.0f", estatisticas.getPrepareStatementCount() / (double) SEGUNDOS)
+            };
+        }
+    }
+}
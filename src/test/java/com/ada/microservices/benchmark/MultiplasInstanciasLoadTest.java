@@ -0,0 +1,170 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga com várias instâncias da aplicação sobre o mesmo banco: mede a vazão da listagem paginada com
+ * uma instância e depois com {@code benchmark.instancias} instâncias (padrão 3), com os clientes distribuídos
+ * entre elas em rodízio.
+ * <p>
+ * Por padrão as instâncias compartilham um H2 em memória nomeado, no mesmo processo. Para medir contra o
+ * PostgreSQL, execute com {@code -Dbenchmark.perfil=postgres -Dbenchmark.jdbc-url=jdbc:postgresql://...} e as
+ * credenciais em {@code PRODUTOS_DB_USUARIO} e {@code PRODUTOS_DB_SENHA}; sem a URL o teste falha, em vez de
+ * medir o H2 sob o nome do PostgreSQL.
+ * <p>
+ * O teste falha se a vazão com todas as instâncias não chegar a {@code benchmark.ganho-minimo} (padrão 1.1)
+ * vezes a de uma instância. Como todas as instâncias dividem a CPU desta JVM, o ganho medido é um limite
+ * inferior do obtido com instâncias em máquinas separadas.
+ * <p>
+ * {@link #leituraPorIdConvergeAposEscritaEmOutraInstancia()} confere o limite de defasagem do cache de cada
+ * instância: depois de um PUT em uma instância, a leitura por ID na outra deve trazer o novo ETag em até
+ * {@code produtos.busca.intervalo-atualizacao-ms} mais a folga de {@link #FOLGA_CONVERGENCIA}.
+ */
+@Tag("benchmark")
+class MultiplasInstanciasLoadTest {
+
+    private static final int INSTANCIAS = Integer.getInteger("benchmark.instancias", 3);
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 1000);
+    private static final int SEGUNDOS = Integer.getInteger("benchmark.segundos", 10);
+    private static final String PERFIL = System.getProperty("benchmark.perfil", "default");
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc-url");
+    private static final double GANHO_MINIMO = Double.parseDouble(System.getProperty("benchmark.ganho-minimo", "1.1"));
+    private static final int PRODUTOS = 5000;
+    private static final long INTERVALO_ATUALIZACAO_MS = 200;
+    private static final Duration FOLGA_CONVERGENCIA = Duration.ofSeconds(1);
+
+    private final List<ConfigurableApplicationContext> contextos = new ArrayList<>();
+
+    @AfterEach
+    void encerrar() {
+        contextos.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void throughputEscalaComInstancias() throws Exception {
+        List<Integer> portas = iniciarInstancias(INSTANCIAS);
+        ProdutoRepository produtoRepository = contextos.get(0).getBean(ProdutoRepository.class);
+        if (produtoRepository.count() < PRODUTOS) {
+            ContextoBenchmark.popular(produtoRepository, PRODUTOS);
+        }
+
+        double umaInstancia = medir(portas.subList(0, 1));
+        double todas = medir(portas);
+        System.out.printf("%n[benchmark] instancias=1 req/s=%.0f | instancias=%d req/s=%.0f | ganho=%.2fx (perfil=%s, clientes=%d)%n",
+                umaInstancia, INSTANCIAS, todas, todas / umaInstancia, PERFIL, CLIENTES);
+        assertTrue(umaInstancia > 0, "nenhuma requisição bem-sucedida com uma instância");
+        assertTrue(todas / umaInstancia >= GANHO_MINIMO, String.format("ganho de %.2fx com %d instâncias, abaixo do mínimo de %.2fx",
+                todas / umaInstancia, INSTANCIAS, GANHO_MINIMO));
+    }
+
+    @Test
+    void leituraPorIdConvergeAposEscritaEmOutraInstancia() throws Exception {
+        List<Integer> portas = iniciarInstancias(2);
+        Produto produto = contextos.get(0).getBean(ProdutoRepository.class).save(Produto.builder()
+                .nome("Antes").categoria("Categoria").preco(10.0).quantidade(1).build());
+        URI escrita = URI.create("http://localhost:" + portas.get(0) + "/produtos/" + produto.getId());
+        URI leitura = URI.create("http://localhost:" + portas.get(1) + "/produtos/" + produto.getId());
+        HttpClient cliente = HttpClient.newHttpClient();
+
+        // a leitura na segunda instância põe o produto no cache dela
+        HttpResponse<String> anterior = cliente.send(HttpRequest.newBuilder(leitura).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, anterior.statusCode());
+        String etagAnterior = anterior.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> atualizacao = cliente.send(HttpRequest.newBuilder(escrita)
+                .header("Content-Type", "application/json")
+                .header("If-Match", etagAnterior)
+                .PUT(HttpRequest.BodyPublishers.ofString(
+                        "{\"nome\":\"Depois\",\"categoria\":\"Categoria\",\"preco\":10.0,\"quantidade\":1}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, atualizacao.statusCode());
+        String etagNovo = atualizacao.headers().firstValue("ETag").orElseThrow();
+
+        long inicio = System.nanoTime();
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(INTERVALO_ATUALIZACAO_MS) + FOLGA_CONVERGENCIA.toNanos();
+        String etagLido = etagAnterior;
+        while (!etagLido.equals(etagNovo) && System.nanoTime() < prazo) {
+            Thread.sleep(20);
+            etagLido = cliente.send(HttpRequest.newBuilder(leitura).GET().build(), HttpResponse.BodyHandlers.discarding())
+                    .headers().firstValue("ETag").orElseThrow();
+        }
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        System.out.printf("%n[benchmark] leitura na outra instância convergiu em %d ms (perfil=%s)%n", decorrido, PERFIL);
+        assertEquals(etagNovo, etagLido, String.format("a outra instância ainda serve o ETag %s após %d ms",
+                etagLido, decorrido));
+    }
+
+    /**
+     * Sobe as instâncias sobre o mesmo banco e devolve as portas HTTP de cada uma.
+     */
+    private List<Integer> iniciarInstancias(int quantidade) {
+        boolean postgres = PERFIL.contains("postgres");
+        assertTrue(!postgres || JDBC_URL != null, "benchmark.jdbc-url é obrigatório com o perfil postgres");
+        String url = JDBC_URL != null ? JDBC_URL : "jdbc:h2:mem:compartilhado;DB_CLOSE_DELAY=-1";
+        List<Integer> portas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar(WebApplicationType.SERVLET,
+                    "spring.profiles.active=" + PERFIL,
+                    "spring.datasource.url=" + url,
+                    "produtos.busca.reconstruir-na-inicializacao=false",
+                    "produtos.busca.intervalo-atualizacao-ms=" + INTERVALO_ATUALIZACAO_MS);
+            contextos.add(contexto);
+            portas.add(((WebServerApplicationContext) contexto).getWebServer().getPort());
+        }
+        return portas;
+    }
+
+    private double medir(List<Integer> portas) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(SEGUNDOS);
+        LongAdder sucesso = new LongAdder();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTES; c++) {
+                int porta = portas.get(c % portas.size());
+                clientes.submit(() -> executarCliente(cliente, porta, fim, sucesso));
+            }
+        }
+        return sucesso.sum() / (double) SEGUNDOS;
+    }
+
+    private static void executarCliente(HttpClient cliente, int porta, long fim, LongAdder sucesso) {
+        while (System.nanoTime() < fim) {
+            long after = ThreadLocalRandom.current().nextLong(PRODUTOS);
+            HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/produtos?limit=20&after=" + after))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            try {
+                if (cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    sucesso.increment();
+                }
+            } catch (Exception e) {
+                // conta apenas as respostas bem-sucedidas
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ada.microservices.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadsLoadTest extends AbstractLoadTest {
+
+    @Override
+    protected String modo() {
+        return "platform-threads";
+    }
+}
@@ -0,0 +1,82 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Ida e volta completa pelo {@code ProdutoController} via MockMvc: roteamento, serviço, banco e serialização,
+ * sem o custo de rede. Com {@code cache=none} toda leitura por ID vai ao banco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProdutoControllerBenchmark {
+
+    private static final int TAMANHO_CATALOGO = 1000;
+    private static final int INDICES = 1024;
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    private ConfigurableApplicationContext contexto;
+    private MockMvc mockMvc;
+    private long[] ids;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar(WebApplicationType.SERVLET, "spring.cache.type=" + cache);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+        List<Long> gravados = ContextoBenchmark.popular(contexto.getBean(ProdutoRepository.class), TAMANHO_CATALOGO);
+        ids = new long[INDICES];
+        int[] indices = ContextoBenchmark.indices(INDICES, gravados.size());
+        for (int i = 0; i < INDICES; i++) {
+            ids[i] = gravados.get(indices[i]);
+        }
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public MvcResult obterProduto() throws Exception {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return mockMvc.perform(get("/produtos/{id}", ids[posicao])).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult listarProdutosPaginados() throws Exception {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return mockMvc.perform(get("/produtos").param("limit", "100").param("after", Long.toString(ids[posicao]))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult listarTodosProdutos() throws Exception {
+        return mockMvc.perform(get("/produtos")).andReturn();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da conversão entidade → DTO feita em toda leitura ({@link ProdutoResponseDTO#de}) e da conversão
+ * requisição → entidade das escritas. {@code paraEntidadeBuilder} é a conversão anterior, pelo builder do Lombok,
+ * mantida como referência para {@code paraEntidade}; a diferença de {@code gc.alloc.rate.norm} entre os dois é o
+ * builder alocado por produto criado, quando o JIT não o elimina.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProdutoMapeamentoBenchmark {
+
+    private static final int QUANTIDADE = 1024;
+
+    private Produto[] produtos;
+    private ProdutoRequestDTO[] requisicoes;
+    private int[] indices;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        List<Produto> lista = ContextoBenchmark.produtos(QUANTIDADE);
+        produtos = lista.toArray(new Produto[0]);
+        for (int i = 0; i < produtos.length; i++) {
+            produtos[i].setId((long) i + 1);
+            produtos[i].setVersao(0L);
+        }
+        requisicoes = lista.stream()
+                .map(p -> new ProdutoRequestDTO(p.getNome(), p.getCategoria(), p.getPreco(), p.getQuantidade(), p.getDescricao()))
+                .toArray(ProdutoRequestDTO[]::new);
+        indices = ContextoBenchmark.indices(QUANTIDADE, QUANTIDADE);
+    }
+
+    @Benchmark
+    public ProdutoResponseDTO entityToDTO() {
+        posicao = (posicao + 1) & (QUANTIDADE - 1);
+        return ProdutoResponseDTO.de(produtos[indices[posicao]]);
+    }
+
+    @Benchmark
+    public Produto paraEntidade() {
+        posicao = (posicao + 1) & (QUANTIDADE - 1);
+        return requisicoes[indices[posicao]].paraEntidade();
+    }
+
+    @Benchmark
+    public Produto paraEntidadeBuilder() {
+        posicao = (posicao + 1) & (QUANTIDADE - 1);
+        ProdutoRequestDTO dto = requisicoes[indices[posicao]];
+        return Produto.builder()
+                .nome(dto.getNome())
+                .categoria(dto.getCategoria())
+                .preco(dto.getPreco())
+                .quantidade(dto.getQuantidade())
+                .descricao(dto.getDescricao())
+                .build();
+    }
+}
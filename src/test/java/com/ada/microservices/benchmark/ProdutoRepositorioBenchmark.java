@@ -0,0 +1,92 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acesso ao banco H2 embarcado pelo {@link ProdutoRepository}, sem a camada web e sem cache. Os pares
+ * {@code findById}/{@code buscarDTOPorId} e {@code findAll}/{@code listarDTOs} comparam a leitura de entidades
+ * com a projeção direta no DTO; a alocação por operação aparece em {@code gc.alloc.rate.norm}.
+ * <p>
+ * A listagem completa em DTOs só existe aqui: a aplicação não lê o catálogo inteiro de uma vez, então a consulta
+ * usa o {@link EntityManager} com a mesma projeção do repositório ({@link ProdutoRepository#SELECT_DTO}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProdutoRepositorioBenchmark {
+
+    private static final int INDICES = 1024;
+
+    @Param({"1000", "10000"})
+    public int tamanhoCatalogo;
+
+    private ConfigurableApplicationContext contexto;
+    private ProdutoRepository produtoRepository;
+    private EntityManager entityManager;
+    private long[] ids;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar(WebApplicationType.NONE);
+        produtoRepository = contexto.getBean(ProdutoRepository.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        List<Long> gravados = ContextoBenchmark.popular(produtoRepository, tamanhoCatalogo);
+        ids = new long[INDICES];
+        int[] indices = ContextoBenchmark.indices(INDICES, gravados.size());
+        for (int i = 0; i < INDICES; i++) {
+            ids[i] = gravados.get(indices[i]);
+        }
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Produto> findById() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return produtoRepository.findById(ids[posicao]);
+    }
+
+    @Benchmark
+    public Optional<ProdutoResponseDTO> buscarDTOPorId() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return produtoRepository.buscarDTOPorId(ids[posicao]);
+    }
+
+    @Benchmark
+    public List<Produto> findAll() {
+        return produtoRepository.findAll();
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> listarDTOs() {
+        return entityManager.createQuery(ProdutoRepository.SELECT_DTO + " order by p.id", ProdutoResponseDTO.class)
+                .getResultList();
+    }
+}
@@ -0,0 +1,143 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.controller.ProdutoJsonHttpMessageConverter;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas com um {@link ObjectMapper} configurado como o do Spring Boot, em JSON e em Smile
+ * (configurado como em {@code SerializacaoConfig}). O tamanho das listas em cada formato é impresso na preparação.
+ * <p>
+ * Os pares {@code *NoFluxo}/{@code *Especializado} escrevem o mesmo JSON em uma saída que descarta os bytes, como a
+ * resposta do servlet, pelo {@code ObjectMapper} e pelo {@link ProdutoJsonHttpMessageConverter}; a diferença de
+ * {@code gc.alloc.rate.norm} entre eles é a alocação da serialização em si.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProdutoSerializacaoBenchmark {
+
+    @Param({"100", "1000"})
+    public int tamanhoLista;
+
+    private static final OutputStream DESCARTE = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private ObjectMapper objectMapper;
+    private ProdutoJsonHttpMessageConverter conversor;
+    private ObjectMapper smileMapper;
+    private ObjectReader leitorListaJson;
+    private ObjectReader leitorListaSmile;
+    private ProdutoResponseDTO produto;
+    private List<ProdutoResponseDTO> lista;
+    private byte[] requisicao;
+    private byte[] listaJson;
+    private byte[] listaSmile;
+
+    @Setup
+    public void preparar() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        conversor = new ProdutoJsonHttpMessageConverter();
+        smileMapper = Jackson2ObjectMapperBuilder.smile()
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build();
+        TypeReference<List<ProdutoResponseDTO>> tipoLista = new TypeReference<>() {
+        };
+        leitorListaJson = objectMapper.readerFor(tipoLista);
+        leitorListaSmile = smileMapper.readerFor(tipoLista);
+        List<Produto> produtos = ContextoBenchmark.produtos(tamanhoLista);
+        for (int i = 0; i < produtos.size(); i++) {
+            produtos.get(i).setId((long) i + 1);
+            produtos.get(i).setVersao(0L);
+        }
+        lista = produtos.stream().map(ProdutoResponseDTO::de).toList();
+        produto = lista.get(0);
+        requisicao = objectMapper.writeValueAsBytes(
+                new ProdutoRequestDTO("Produto 1", "Categoria 1", 10.0, 5, "Descrição do produto 1"));
+        listaJson = objectMapper.writeValueAsBytes(lista);
+        listaSmile = smileMapper.writeValueAsBytes(lista);
+        System.out.printf("%n%d produtos: JSON %d bytes, Smile %d bytes (%.0f%% do JSON)%n",
+                tamanhoLista, listaJson.length, listaSmile.length, 100.0 * listaSmile.length / listaJson.length);
+    }
+
+    @Benchmark
+    public byte[] serializarProduto() throws Exception {
+        return objectMapper.writeValueAsBytes(produto);
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws Exception {
+        return objectMapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public void serializarProdutoNoFluxo() throws Exception {
+        objectMapper.writeValue(DESCARTE, produto);
+    }
+
+    @Benchmark
+    public void serializarProdutoEspecializado() throws Exception {
+        conversor.escrever(produto, DESCARTE);
+    }
+
+    @Benchmark
+    public void serializarListaNoFluxo() throws Exception {
+        objectMapper.writeValue(DESCARTE, lista);
+    }
+
+    @Benchmark
+    public void serializarListaEspecializada() throws Exception {
+        conversor.escrever(lista, DESCARTE);
+    }
+
+    @Benchmark
+    public ProdutoRequestDTO desserializarRequisicao() throws Exception {
+        return objectMapper.readValue(requisicao, ProdutoRequestDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarListaSmile() throws Exception {
+        return smileMapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> desserializarLista() throws Exception {
+        return leitorListaJson.readValue(listaJson);
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> desserializarListaSmile() throws Exception {
+        return leitorListaSmile.readValue(listaSmile);
+    }
+}
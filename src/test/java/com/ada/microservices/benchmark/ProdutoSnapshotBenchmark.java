@@ -0,0 +1,126 @@
+package com.ada.microservices.benchmark;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import com.ada.microservices.products.service.ProdutoSnapshot;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura pelo {@link ProdutoSnapshot} contra o caminho JPA ({@link ProdutoRepository}) sobre o H2 embarcado:
+ * por ID e por página de 100 produtos. A alocação por operação aparece em {@code gc.alloc.rate.norm}. A página
+ * JPA lê entidades pelo {@link EntityManager}, como a leitura por entidades que o snapshot substitui.
+ * <p>
+ * Na preparação é impressa a memória retida pelo catálogo inteiro em cada forma, medida pelo heap ocupado
+ * após coletas completas: as entidades com os DTOs correspondentes (o que a sessão e o cache guardariam) e o
+ * snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProdutoSnapshotBenchmark {
+
+    private static final int INDICES = 1024;
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"10000", "100000"})
+    public int tamanhoCatalogo;
+
+    private ConfigurableApplicationContext contexto;
+    private ProdutoRepository produtoRepository;
+    private EntityManager entityManager;
+    private ProdutoSnapshot snapshot;
+    private long[] ids;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar(WebApplicationType.NONE, "produtos.busca.reconstruir-na-inicializacao=false");
+        produtoRepository = contexto.getBean(ProdutoRepository.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        List<Long> gravados = ContextoBenchmark.popular(produtoRepository, tamanhoCatalogo);
+        ids = new long[INDICES];
+        int[] indices = ContextoBenchmark.indices(INDICES, gravados.size());
+        for (int i = 0; i < INDICES; i++) {
+            ids[i] = gravados.get(indices[i]);
+        }
+
+        long antes = heapOcupado();
+        List<Produto> entidades = produtoRepository.findAll();
+        List<ProdutoResponseDTO> dtos = entidades.stream().map(ProdutoResponseDTO::de).toList();
+        long jpa = heapOcupado() - antes;
+        Reference.reachabilityFence(entidades);
+        Reference.reachabilityFence(dtos);
+
+        antes = heapOcupado();
+        snapshot = new ProdutoSnapshot(produtoRepository, contexto.getBean(PlatformTransactionManager.class), true, 1000, null);
+        snapshot.carregar();
+        long medido = heapOcupado() - antes;
+        System.out.printf("%n%d produtos: entidades + DTOs %d bytes/produto, snapshot %d bytes/produto (arrays: %d)%n",
+                tamanhoCatalogo, jpa / tamanhoCatalogo, medido / tamanhoCatalogo, snapshot.bytesOcupados() / tamanhoCatalogo);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<ProdutoResponseDTO> buscarNoSnapshot() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return snapshot.buscar(ids[posicao]);
+    }
+
+    @Benchmark
+    public Optional<ProdutoResponseDTO> buscarDTOPorId() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return produtoRepository.buscarDTOPorId(ids[posicao]);
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> paginaNoSnapshot() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return snapshot.pagina(ids[posicao], TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> paginaJpa() {
+        posicao = (posicao + 1) & (INDICES - 1);
+        return entityManager.createQuery("select p from Produto p where p.id > :id order by p.id", Produto.class)
+                .setParameter("id", ids[posicao])
+                .setMaxResults(TAMANHO_PAGINA)
+                .getResultList().stream()
+                .map(ProdutoResponseDTO::de)
+                .toList();
+    }
+
+    private static long heapOcupado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ada.microservices.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheConfigTest {
+
+    @Test
+    void testCargasRodamEmThreadsVirtuaisForaDoPoolComum() {
+        CacheProperties propriedades = new CacheProperties();
+        propriedades.getCaffeine().setSpec("maximumSize=10,recordStats");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUTOS_CACHE);
+        new CacheConfig().caffeineAssincrono(propriedades).customize(cacheManager);
+
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+        Thread carga = cache.get(1L, Thread::currentThread);
+
+        assertTrue(carga.isVirtual());
+        assertTrue(carga.getName().startsWith("cache-carga-"));
+        assertSame(carga, cache.get(1L, Thread::currentThread));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ada.microservices.config;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.service.ProdutoService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primário e réplica são dois H2 em memória independentes, sem replicação entre eles: cada leitura revela de
+ * qual banco veio.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicasConfigTest.URL_PRIMARIO,
+        "produtos.replicas.urls=" + ReplicasConfigTest.URL_REPLICA,
+        "produtos.replicas.janela-leitura-propria=1m",
+        "produtos.busca.reconstruir-na-inicializacao=false"
+})
+public class ReplicasConfigTest {
+
+    static final String URL_PRIMARIO = "jdbc:h2:mem:primario_replicas;DB_CLOSE_DELAY=-1";
+    static final String URL_REPLICA = "jdbc:h2:mem:replica_replicas;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @BeforeAll
+    static void prepararReplica() {
+        Flyway.configure()
+                .dataSource(URL_REPLICA, "sa", "")
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+        replica.update("insert into produto (id, nome, categoria, preco, quantidade, versao) values (9000, 'Só na réplica', 'Categoria', 1.0, 1, 0)");
+    }
+
+    @Test
+    void testListagemPaginadaVaiParaReplica() {
+        List<ProdutoResponseDTO> produtos = produtoService.listarProdutosPaginados(null, null, 1000).getProdutos();
+
+        assertTrue(produtos.stream().anyMatch(produto -> produto.getId() == 9000L));
+    }
+
+    @Test
+    void testListagemEmLotesVaiParaReplica() {
+        List<Long> ids = new ArrayList<>();
+        // os lotes seguintes são lidos durante a iteração, fora de um método transacional
+        produtoService.percorrerProdutos(null, 1).forEach(produto -> ids.add(produto.getId()));
+
+        assertTrue(ids.contains(9000L));
+    }
+
+    @Test
+    void testEscritaVaiParaPrimarioELeituraPropriaTambem() {
+        ProdutoResponseDTO criado = produtoService.criarProduto(new ProdutoRequestDTO("Novo", "Categoria", 2.0, 2));
+
+        assertEquals(0, replica.queryForObject("select count(*) from produto where id = ?", Integer.class, criado.getId()));
+        // alterado dentro da janela de leitura própria: lido do primário, embora a réplica não o tenha
+        assertEquals("Novo", produtoService.buscarProdutoPorId(criado.getId()).getNome());
+        assertTrue(produtoService.listarProdutosPaginados(null, null, 1000).getProdutos().stream()
+                .noneMatch(produto -> produto.getId().equals(criado.getId())));
+    }
+}
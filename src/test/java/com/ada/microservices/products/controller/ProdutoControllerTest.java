@@ -1,8 +1,18 @@
 package com.ada.microservices.products.controller;
 
+import com.ada.microservices.config.SerializacaoConfig;
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
 import com.ada.microservices.products.dto.ProdutoRequestDTO;
 import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.dto.ProdutoSincronizacaoDTO;
+import com.ada.microservices.products.exception.GlobalExceptionHandler;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.service.ProdutoAtualizacaoAssincrona;
 import com.ada.microservices.products.service.ProdutoService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,15 +22,21 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +48,9 @@ public class ProdutoControllerTest {
     @Mock
     private ProdutoService produtoService;
 
+    @Mock
+    private ProdutoAtualizacaoAssincrona atualizacaoAssincrona;
+
     @InjectMocks
     private ProdutoController produtoController;
 
@@ -61,6 +80,37 @@ public class ProdutoControllerTest {
         verify(produtoService, times(1)).criarProduto(any(ProdutoRequestDTO.class));
     }
 
+    @Test
+    public void testSincronizarProdutos() throws Exception {
+        Instant desde = Instant.parse("2026-10-01T12:00:00Z");
+        ProdutoResponseDTO alterado = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null);
+        when(produtoService.sincronizarDesde(desde, null, ProdutoService.LIMITE_MAXIMO_PAGINA))
+                .thenReturn(new ProdutoSincronizacaoDTO(List.of(alterado), List.of(7L), desde.plusSeconds(60)));
+
+        mockMvc.perform(get("/produtos").param("modifiedSince", "2026-10-01T12:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.produtos[0].id").value(1L))
+                .andExpect(jsonPath("$.removidos[0]").value(7L))
+                .andExpect(jsonPath("$.proximoCursor").exists());
+
+        verify(produtoService, never()).percorrerProdutos(any(), anyInt());
+    }
+
+    @Test
+    public void testSincronizarProdutosComContinuacao() throws Exception {
+        Instant desde = Instant.parse("2026-10-01T12:00:00Z");
+        when(produtoService.sincronizarDesde(desde, "abc", 50))
+                .thenReturn(new ProdutoSincronizacaoDTO(List.of(), List.of(7L), null, "def"));
+
+        mockMvc.perform(get("/produtos").param("modifiedSince", "2026-10-01T12:00:00Z")
+                        .param("after", "abc").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.continuacao").value("def"))
+                .andExpect(jsonPath("$.proximoCursor").doesNotExist());
+
+        verify(produtoService, never()).listarProdutosPaginados(any(), any(), anyInt());
+    }
+
     @Test
     public void testObterProduto() {
         ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null);
@@ -73,6 +123,139 @@ public class ProdutoControllerTest {
         assertEquals(responseDTO, response.getBody());
     }
 
+    @Test
+    public void testObterProdutoComETag() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null, 3L);
+
+        when(produtoService.buscarProdutoPorId(1L)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/produtos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.versao").doesNotExist());
+    }
+
+    @Test
+    public void testRespostasComConversorEspecializado() throws Exception {
+        MockMvc especializado = MockMvcBuilders.standaloneSetup(produtoController)
+                .setMessageConverters(new ProdutoJsonHttpMessageConverter(), new MappingJackson2HttpMessageConverter())
+                .build();
+        ProdutoResponseDTO produto = new ProdutoResponseDTO(1L, "Cafe \"Torrado\"", "Bebidas", 25.9, 3, null, 3L);
+        when(produtoService.buscarProdutoPorId(1L)).thenReturn(produto);
+        when(produtoService.listarProdutosPaginados(any(ProdutoFiltroDTO.class), isNull(), eq(1)))
+                .thenReturn(new ProdutoPaginaDTO(List.of(produto), 1L));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        especializado.perform(get("/produtos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(produto)));
+        especializado.perform(get("/produtos").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(new ProdutoPaginaDTO(List.of(produto), 1L))));
+    }
+
+    @Test
+    public void testObterProdutoNaoModificado() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null, 3L);
+
+        when(produtoService.buscarProdutoPorId(1L)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/produtos/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testAtualizarProdutoComIfMatch() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null, 4L);
+
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), eq(3L))).thenReturn(responseDTO);
+
+        mockMvc.perform(put("/produtos/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    public void testAtualizarProdutoSemDescricaoSubstituiPorNula() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null);
+        when(produtoService.atualizarProduto(eq(1L), argThat(dto -> dto.getDescricao() == null), isNull())).thenReturn(responseDTO);
+
+        mockMvc.perform(put("/produtos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.descricao").doesNotExist());
+    }
+
+    @Test
+    public void testAtualizarProdutoSemIfMatchNaoDevolveETag() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null);
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), isNull())).thenReturn(responseDTO);
+
+        mockMvc.perform(put("/produtos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    public void testAtualizarProdutoInexistenteComIfMatchQualquerVersao() throws Exception {
+        MockMvc comTratamento = MockMvcBuilders.standaloneSetup(produtoController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), isNull()))
+                .thenThrow(new ResourceNotFoundException("Produto não encontrado com ID: 1"));
+        String corpo = "{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}";
+
+        comTratamento.perform(put("/produtos/1").header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isPreconditionFailed());
+        comTratamento.perform(put("/produtos/1")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testAtualizarProdutoAssincrono() throws Exception {
+        when(atualizacaoAssincrona.isHabilitada()).thenReturn(true);
+
+        mockMvc.perform(put("/produtos/1")
+                .header("Prefer", "wait=5, respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(content().string(""));
+
+        verify(atualizacaoAssincrona).aceitar(eq(1L), any(ProdutoRequestDTO.class));
+        verifyNoInteractions(produtoService);
+    }
+
+    @Test
+    public void testAtualizarProdutoAssincronoDesabilitadoOuCondicional() throws Exception {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null, 4L);
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), any())).thenReturn(responseDTO);
+        String corpo = "{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}";
+
+        mockMvc.perform(put("/produtos/1").header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk());
+        when(atualizacaoAssincrona.isHabilitada()).thenReturn(true);
+        mockMvc.perform(put("/produtos/1").header("Prefer", "respond-async").header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(atualizacaoAssincrona, never()).aceitar(anyLong(), any(ProdutoRequestDTO.class));
+    }
+
     @Test
     public void testListarTodosProdutos() {
         List<ProdutoResponseDTO> responseDTOs = Arrays.asList(
@@ -80,9 +263,9 @@ public class ProdutoControllerTest {
                 new ProdutoResponseDTO(2L, "Produto 2", "Categoria 2", 200.0, 20, "Descrição")
         );
 
-        when(produtoService.listarTodosProdutos()).thenReturn(responseDTOs);
+        when(produtoService.percorrerProdutos(any(ProdutoFiltroDTO.class), anyInt())).thenReturn(responseDTOs);
 
-        ResponseEntity<List<ProdutoResponseDTO>> response = produtoController.listarTodosProdutos();
+        ResponseEntity<Iterable<ProdutoResponseDTO>> response = produtoController.listarTodosProdutos(new ProdutoFiltroDTO());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(responseDTOs, response.getBody());
@@ -93,9 +276,9 @@ public class ProdutoControllerTest {
         ProdutoRequestDTO requestDTO = new ProdutoRequestDTO(null, null, null, null);
         ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null);
 
-        when(produtoService.atualizarProduto(anyLong(), any(ProdutoRequestDTO.class))).thenReturn(responseDTO);
+        when(produtoService.atualizarProduto(anyLong(), any(ProdutoRequestDTO.class), any())).thenReturn(responseDTO);
 
-        ResponseEntity<ProdutoResponseDTO> response = produtoController.atualizarProduto(1L, requestDTO);
+        ResponseEntity<ProdutoResponseDTO> response = produtoController.atualizarProduto(1L, null, null, requestDTO);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(responseDTO, response.getBody());
@@ -110,4 +293,110 @@ public class ProdutoControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(produtoService, times(1)).deletarProduto(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testListarProdutosPaginados() throws Exception {
+        ProdutoPaginaDTO pagina = new ProdutoPaginaDTO(Arrays.asList(
+                new ProdutoResponseDTO(11L, "Produto 11", "Categoria 1", 100.0, 10, null),
+                new ProdutoResponseDTO(12L, "Produto 12", "Categoria 1", 120.0, 2, null)
+        ), 12L);
+
+        when(produtoService.listarProdutosPaginados(any(ProdutoFiltroDTO.class), eq(10L), eq(2))).thenReturn(pagina);
+
+        mockMvc.perform(get("/produtos").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.produtos.length()").value(2))
+                .andExpect(jsonPath("$.produtos[0].id").value(11L))
+                .andExpect(jsonPath("$.proximoCursor").value(12L));
+    }
+
+    @Test
+    public void testListarProdutosComFiltro() throws Exception {
+        when(produtoService.percorrerProdutos(any(ProdutoFiltroDTO.class), anyInt())).thenReturn(Arrays.asList(
+                new ProdutoResponseDTO(3L, "Caneta Azul", "Papelaria", 5.0, 100, null)
+        ));
+
+        mockMvc.perform(get("/produtos")
+                        .param("categoria", "Papelaria")
+                        .param("precoMin", "1.5")
+                        .param("precoMax", "10")
+                        .param("nome", "Can"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3L));
+
+        verify(produtoService).percorrerProdutos(argThat(filtro -> "Papelaria".equals(filtro.getCategoria())
+                && filtro.getPrecoMin() == 1.5
+                && filtro.getPrecoMax() == 10.0
+                && "Can".equals(filtro.getNome())), anyInt());
+    }
+
+    @Test
+    public void testListarProdutosEmSmile() throws Exception {
+        List<ProdutoResponseDTO> produtos = Arrays.asList(
+                new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null),
+                new ProdutoResponseDTO(2L, "Produto 2", "Categoria 1", 200.0, 20, "Descrição"));
+        when(produtoService.percorrerProdutos(any(ProdutoFiltroDTO.class), anyInt())).thenReturn(produtos);
+
+        MvcResult resultado = mockMvc.perform(get("/produtos").accept(SerializacaoConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SerializacaoConfig.APPLICATION_SMILE_VALUE))
+                .andReturn();
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        List<ProdutoResponseDTO> lidos = smileMapper.readValue(resultado.getResponse().getContentAsByteArray(),
+                new TypeReference<List<ProdutoResponseDTO>>() {
+                });
+        assertEquals(2, lidos.size());
+        assertEquals("Produto 2", lidos.get(1).getNome());
+        assertEquals(200.0, lidos.get(1).getPreco());
+        assertEquals("Descrição", lidos.get(1).getDescricao());
+    }
+
+    @Test
+    public void testListarProdutosJsonPorPadrao() throws Exception {
+        when(produtoService.percorrerProdutos(any(ProdutoFiltroDTO.class), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/produtos"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testBuscarProdutos() throws Exception {
+        when(produtoService.buscarPorTexto("cafe tor", 5)).thenReturn(Arrays.asList(
+                new ProdutoResponseDTO(1L, "Café Torrado", "Bebidas", 25.0, 3, null)));
+
+        mockMvc.perform(get("/produtos/busca").param("q", "cafe tor").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].nome").value("Café Torrado"));
+
+        verify(produtoService).buscarPorTexto("cafe tor", 5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportarProdutos() throws Exception {
+        ProdutoController controller = new ProdutoController(produtoService, new ObjectMapper(), atualizacaoAssincrona);
+        MockMvc streamingMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        doAnswer(invocation -> {
+            Consumer<ProdutoResponseDTO> consumidor = invocation.getArgument(1);
+            consumidor.accept(new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null));
+            consumidor.accept(new ProdutoResponseDTO(2L, "Produto 2", "Categoria 2", 200.0, 20, null));
+            return null;
+        }).when(produtoService).percorrerProdutos(anyInt(), any(Consumer.class));
+
+        MvcResult resultado = streamingMockMvc.perform(get("/produtos/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        streamingMockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"nome\":\"Produto 1\",\"categoria\":\"Categoria 1\",\"preco\":100.0,\"quantidade\":10,\"descricao\":null}\n"
+                                + "{\"id\":2,\"nome\":\"Produto 2\",\"categoria\":\"Categoria 2\",\"preco\":200.0,\"quantidade\":20,\"descricao\":null}\n"));
+    }
+}
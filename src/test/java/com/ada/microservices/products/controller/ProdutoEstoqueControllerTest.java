@@ -0,0 +1,73 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.service.ProdutoEstoqueService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ProdutoEstoqueControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ProdutoEstoqueService produtoEstoqueService;
+
+    @InjectMocks
+    private ProdutoEstoqueController produtoEstoqueController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(produtoEstoqueController).build();
+    }
+
+    @Test
+    public void testAjustarEstoqueAplicado() throws Exception {
+        when(produtoEstoqueService.ajustarEstoque(1L, -2)).thenReturn(ProdutoEstoqueService.Resultado.APLICADO);
+
+        mockMvc.perform(post("/produtos/1/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delta\":-2}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testAjustarEstoqueAcumulado() throws Exception {
+        when(produtoEstoqueService.ajustarEstoque(1L, 5)).thenReturn(ProdutoEstoqueService.Resultado.ACUMULADO);
+
+        mockMvc.perform(post("/produtos/1/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delta\":5}"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    public void testAjustarEstoqueSemDelta() throws Exception {
+        mockMvc.perform(post("/produtos/1/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(produtoEstoqueService);
+    }
+
+    @Test
+    public void testAjustarEstoqueComDeltaZero() throws Exception {
+        mockMvc.perform(post("/produtos/1/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delta\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(produtoEstoqueService);
+    }
+}
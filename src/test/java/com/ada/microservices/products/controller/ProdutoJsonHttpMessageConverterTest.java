@@ -0,0 +1,110 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProdutoJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ProdutoJsonHttpMessageConverter conversor = new ProdutoJsonHttpMessageConverter();
+
+    @Test
+    void testProdutoIgualAoJackson() throws Exception {
+        assertIgualAoJackson(new ProdutoResponseDTO(1L, "Produto Teste", "Categoria Teste", 10.0, 5, null, 3L));
+        assertIgualAoJackson(new ProdutoResponseDTO(-42L, "", "", -0.5, -7, "", null));
+        assertIgualAoJackson(new ProdutoResponseDTO(null, null, null, null, null, null));
+        assertIgualAoJackson(new ProdutoResponseDTO(Long.MAX_VALUE, "x", "y", 0.0, Integer.MIN_VALUE, null));
+        assertIgualAoJackson(new ProdutoResponseDTO(Long.MIN_VALUE, "x", "y", 9999999.99, Integer.MAX_VALUE, null));
+    }
+
+    @Test
+    void testPrecosIguaisAoJackson() throws Exception {
+        double[] precos = {0.1, 0.29, 1.05, 19.9, 100.0, 1234567.5, 0.01, 0.005, 1e-4, 1e7, 1.5e10, 3.14159,
+                -0.0, -12.34, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double preco : precos) {
+            assertIgualAoJackson(new ProdutoResponseDTO(1L, "p", "c", preco, 1, null));
+        }
+    }
+
+    @Test
+    void testTextosComEscapesEUnicodeIguaisAoJackson() throws Exception {
+        assertIgualAoJackson(new ProdutoResponseDTO(1L, "Pão de Açúcar \"500g\" \\ / €", "Café ☕ 😀",
+                1.0, 1, "linha 1\nlinha 2\r\t\b\f\u0000\u001F\u007F fim"));
+    }
+
+    @Test
+    void testSurrogatesEscapadosComoNoJackson() throws Exception {
+        ProdutoResponseDTO produto = new ProdutoResponseDTO(1L, "😀", "isolados \uD83D e \uDE00", 1.0, 1, "fim 😀");
+
+        assertIgualAoJackson(produto);
+        assertEquals("{\"id\":1,\"nome\":\"\\uD83D\\uDE00\"", escrever(produto).substring(0, 29));
+    }
+
+    @Test
+    void testListaMaiorQueOBufferIgualAoJackson() throws Exception {
+        List<ProdutoResponseDTO> produtos = IntStream.range(0, 2000)
+                .mapToObj(i -> new ProdutoResponseDTO((long) i, "Produto " + i, "Categoria " + (i % 20), 10.0 + i,
+                        i % 100, i % 2 == 0 ? "Descrição do produto " + i : null))
+                .toList();
+
+        assertEquals(jackson(produtos), escrever(produtos));
+        assertEquals("[]", escrever(new ArrayList<ProdutoResponseDTO>()));
+    }
+
+    @Test
+    void testPaginaIgualAoJackson() throws Exception {
+        ProdutoResponseDTO produto = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null);
+
+        ProdutoPaginaDTO pagina = new ProdutoPaginaDTO(List.of(produto), 1L);
+        ProdutoPaginaDTO ultima = new ProdutoPaginaDTO(List.of(), null);
+
+        assertEquals(jackson(pagina), escrever(pagina));
+        assertEquals(jackson(ultima), escrever(ultima));
+    }
+
+    @Test
+    void testTiposSuportados() {
+        assertTrue(conversor.canWrite(ProdutoResponseDTO.class, ProdutoResponseDTO.class, MediaType.APPLICATION_JSON));
+        assertTrue(conversor.canWrite(ProdutoPaginaDTO.class, ProdutoPaginaDTO.class, null));
+        assertTrue(conversor.canWrite(new ParameterizedTypeReference<Iterable<ProdutoResponseDTO>>() {
+        }.getType(), Iterable.class, MediaType.APPLICATION_JSON));
+        assertTrue(conversor.canWrite(new ParameterizedTypeReference<List<ProdutoResponseDTO>>() {
+        }.getType(), ArrayList.class, MediaType.ALL));
+        assertFalse(conversor.canWrite(new ParameterizedTypeReference<List<Long>>() {
+        }.getType(), ArrayList.class, MediaType.APPLICATION_JSON));
+        assertFalse(conversor.canWrite(Instant.class, Instant.class, MediaType.APPLICATION_JSON));
+        assertFalse(conversor.canWrite(ProdutoResponseDTO.class, ProdutoResponseDTO.class,
+                MediaType.parseMediaType("application/x-jackson-smile")));
+        assertFalse(conversor.canRead(ProdutoResponseDTO.class, MediaType.APPLICATION_JSON));
+    }
+
+    private void assertIgualAoJackson(ProdutoResponseDTO produto) throws Exception {
+        assertEquals(jackson(produto), escrever(produto));
+    }
+
+    /**
+     * A saída do Jackson em bytes, como a do conversor padrão: o gerador UTF-8 escapa surrogates, que o gerador
+     * de {@code writeValueAsString} escreve como caracteres.
+     */
+    private String jackson(Object valor) throws Exception {
+        return new String(objectMapper.writeValueAsBytes(valor), StandardCharsets.UTF_8);
+    }
+
+    private String escrever(Object valor) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        conversor.escrever(valor, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO.Status;
+import com.ada.microservices.products.service.ProdutoLoteService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ProdutoLoteControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ProdutoLoteService produtoLoteService;
+
+    @InjectMocks
+    private ProdutoLoteController produtoLoteController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(produtoLoteController).build();
+    }
+
+    @Test
+    public void testCriarProdutos() throws Exception {
+        when(produtoLoteService.criarProdutos(anyList())).thenReturn(Arrays.asList(
+                new ProdutoLoteResultadoDTO(0, 1L, Status.CRIADO, null),
+                new ProdutoLoteResultadoDTO(1, null, Status.INVALIDO, "O nome do produto não pode estar vazio")));
+
+        mockMvc.perform(post("/produtos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nome\":\"Produto 1\",\"categoria\":\"Categoria\",\"preco\":10.0,\"quantidade\":1},"
+                        + "{\"nome\":\"\",\"categoria\":\"Categoria\",\"preco\":10.0,\"quantidade\":1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CRIADO"))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].mensagem").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value("INVALIDO"));
+
+        verify(produtoLoteService, times(1)).criarProdutos(anyList());
+    }
+
+    @Test
+    public void testAtualizarProdutos() throws Exception {
+        when(produtoLoteService.atualizarProdutos(anyList())).thenReturn(Arrays.asList(
+                new ProdutoLoteResultadoDTO(0, 1L, Status.ATUALIZADO, null)));
+
+        mockMvc.perform(put("/produtos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":1,\"nome\":\"Produto 1\",\"categoria\":\"Categoria\",\"preco\":10.0,\"quantidade\":1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("ATUALIZADO"));
+    }
+
+    @Test
+    public void testDeletarProdutos() throws Exception {
+        when(produtoLoteService.deletarProdutos(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(
+                new ProdutoLoteResultadoDTO(0, 1L, Status.REMOVIDO, null),
+                new ProdutoLoteResultadoDTO(1, 2L, Status.NAO_ENCONTRADO, null)));
+
+        mockMvc.perform(delete("/produtos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("REMOVIDO"))
+                .andExpect(jsonPath("$[1].status").value("NAO_ENCONTRADO"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+import com.ada.microservices.products.dto.ProdutoMudancasDTO;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.service.ProdutoEventoService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ProdutoMudancasControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ProdutoEventoService produtoEventoService;
+
+    @InjectMocks
+    private ProdutoMudancasController produtoMudancasController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(produtoMudancasController).build();
+    }
+
+    @Test
+    public void testListarMudancas() throws Exception {
+        ProdutoEventoDTO evento = new ProdutoEventoDTO(8L, 1L, ProdutoEvento.Tipo.ATUALIZADO, Instant.now(),
+                "{\"id\":1,\"nome\":\"Caneta\"}");
+        when(produtoEventoService.aguardarMudancas(7L, 50, Duration.ofSeconds(20)))
+                .thenReturn(CompletableFuture.completedFuture(new ProdutoMudancasDTO(List.of(evento), 8L)));
+
+        MvcResult resultado = mockMvc.perform(get("/produtos/changes?since=7&limit=50&wait=20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proximoCursor").value(8))
+                .andExpect(jsonPath("$.eventos[0].posicao").value(8))
+                .andExpect(jsonPath("$.eventos[0].tipo").value("ATUALIZADO"))
+                .andExpect(jsonPath("$.eventos[0].produto.nome").value("Caneta"));
+    }
+
+    @Test
+    public void testListarMudancasPadroes() throws Exception {
+        when(produtoEventoService.aguardarMudancas(0L, 100, Duration.ZERO))
+                .thenReturn(CompletableFuture.completedFuture(new ProdutoMudancasDTO(List.of(), 0L)));
+
+        MvcResult resultado = mockMvc.perform(get("/produtos/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos").isEmpty())
+                .andExpect(jsonPath("$.proximoCursor").value(0));
+    }
+
+    @Test
+    public void testListarMudancasEsperaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> produtoMudancasController.listarMudancas(0L, 100, 60));
+        verifyNoInteractions(produtoEventoService);
+    }
+}
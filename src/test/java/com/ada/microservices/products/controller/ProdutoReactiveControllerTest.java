@@ -0,0 +1,173 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.GlobalExceptionHandler;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.service.ProdutoReactiveService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProdutoReactiveControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ProdutoReactiveService produtoService;
+
+    @InjectMocks
+    private ProdutoReactiveController produtoController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(produtoController)
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testCriarProduto() {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Teste", "Categoria Teste", 10.0, 5, null, 0L);
+
+        when(produtoService.criarProduto(any(ProdutoRequestDTO.class))).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.post().uri("/produtos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nome\":\"Produto Teste\",\"categoria\":\"Categoria Teste\",\"preco\":10.0,\"quantidade\":5}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    public void testCriarProdutoInvalido() {
+        webTestClient.post().uri("/produtos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nome\":\"\",\"categoria\":\"Categoria Teste\",\"preco\":10.0,\"quantidade\":5}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("O nome do produto não pode estar vazio");
+        verifyNoInteractions(produtoService);
+    }
+
+    @Test
+    public void testObterProdutoNaoModificado() {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null, 3L);
+
+        when(produtoService.buscarProdutoPorId(1L)).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.get().uri("/produtos/1")
+                .header("If-None-Match", "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void testObterProdutoNotFound() {
+        when(produtoService.buscarProdutoPorId(1L)).thenReturn(Mono.error(new ResourceNotFoundException("Produto não encontrado com ID: 1")));
+
+        webTestClient.get().uri("/produtos/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testAtualizarProdutoComIfMatch() {
+        ProdutoResponseDTO responseDTO = new ProdutoResponseDTO(1L, "Produto Atualizado", "Categoria 1", 150.0, 5, null, 4L);
+
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), eq(3L))).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.put().uri("/produtos/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"4\"");
+    }
+
+    @Test
+    public void testAtualizarProdutoInexistenteComIfMatchQualquerVersao() {
+        when(produtoService.atualizarProduto(eq(1L), any(ProdutoRequestDTO.class), isNull()))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Produto não encontrado com ID: 1")));
+
+        webTestClient.put().uri("/produtos/1")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nome\":\"Produto Atualizado\",\"categoria\":\"Categoria 1\",\"preco\":150.0,\"quantidade\":5}")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    public void testDeletarProduto() {
+        when(produtoService.deletarProduto(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/produtos/1")
+                .exchange()
+                .expectStatus().isNoContent();
+        verify(produtoService, times(1)).deletarProduto(1L);
+    }
+
+    @Test
+    public void testAjustarEstoque() {
+        when(produtoService.ajustarEstoque(1L, -2)).thenReturn(Mono.empty());
+
+        webTestClient.post().uri("/produtos/1/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"delta\":-2}")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    public void testListarTodosProdutos() {
+        when(produtoService.percorrerProdutos(any(), anyInt())).thenReturn(Flux.just(
+                new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null),
+                new ProdutoResponseDTO(2L, "Produto 2", "Categoria 2", 200.0, 20, null)));
+
+        webTestClient.get().uri("/produtos?categoria=Papelaria")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo(2);
+        verify(produtoService).percorrerProdutos(argThat(filtro -> "Papelaria".equals(filtro.getCategoria())), anyInt());
+    }
+
+    @Test
+    public void testExportarProdutos() {
+        when(produtoService.percorrerProdutos(anyInt())).thenReturn(Flux.just(
+                new ProdutoResponseDTO(1L, "Produto 1", "Categoria 1", 100.0, 10, null),
+                new ProdutoResponseDTO(2L, "Produto 2", "Categoria 2", 200.0, 20, null)));
+
+        webTestClient.get().uri("/produtos/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProdutoResponseDTO.class)
+                .getResponseBody()
+                .map(ProdutoResponseDTO::getId)
+                .as(reactor.test.StepVerifier::create)
+                .expectNext(1L, 2L)
+                .verifyComplete();
+    }
+}
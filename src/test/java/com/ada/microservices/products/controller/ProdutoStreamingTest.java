@@ -0,0 +1,82 @@
+package com.ada.microservices.products.controller;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.service.ProdutoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * As listagens transmitidas leem os lotes direto nos DTOs e sem o EntityManager aberto durante a escrita da
+ * resposta (open-in-view), então nenhum produto lido fica no contexto de persistência até o fim da requisição.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:produto_streaming;DB_CLOSE_DELAY=-1",
+        "produtos.busca.reconstruir-na-inicializacao=false"
+})
+@AutoConfigureMockMvc
+public class ProdutoStreamingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            produtoService.criarProduto(new ProdutoRequestDTO("Produto " + i, "Categoria", 1.0 + i, i));
+        }
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void testOpenInViewDesligado() {
+        assertTrue(contexto.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+
+    @Test
+    void testExportacaoNdjsonNaoCarregaEntidades() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/produtos/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(corpo.lines().count() >= 3);
+        assertEquals(0, estatisticas.getEntityStatistics(Produto.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testListagemNaoCarregaEntidades() throws Exception {
+        mockMvc.perform(get("/produtos")).andExpect(status().isOk());
+
+        assertEquals(0, estatisticas.getEntityStatistics(Produto.class.getName()).getLoadCount());
+    }
+}
@@ -0,0 +1,26 @@
+package com.ada.microservices.products.dto;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProdutoFiltroDTOTest {
+
+    @Test
+    public void testTextosEmBrancoSaoAusentes() {
+        ProdutoFiltroDTO filtro = new ProdutoFiltroDTO("  ", null, null, " Caneta ");
+
+        assertNull(filtro.getCategoria());
+        assertEquals("Caneta", filtro.getNome());
+        assertFalse(filtro.isVazio());
+        assertTrue(new ProdutoFiltroDTO(" ", null, null, null).isVazio());
+    }
+
+    @Test
+    public void testValidarFaixaDePreco() {
+        assertDoesNotThrow(() -> new ProdutoFiltroDTO(null, 1.0, 1.0, null).validar());
+        assertDoesNotThrow(() -> new ProdutoFiltroDTO(null, 1.0, null, null).validar());
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> new ProdutoFiltroDTO(null, 2.0, 1.0, null).validar());
+        assertEquals("O preço mínimo não pode ser maior que o preço máximo", erro.getMessage());
+    }
+}
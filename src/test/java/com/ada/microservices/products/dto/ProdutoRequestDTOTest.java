@@ -1,6 +1,9 @@
 package com.ada.microservices.products.dto;
 
+import com.ada.microservices.products.model.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
@@ -72,4 +75,46 @@ public class ProdutoRequestDTOTest {
         assertFalse(violations.isEmpty());
         assertEquals("A quantidade do produto deve ser maior ou igual a zero", violations.iterator().next().getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDesserializacaoPeloConstrutor() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ProdutoRequestDTO produto = objectMapper.readValue(
+                "{\"nome\":\"Produto1\",\"categoria\":\"Categoria1\",\"preco\":10.5,\"quantidade\":5}",
+                ProdutoRequestDTO.class);
+
+        assertEquals("Produto1", produto.getNome());
+        assertEquals("Categoria1", produto.getCategoria());
+        assertEquals(10.5, produto.getPreco());
+        assertEquals(5, produto.getQuantidade());
+        assertNull(produto.getDescricao());
+        assertTrue(validator.validate(produto).isEmpty());
+    }
+
+    @Test
+    public void testDesserializacaoDaAtualizacaoEmLote() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ProdutoAtualizacaoLoteDTO produto = objectMapper.readValue(
+                "{\"id\":7,\"nome\":\"Produto1\",\"categoria\":\"Categoria1\",\"preco\":1.0,\"quantidade\":2,"
+                        + "\"descricao\":\"d\"}", ProdutoAtualizacaoLoteDTO.class);
+
+        assertEquals(7L, produto.getId());
+        assertEquals("Produto1", produto.getNome());
+        assertEquals("d", produto.getDescricao());
+    }
+
+    @Test
+    public void testParaEntidade() {
+        Produto entidade = new ProdutoRequestDTO("Produto1", "Categoria1", 10.0, 5, "Descrição").paraEntidade();
+
+        assertNull(entidade.getId());
+        assertEquals("Produto1", entidade.getNome());
+        assertEquals("Categoria1", entidade.getCategoria());
+        assertEquals(10.0, entidade.getPreco());
+        assertEquals(5, entidade.getQuantidade());
+        assertEquals("Descrição", entidade.getDescricao());
+        assertNull(entidade.getVersao());
+    }
+}
@@ -1,5 +1,8 @@
 package com.ada.microservices.products.dto;
+import com.ada.microservices.products.model.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ProdutoResponseDTOTest {
@@ -22,27 +25,34 @@ public class ProdutoResponseDTOTest {
     }
 
     @Test
-    public void testSetters() {
-        ProdutoResponseDTO produto = new ProdutoResponseDTO(1L, "Produto A", "Categoria A", 100.0, 10, null);
-
-        Long newId = 2L;
-        String newNome = "Produto B";
-        String newCategoria = "Categoria B";
-        Double newPreco = 200.0;
-        Integer newQuantidade = 20;
-
-        produto.setId(newId);
-        produto.setNome(newNome);
-        produto.setCategoria(newCategoria);
-        produto.setPreco(newPreco);
-        produto.setQuantidade(newQuantidade);
-
-        assertEquals(newId, produto.getId());
-        assertEquals(newNome, produto.getNome());
-        assertEquals(newCategoria, produto.getCategoria());
-        assertEquals(newPreco, produto.getPreco());
-        assertEquals(newQuantidade, produto.getQuantidade());
-        assertEquals(null, produto.getDescricao());
+    public void testDeEntidade() {
+        Produto entidade = Produto.builder().id(1L).nome("Produto A").categoria("Categoria A").preco(100.0)
+                .quantidade(10).descricao("Descrição A").versao(3L).build();
+
+        ProdutoResponseDTO produto = ProdutoResponseDTO.de(entidade);
+
+        assertEquals(1L, produto.getId());
+        assertEquals("Produto A", produto.getNome());
+        assertEquals("Categoria A", produto.getCategoria());
+        assertEquals(100.0, produto.getPreco());
+        assertEquals(10, produto.getQuantidade());
+        assertEquals("Descrição A", produto.getDescricao());
+        assertEquals(3L, produto.getVersao());
+    }
 
+    @Test
+    public void testJsonSemAVersao() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ProdutoResponseDTO produto = new ProdutoResponseDTO(1L, "Produto A", "Categoria A", 100.0, 10, null, 3L);
+
+        String json = objectMapper.writeValueAsString(produto);
+
+        assertEquals("{\"id\":1,\"nome\":\"Produto A\",\"categoria\":\"Categoria A\",\"preco\":100.0,"
+                + "\"quantidade\":10,\"descricao\":null}", json);
+        ProdutoResponseDTO lido = objectMapper.readValue(json, ProdutoResponseDTO.class);
+        assertEquals(1L, lido.getId());
+        assertEquals("Produto A", lido.getNome());
+        assertEquals(100.0, lido.getPreco());
+        assertNull(lido.getVersao());
     }
 }
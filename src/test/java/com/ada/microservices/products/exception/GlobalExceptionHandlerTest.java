@@ -3,8 +3,14 @@ package com.ada.microservices.products.exception;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.MethodParameter;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
 
 public class GlobalExceptionHandlerTest {
 
@@ -24,6 +30,47 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Resource not found", response.getBody());
     }
 
+    @Test
+    public void testHandleResourceGoneException() {
+        ResourceGoneException ex = new ResourceGoneException("Cursor expired");
+        ResponseEntity<Object> response = globalExceptionHandler.handleResourceGoneException(ex);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("Cursor expired", response.getBody());
+    }
+
+    @Test
+    public void testHandleIllegalArgumentException() {
+        IllegalArgumentException ex = new IllegalArgumentException("Invalid argument");
+        ResponseEntity<Object> response = globalExceptionHandler.handleIllegalArgumentException(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid argument", response.getBody());
+    }
+
+    @Test
+    public void testHandleMethodArgumentNotValidException() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "produtoRequestDTO");
+        bindingResult.addError(new FieldError("produtoRequestDTO", "nome", "O nome do produto não pode estar vazio"));
+        bindingResult.addError(new FieldError("produtoRequestDTO", "categoria", "A categoria do produto não pode estar vazia"));
+        MethodArgumentNotValidException ex = new MethodArgumentNotValidException(mock(MethodParameter.class), bindingResult);
+        ResponseEntity<Object> response = globalExceptionHandler.handleMethodArgumentNotValidException(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("A categoria do produto não pode estar vazia; O nome do produto não pode estar vazio", response.getBody());
+    }
+
+    @Test
+    public void testHandleWebExchangeBindException() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "produtoRequestDTO");
+        bindingResult.addError(new FieldError("produtoRequestDTO", "preco", "O preço do produto é obrigatório"));
+        WebExchangeBindException ex = new WebExchangeBindException(mock(MethodParameter.class), bindingResult);
+        ResponseEntity<Object> response = globalExceptionHandler.handleWebExchangeBindException(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("O preço do produto é obrigatório", response.getBody());
+    }
+
     @Test
     public void testHandleGenericException() {
         Exception ex = new Exception("Internal server error");
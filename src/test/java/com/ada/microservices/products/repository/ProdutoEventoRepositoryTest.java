@@ -0,0 +1,60 @@
+package com.ada.microservices.products.repository;
+
+import com.ada.microservices.products.model.ProdutoEvento;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProdutoEventoRepositoryTest {
+
+    @Autowired
+    private ProdutoEventoRepository eventoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testRemoverPublicadosMantemAUltimaPosicao() {
+        Instant antigo = Instant.now().minus(Duration.ofDays(30));
+        eventoRepository.saveAll(List.of(evento(1L, antigo), evento(2L, antigo), evento(3L, antigo)));
+        entityManager.flush();
+
+        assertEquals(2, eventoRepository.removerPublicadosAntesDe(Instant.now()));
+        entityManager.clear();
+
+        // a numeração continua depois da última posição publicada, mesmo com todos os eventos fora da retenção
+        assertEquals(3L, eventoRepository.ultimaPosicao());
+        assertEquals(List.of(3L), eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(0L, Limit.of(10)).stream()
+                .map(ProdutoEvento::getPosicao)
+                .toList());
+    }
+
+    @Test
+    void testRemoverPublicadosIgnoraPendentes() {
+        Instant antigo = Instant.now().minus(Duration.ofDays(30));
+        eventoRepository.saveAll(List.of(evento(1L, antigo), evento(null, antigo)));
+        entityManager.flush();
+
+        assertEquals(0, eventoRepository.removerPublicadosAntesDe(Instant.now()));
+        entityManager.clear();
+
+        assertEquals(2, eventoRepository.count());
+    }
+
+    private static ProdutoEvento evento(Long posicao, Instant ocorridoEm) {
+        return ProdutoEvento.builder()
+                .produtoId(1L)
+                .tipo(ProdutoEvento.Tipo.ATUALIZADO)
+                .ocorridoEm(ocorridoEm)
+                .posicao(posicao)
+                .publicadoEm(posicao == null ? null : ocorridoEm)
+                .build();
+    }
+}
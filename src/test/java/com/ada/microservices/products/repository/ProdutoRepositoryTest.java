@@ -0,0 +1,149 @@
+package com.ada.microservices.products.repository;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProdutoRepositoryTest {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<Produto> produtos;
+
+    @BeforeEach
+    void setUp() {
+        produtos = produtoRepository.saveAll(Arrays.asList(
+                Produto.builder().nome("Caneta").categoria("Papelaria").preco(5.0).quantidade(10).descricao("Azul").build(),
+                Produto.builder().nome("Caderno").categoria("Papelaria").preco(25.0).quantidade(3).build()
+        ));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testBuscarDTOPorIdNaoCarregaEntidade() {
+        Produto caneta = produtos.get(0);
+
+        ProdutoResponseDTO dto = produtoRepository.buscarDTOPorId(caneta.getId()).orElseThrow();
+
+        assertEquals(caneta.getId(), dto.getId());
+        assertEquals("Caneta", dto.getNome());
+        assertEquals("Papelaria", dto.getCategoria());
+        assertEquals(5.0, dto.getPreco());
+        assertEquals(10, dto.getQuantidade());
+        assertEquals("Azul", dto.getDescricao());
+        assertEquals(caneta.getVersao(), dto.getVersao());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testBuscarDTOPorIdInexistente() {
+        assertTrue(produtoRepository.buscarDTOPorId(-1L).isEmpty());
+    }
+
+    @Test
+    void testListarDTOsAposIdOrdenadosPorId() {
+        List<ProdutoResponseDTO> dtos = produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(10));
+
+        assertEquals(List.of(produtos.get(0).getId(), produtos.get(1).getId()), dtos.stream().map(ProdutoResponseDTO::getId).toList());
+        assertEquals(List.of(produtos.get(1).getId()),
+                produtoRepository.listarDTOsAposId(produtos.get(0).getId(), Limit.of(10)).stream().map(ProdutoResponseDTO::getId).toList());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testListarDTOsAlteradosDesde() {
+        Produto caneta = produtos.get(0);
+        Instant criacao = produtoRepository.findById(caneta.getId()).orElseThrow().getAtualizadoEm();
+        entityManager.clear();
+
+        assertNotNull(criacao);
+        assertEquals(2, produtoRepository.listarDTOsAlteradosDesde(criacao.minusSeconds(60)).size());
+        assertTrue(produtoRepository.listarDTOsAlteradosDesde(criacao.plusSeconds(60)).isEmpty());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testAtualizacaoEmUmComandoGravaInstanteDaAlteracao() {
+        Produto caneta = produtos.get(0);
+
+        produtoRepository.ajustarEstoque(caneta.getId(), 1);
+        entityManager.clear();
+
+        Produto ajustado = produtoRepository.findById(caneta.getId()).orElseThrow();
+        assertEquals(11, ajustado.getQuantidade());
+        assertNotNull(ajustado.getAtualizadoEm());
+        assertNotNull(ajustado.getCriadoEm());
+    }
+
+    @Test
+    void testAtualizarPorIdSemDescricaoApagaADescricao() {
+        Produto caneta = produtos.get(0);
+
+        assertEquals(1, produtoRepository.atualizarPorId(caneta.getId(), "Caneta", "Papelaria", 6.0, 10, null));
+        entityManager.clear();
+
+        assertNull(produtoRepository.buscarDTOPorId(caneta.getId()).orElseThrow().getDescricao());
+    }
+
+    @Test
+    void testRegistrarRemocoesApenasDosExistentes() {
+        Long caderno = produtos.get(1).getId();
+        Instant antes = Instant.now().minusSeconds(1);
+
+        assertEquals(1, produtoRepository.registrarRemocoes(List.of(caderno, -1L)));
+        produtoRepository.deletarPorId(caderno);
+
+        assertEquals(List.of(caderno), produtoRepository.listarIdsRemovidosDesde(antes));
+        assertTrue(produtoRepository.listarIdsRemovidosDesde(Instant.now().plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void testListarAlteracoesAposPorKeyset() {
+        Instant antes = Instant.now().minusSeconds(60);
+
+        List<ProdutoRepository.PosicaoAlteracao> primeira = produtoRepository.listarAlteracoesApos(antes, Long.MIN_VALUE, Limit.of(1));
+        ProdutoRepository.PosicaoAlteracao ultima = primeira.get(0);
+        List<ProdutoRepository.PosicaoAlteracao> segunda =
+                produtoRepository.listarAlteracoesApos(ultima.getAtualizadoEm(), ultima.getId(), Limit.of(10));
+
+        assertEquals(1, primeira.size());
+        assertEquals(1, segunda.size());
+        assertNotEquals(ultima.getId(), segunda.get(0).getId());
+        assertFalse(segunda.get(0).getAtualizadoEm().isBefore(ultima.getAtualizadoEm()));
+    }
+
+    @Test
+    void testRemoverRemocoesAntesDaRetencao() {
+        Long caderno = produtos.get(1).getId();
+        produtoRepository.registrarRemocoes(List.of(caderno));
+        produtoRepository.deletarPorId(caderno);
+
+        assertEquals(0, produtoRepository.removerRemocoesAntesDe(Instant.now().minusSeconds(60)));
+        assertEquals(1, produtoRepository.removerRemocoesAntesDe(Instant.now().plusSeconds(60)));
+        assertTrue(produtoRepository.listarRemocoesApos(Instant.now().minusSeconds(60), Long.MIN_VALUE, Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void testIdentidadeDoBancoGravadaPelaMigracao() {
+        String identidade = produtoRepository.identidadeDoBanco();
+
+        assertNotNull(identidade);
+        assertEquals(identidade, produtoRepository.identidadeDoBanco());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ada.microservices.products.repository;
+
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.model.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class ProdutoSpecificationsTest {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @BeforeEach
+    void setUp() {
+        produtoRepository.saveAll(Arrays.asList(
+                produto("Caneta Azul", "Papelaria", 5.0),
+                produto("Caneta Vermelha", "Papelaria", 7.5),
+                produto("Caderno", "Papelaria", 25.0),
+                produto("Cabo USB", "Informática", 30.0),
+                produto("Desconto_100%", "Promoções", 1.0)
+        ));
+    }
+
+    private static Produto produto(String nome, String categoria, double preco) {
+        return Produto.builder().nome(nome).categoria(categoria).preco(preco).quantidade(1).build();
+    }
+
+    private List<String> nomes(ProdutoFiltroDTO filtro) {
+        return produtoRepository.findAll(ProdutoSpecifications.doFiltro(filtro), Sort.by("id")).stream()
+                .map(Produto::getNome)
+                .toList();
+    }
+
+    @Test
+    void testFiltroPorCategoriaEFaixaDePreco() {
+        assertEquals(Arrays.asList("Caneta Azul", "Caneta Vermelha"), nomes(new ProdutoFiltroDTO("Papelaria", 5.0, 10.0, null)));
+    }
+
+    @Test
+    void testFiltroPorPrefixoDoNome() {
+        assertEquals(Arrays.asList("Caneta Azul", "Caneta Vermelha", "Caderno", "Cabo USB"), nomes(new ProdutoFiltroDTO(null, null, null, "Ca")));
+        assertEquals(Arrays.asList("Caneta Azul", "Caneta Vermelha"), nomes(new ProdutoFiltroDTO(null, null, null, "Caneta")));
+    }
+
+    @Test
+    void testPrefixoComCaracteresCuringa() {
+        assertEquals(Arrays.asList("Desconto_100%"), nomes(new ProdutoFiltroDTO(null, null, null, "Desconto_1")));
+        assertEquals(List.of(), nomes(new ProdutoFiltroDTO(null, null, null, "%")));
+    }
+
+    @Test
+    void testFiltroComCursor() {
+        Long primeiroId = produtoRepository.findAll(Sort.by("id")).get(0).getId();
+
+        List<Produto> produtos = produtoRepository.findBy(
+                ProdutoSpecifications.doFiltro(new ProdutoFiltroDTO("Papelaria", null, null, null))
+                        .and(ProdutoSpecifications.comIdMaiorQue(primeiroId)),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(1).all());
+
+        assertEquals(1, produtos.size());
+        assertEquals("Caneta Vermelha", produtos.get(0).getNome());
+    }
+
+    @Test
+    void testPrefixoLike() {
+        assertEquals("Ca%", ProdutoSpecifications.prefixoLike("Ca"));
+        assertEquals("a\\_b\\%c\\\\%", ProdutoSpecifications.prefixoLike("a_b%c\\"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A gravação das atualizações assíncronas contra o banco, com escritas síncronas entre a aceitação e a gravação.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:atualizacao_assincrona;DB_CLOSE_DELAY=-1",
+        "produtos.busca.reconstruir-na-inicializacao=false"
+})
+public class ProdutoAtualizacaoAssincronaConcorrenciaTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProdutoIndiceBusca indiceBusca;
+
+    @Autowired
+    private ProdutoEscritasRecentes escritasRecentes;
+
+    @Autowired
+    private ProdutoEventoService eventos;
+
+    @TempDir
+    Path diretorio;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        id = produtoService.criarProduto(requisicao(10.0)).getId();
+    }
+
+    @Test
+    void testPutSincronoEntreAAceitacaoEAGravacaoPrevalece() {
+        ProdutoAtualizacaoAssincrona service = criar();
+        service.aceitar(id, requisicao(20.0));
+
+        produtoService.atualizarProduto(id, requisicao(30.0), null);
+        service.gravarPendentes();
+
+        assertEquals(0, service.pendentes());
+        assertEquals(30.0, produtoRepository.buscarDTOPorId(id).orElseThrow().getPreco());
+        service.encerrar();
+    }
+
+    @Test
+    void testAtualizacaoDoMesmoProdutoDepoisDeUmaGravacaoEAplicada() {
+        ProdutoAtualizacaoAssincrona service = criar();
+        service.aceitar(id, requisicao(20.0));
+        service.gravarPendentes();
+
+        service.aceitar(id, requisicao(21.0));
+        service.gravarPendentes();
+
+        assertEquals(21.0, produtoRepository.buscarDTOPorId(id).orElseThrow().getPreco());
+        service.encerrar();
+    }
+
+    @Test
+    void testReaplicacaoAposReinicioNaoSobrescreveEscritasPosteriores() throws Exception {
+        ProdutoAtualizacaoAssincrona anterior = criar();
+        anterior.aceitar(id, requisicao(20.0));
+        // o diário como estava antes da gravação, como se a queda tivesse impedido apagá-lo
+        Path copia = Files.createDirectory(diretorio.resolve("copia"));
+        for (Path segmento : segmentos(diretorio)) {
+            Files.copy(segmento, copia.resolve(segmento.getFileName()));
+        }
+        anterior.gravarPendentes();
+        assertEquals(20.0, produtoRepository.buscarDTOPorId(id).orElseThrow().getPreco());
+        produtoService.atualizarProduto(id, requisicao(30.0), null);
+        anterior.encerrar();
+        for (Path segmento : segmentos(copia)) {
+            Files.copy(segmento, diretorio.resolve(segmento.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        ProdutoAtualizacaoAssincrona reiniciado = criar();
+        assertEquals(1, reiniciado.pendentes());
+        reiniciado.gravarPendentes();
+
+        assertEquals(0, reiniciado.pendentes());
+        assertEquals(30.0, produtoRepository.buscarDTOPorId(id).orElseThrow().getPreco());
+        reiniciado.encerrar();
+    }
+
+    private ProdutoAtualizacaoAssincrona criar() {
+        return new ProdutoAtualizacaoAssincrona(produtoRepository, transactionManager, cacheManager, indiceBusca,
+                escritasRecentes, eventos, true, 10, 500, 100, diretorio);
+    }
+
+    private static List<Path> segmentos(Path diretorio) throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static ProdutoRequestDTO requisicao(double preco) {
+        return new ProdutoRequestDTO("Produto", "Categoria", preco, 1);
+    }
+}
@@ -0,0 +1,272 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.ServiceUnavailableException;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoAtualizacaoAssincronaTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ProdutoIndiceBusca indiceBusca;
+
+    @Mock
+    private ProdutoEscritasRecentes escritasRecentes;
+
+    @Mock
+    private ProdutoEventoService eventos;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testAgrupaAtualizacoesDoMesmoProduto() throws Exception {
+        ProdutoAtualizacaoAssincrona service = criar(10, 500);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE)).thenReturn(cache);
+
+        service.aceitar(1L, requisicao(10.0));
+        service.aceitar(2L, requisicao(20.0));
+        service.aceitar(1L, requisicao(11.0));
+        assertEquals(2, service.pendentes());
+
+        service.gravarPendentes();
+
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(1L), any(), eq("Produto"), eq("Categoria"), eq(11.0), eq(1), isNull());
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(2L), any(), eq("Produto"), eq("Categoria"), eq(20.0), eq(1), isNull());
+        verify(produtoRepository, times(2)).atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any());
+        verify(eventos).registrar(eq(ProdutoEvento.Tipo.ATUALIZADO), eq(1L), any(ProdutoResponseDTO.class));
+        verify(cache).evict(1L);
+        verify(cache).evict(2L);
+        verify(indiceBusca).indexar(1L, "Produto", null);
+        assertEquals(0, service.pendentes());
+        // só resta o segmento aberto depois da gravação, vazio
+        assertEquals(List.of(0L), tamanhosDosSegmentos());
+    }
+
+    @Test
+    void testGravaEmTransacoesPorBloco() {
+        ProdutoAtualizacaoAssincrona service = criar(10, 2);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        for (long id = 1; id <= 5; id++) {
+            service.aceitar(id, requisicao(id));
+        }
+        service.gravarPendentes();
+
+        verify(transactionManager, times(3)).commit(any());
+        verify(produtoRepository, times(5)).atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testFilaCheiaRecusaNovosProdutos() {
+        ProdutoAtualizacaoAssincrona service = criar(2, 500);
+        service.aceitar(1L, requisicao(1.0));
+        service.aceitar(2L, requisicao(2.0));
+
+        assertThrows(ServiceUnavailableException.class, () -> service.aceitar(3L, requisicao(3.0)));
+        // um produto que já está na fila continua aceito
+        service.aceitar(2L, requisicao(2.5));
+
+        assertEquals(2, service.pendentes());
+    }
+
+    @Test
+    void testRecuperaDoDiarioAposQueda() throws Exception {
+        ProdutoAtualizacaoAssincrona anterior = criar(10, 500);
+        anterior.aceitar(1L, requisicao(10.0));
+        anterior.aceitar(2L, new ProdutoRequestDTO("Café ☕", "Bebidas", 20.0, 3, "Torra média"));
+        anterior.aceitar(1L, requisicao(12.0));
+        // registro interrompido pela queda no final do segmento
+        try (Stream<Path> segmentos = Files.list(diretorio)) {
+            Files.write(segmentos.findFirst().orElseThrow(), new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        }
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        ProdutoAtualizacaoAssincrona recuperado = criar(10, 500);
+        assertEquals(2, recuperado.pendentes());
+        recuperado.gravarPendentes();
+
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(1L), any(), eq("Produto"), eq("Categoria"), eq(12.0), eq(1), isNull());
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(2L), any(), eq("Café ☕"), eq("Bebidas"), eq(20.0), eq(3), eq("Torra média"));
+        verify(produtoRepository, times(2)).atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any());
+        assertEquals(List.of(0L), tamanhosDosSegmentos());
+    }
+
+    @Test
+    void testRecuperaOInstanteDaAceitacao() {
+        Instant antes = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        criar(10, 500).aceitar(1L, requisicao(10.0));
+        Instant depois = Instant.now();
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        criar(10, 500).gravarPendentes();
+
+        // a reaplicação usa o instante da aceitação original, e não o da recuperação
+        ArgumentCaptor<Instant> aceitoEm = ArgumentCaptor.forClass(Instant.class);
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(1L), aceitoEm.capture(), any(), any(), any(), any(), any());
+        assertFalse(aceitoEm.getValue().isBefore(antes));
+        assertFalse(aceitoEm.getValue().isAfter(depois));
+    }
+
+    @Test
+    void testAtualizacaoDeProdutoEmGravacaoEsperaOBloco() throws Exception {
+        ProdutoAtualizacaoAssincrona service = criar(10, 500);
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocacao -> {
+                    gravando.countDown();
+                    liberar.await();
+                    return 1;
+                })
+                .thenReturn(1);
+        service.aceitar(1L, requisicao(10.0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> gravacao = executor.submit(service::gravarPendentes);
+            assertTrue(gravando.await(5, TimeUnit.SECONDS));
+            Future<?> aceitacao = executor.submit(() -> service.aceitar(1L, requisicao(11.0)));
+            // outro produto não espera
+            service.aceitar(2L, requisicao(20.0));
+            assertThrows(TimeoutException.class, () -> aceitacao.get(200, TimeUnit.MILLISECONDS));
+
+            liberar.countDown();
+            gravacao.get(5, TimeUnit.SECONDS);
+            aceitacao.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        service.gravarPendentes();
+
+        // a segunda atualização foi aceita depois da gravação da primeira, e não é descartada por ela
+        ArgumentCaptor<Instant> aceitoEm = ArgumentCaptor.forClass(Instant.class);
+        verify(produtoRepository, times(2)).atualizarPorIdSeInalteradoDesde(eq(1L), aceitoEm.capture(), any(), any(),
+                any(), any(), any());
+        assertTrue(aceitoEm.getAllValues().get(1).isAfter(aceitoEm.getAllValues().get(0)));
+    }
+
+    @Test
+    void testFalhaNaGravacaoMantemAtualizacoesEDiario() throws Exception {
+        ProdutoAtualizacaoAssincrona service = criar(10, 500);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+        service.aceitar(1L, requisicao(10.0));
+        service.aceitar(2L, requisicao(20.0));
+
+        service.gravarPendentes();
+        service.aceitar(2L, requisicao(21.0));
+
+        assertEquals(2, service.pendentes());
+        verify(transactionManager).rollback(any());
+        // uma queda agora ainda recupera tudo o que foi confirmado, com a atualização mais nova de cada produto
+        ProdutoAtualizacaoAssincrona recuperado = criar(10, 500);
+        assertEquals(2, recuperado.pendentes());
+
+        reset(produtoRepository);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        service.gravarPendentes();
+
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(1L), any(), eq("Produto"), eq("Categoria"), eq(10.0), eq(1), isNull());
+        verify(produtoRepository).atualizarPorIdSeInalteradoDesde(eq(2L), any(), eq("Produto"), eq("Categoria"), eq(21.0), eq(1), isNull());
+        assertEquals(List.of(0L), tamanhosDosSegmentos());
+    }
+
+    @Test
+    void testProdutoInexistenteOuAlteradoDepoisDaAceitacaoEDescartado() throws Exception {
+        ProdutoAtualizacaoAssincrona service = criar(10, 500);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        service.aceitar(1L, requisicao(10.0));
+        service.gravarPendentes();
+
+        assertEquals(0, service.pendentes());
+        verifyNoInteractions(eventos, indiceBusca);
+        assertEquals(List.of(0L), tamanhosDosSegmentos());
+    }
+
+    @Test
+    void testGravaPeriodicamenteNaThreadPropria() {
+        ProdutoAtualizacaoAssincrona service = criar(10, 500);
+        when(produtoRepository.atualizarPorIdSeInalteradoDesde(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        service.iniciar();
+
+        service.aceitar(1L, requisicao(10.0));
+
+        verify(produtoRepository, timeout(5000)).atualizarPorIdSeInalteradoDesde(eq(1L), any(), any(), any(), any(), any(), any());
+        service.encerrar();
+        assertEquals(0, service.pendentes());
+    }
+
+    @Test
+    void testDesabilitadaNaoCriaODiario() {
+        ProdutoAtualizacaoAssincrona service = new ProdutoAtualizacaoAssincrona(produtoRepository, transactionManager,
+                cacheManager, indiceBusca, escritasRecentes, eventos, false, 10, 500, 100, diretorio.resolve("diario"));
+
+        assertFalse(service.isHabilitada());
+        assertThrows(IllegalStateException.class, () -> service.aceitar(1L, requisicao(1.0)));
+        service.gravarPendentes();
+
+        assertFalse(Files.exists(diretorio.resolve("diario")));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    private ProdutoAtualizacaoAssincrona criar(int capacidade, int tamanhoLote) {
+        return new ProdutoAtualizacaoAssincrona(produtoRepository, transactionManager, cacheManager, indiceBusca,
+                escritasRecentes, eventos, true, capacidade, tamanhoLote, 100, diretorio);
+    }
+
+    private List<Long> tamanhosDosSegmentos() throws Exception {
+        try (Stream<Path> segmentos = Files.list(diretorio)) {
+            return segmentos.map(segmento -> segmento.toFile().length()).toList();
+        }
+    }
+
+    private static ProdutoRequestDTO requisicao(double preco) {
+        return new ProdutoRequestDTO("Produto", "Categoria", preco, 1);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.products.exception.InsufficientStockException;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoEstoqueServiceTest {
+
+    @Mock
+    private ProdutoService produtoService;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ProdutoEventoService eventos;
+
+    @Test
+    void testAjustarEstoqueDireto() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, false);
+
+        assertEquals(ProdutoEstoqueService.Resultado.APLICADO, service.ajustarEstoque(1L, -2));
+
+        verify(produtoService, times(1)).ajustarEstoque(1L, -2);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumulado() throws InterruptedException {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+        when(produtoRepository.ajustarEstoque(1L, 1000)).thenReturn(1);
+        when(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE)).thenReturn(cache);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> service.ajustarEstoque(1L, 1));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        service.gravarAjustesPendentes();
+        service.gravarAjustesPendentes();
+
+        verify(produtoRepository, times(1)).ajustarEstoque(1L, 1000);
+        verify(cache, times(1)).evict(1L);
+        verify(eventos, times(1)).registrarAtualizacao(1L);
+        verifyNoInteractions(produtoService);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoFalhaDevolveAjustes() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+        when(produtoRepository.ajustarEstoque(1L, 5))
+                .thenThrow(new IllegalStateException("falha no banco"))
+                .thenReturn(1);
+
+        service.ajustarEstoque(1L, 2);
+        service.ajustarEstoque(1L, 3);
+        service.gravarAjustesPendentes();
+        service.gravarAjustesPendentes();
+
+        verify(produtoRepository, times(2)).ajustarEstoque(1L, 5);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoProdutoInexistente() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.ajustarEstoque(1L, 5));
+        service.gravarAjustesPendentes();
+
+        verify(produtoRepository, never()).ajustarEstoque(anyLong(), anyInt());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoAplicaSaidasNaHora() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        doThrow(new InsufficientStockException("Estoque insuficiente")).when(produtoService).ajustarEstoque(1L, -6);
+
+        assertEquals(ProdutoEstoqueService.Resultado.APLICADO, service.ajustarEstoque(1L, -2));
+        // a recusa chega ao cliente, em vez de ser descartada depois da confirmação
+        assertThrows(InsufficientStockException.class, () -> service.ajustarEstoque(1L, -6));
+
+        verify(produtoService).ajustarEstoque(1L, -2);
+        verifyNoInteractions(produtoRepository, transactionManager);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoSaidaRecusadaGravaEntradasPendentes() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+        when(produtoRepository.ajustarEstoque(1L, 5)).thenReturn(1);
+        doThrow(new InsufficientStockException("Estoque insuficiente")).doNothing().when(produtoService).ajustarEstoque(1L, -4);
+
+        service.ajustarEstoque(1L, 5);
+        assertEquals(ProdutoEstoqueService.Resultado.APLICADO, service.ajustarEstoque(1L, -4));
+
+        verify(produtoRepository).ajustarEstoque(1L, 5);
+        verify(produtoService, times(2)).ajustarEstoque(1L, -4);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoRemoveContadoresSemEntradas() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+        when(produtoRepository.ajustarEstoque(1L, 2)).thenReturn(1);
+
+        service.ajustarEstoque(1L, 2);
+        service.gravarAjustesPendentes();
+        service.ajustarEstoque(1L, 2);
+        verify(produtoRepository, times(1)).existsById(1L);
+
+        service.gravarAjustesPendentes();
+        // sem entradas durante um intervalo inteiro, o contador sai do mapa
+        service.gravarAjustesPendentes();
+        service.ajustarEstoque(1L, 2);
+
+        verify(produtoRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void testAjustarEstoqueAcumuladoProdutoRemovidoAntesDaGravacao() {
+        ProdutoEstoqueService service = new ProdutoEstoqueService(produtoService, produtoRepository, transactionManager, cacheManager, eventos, true);
+        when(produtoRepository.existsById(1L)).thenReturn(true, false);
+        when(produtoRepository.ajustarEstoque(1L, 2)).thenReturn(0);
+
+        service.ajustarEstoque(1L, 2);
+        service.gravarAjustesPendentes();
+
+        verifyNoInteractions(eventos);
+        // o produto deixou de ser conhecido: o próximo ajuste consulta a existência de novo
+        assertThrows(ResourceNotFoundException.class, () -> service.ajustarEstoque(1L, 1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoEventoDTO;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoEventoRepository;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoEventoRelayTest {
+
+    @Mock
+    private ProdutoEventoRepository eventoRepository;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MemoriaProdutoEventoSink sink;
+
+    private ProdutoEventoRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        sink = new MemoriaProdutoEventoSink(100);
+        ProdutoEventoService eventoService = new ProdutoEventoService(eventoRepository, produtoRepository, new ObjectMapper());
+        relay = new ProdutoEventoRelay(eventoRepository, eventoService, sink, transactionManager, 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void testPublicarPendentesAtribuiPosicoesConsecutivas() {
+        ProdutoEvento primeiro = pendente(100L);
+        ProdutoEvento segundo = pendente(101L);
+        ProdutoEvento terceiro = pendente(102L);
+        when(eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(2)))
+                .thenReturn(List.of(primeiro, segundo))
+                .thenReturn(List.of(terceiro));
+        when(eventoRepository.ultimaPosicao()).thenReturn(7L).thenReturn(9L);
+
+        relay.publicarPendentes();
+
+        assertEquals(8L, primeiro.getPosicao());
+        assertEquals(9L, segundo.getPosicao());
+        assertEquals(10L, terceiro.getPosicao());
+        assertNotNull(terceiro.getPublicadoEm());
+        assertEquals(List.of(8L, 9L, 10L), sink.getEventos().stream().map(ProdutoEventoDTO::getPosicao).toList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testFalhaDoSinkDesfazPublicacao() {
+        ProdutoEventoSink sinkComFalha = mock(ProdutoEventoSink.class);
+        doThrow(new IllegalStateException("broker indisponível")).when(sinkComFalha).publicar(anyList());
+        relay = new ProdutoEventoRelay(eventoRepository, new ProdutoEventoService(eventoRepository, produtoRepository, new ObjectMapper()),
+                sinkComFalha, transactionManager, 2, Duration.ofDays(7));
+        when(eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(2))).thenReturn(List.of(pendente(100L)));
+
+        relay.publicarPendentes();
+
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testPublicarSemPendentes() {
+        when(eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(2))).thenReturn(List.of());
+
+        relay.publicarPendentes();
+
+        verify(eventoRepository, never()).ultimaPosicao();
+        assertTrue(sink.getEventos().isEmpty());
+    }
+
+    private static ProdutoEvento pendente(Long id) {
+        return ProdutoEvento.builder()
+                .id(id)
+                .produtoId(1L)
+                .tipo(ProdutoEvento.Tipo.CRIADO)
+                .dados("{\"id\":1}")
+                .ocorridoEm(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoMudancasDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.exception.ResourceGoneException;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoEventoRepository;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoEventoServiceTest {
+
+    @Mock
+    private ProdutoEventoRepository eventoRepository;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    private ProdutoEventoService eventoService;
+
+    @BeforeEach
+    void setUp() {
+        eventoService = new ProdutoEventoService(eventoRepository, produtoRepository, new ObjectMapper());
+    }
+
+    @Test
+    void testRegistrarGravaProdutoEmJson() {
+        eventoService.registrar(ProdutoEvento.Tipo.CRIADO, 1L, new ProdutoResponseDTO(1L, "Caneta", "Papelaria", 2.5, 10, null));
+
+        ArgumentCaptor<ProdutoEvento> evento = ArgumentCaptor.forClass(ProdutoEvento.class);
+        verify(eventoRepository).save(evento.capture());
+        assertEquals(ProdutoEvento.Tipo.CRIADO, evento.getValue().getTipo());
+        assertEquals(1L, evento.getValue().getProdutoId());
+        assertTrue(evento.getValue().getDados().contains("\"nome\":\"Caneta\""));
+        assertNull(evento.getValue().getPosicao());
+    }
+
+    @Test
+    void testRegistrarRemocaoSemDados() {
+        eventoService.registrar(ProdutoEvento.Tipo.REMOVIDO, 1L, null);
+
+        ArgumentCaptor<ProdutoEvento> evento = ArgumentCaptor.forClass(ProdutoEvento.class);
+        verify(eventoRepository).save(evento.capture());
+        assertNull(evento.getValue().getDados());
+    }
+
+    @Test
+    void testListarMudancasAvancaCursor() {
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(2)))
+                .thenReturn(List.of(evento(6L), evento(7L)));
+
+        ProdutoMudancasDTO mudancas = eventoService.listarMudancas(5L, 2);
+
+        assertEquals(2, mudancas.getEventos().size());
+        assertEquals(7L, mudancas.getProximoCursor());
+    }
+
+    @Test
+    void testListarMudancasSemEventosMantemCursor() {
+        ProdutoMudancasDTO mudancas = eventoService.listarMudancas(5L, 2);
+
+        assertTrue(mudancas.getEventos().isEmpty());
+        assertEquals(5L, mudancas.getProximoCursor());
+    }
+
+    @Test
+    void testListarMudancasComCursorAnteriorARetencao() {
+        // as posições 6 e 7 foram removidas pela retenção
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(2)))
+                .thenReturn(List.of(evento(8L), evento(9L)));
+
+        ResourceGoneException ex = assertThrows(ResourceGoneException.class, () -> eventoService.listarMudancas(5L, 2));
+        assertTrue(ex.getMessage().contains("since=7"));
+    }
+
+    @Test
+    void testAguardarMudancasComCursorAnteriorARetencao() {
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(10)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(evento(8L)));
+        CompletableFuture<ProdutoMudancasDTO> resultado = eventoService.aguardarMudancas(5L, 10, Duration.ofSeconds(20));
+
+        eventoService.atenderEsperas();
+
+        CompletionException ex = assertThrows(CompletionException.class, resultado::join);
+        assertInstanceOf(ResourceGoneException.class, ex.getCause());
+    }
+
+    @Test
+    void testListarMudancasLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> eventoService.listarMudancas(0L, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventoService.listarMudancas(0L, ProdutoEventoService.LIMITE_MAXIMO_MUDANCAS + 1));
+    }
+
+    @Test
+    void testAguardarMudancasCompletaQuandoEventoEPublicado() {
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(10)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(evento(6L)));
+
+        CompletableFuture<ProdutoMudancasDTO> resultado = eventoService.aguardarMudancas(5L, 10, Duration.ofSeconds(20));
+        assertFalse(resultado.isDone());
+
+        eventoService.atenderEsperas();
+
+        assertTrue(resultado.isDone());
+        assertEquals(6L, resultado.join().getProximoCursor());
+    }
+
+    @Test
+    void testAguardarMudancasAgrupaEsperasPorCursor() {
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(1))).thenReturn(List.of());
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(2)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(evento(6L), evento(7L)));
+        CompletableFuture<ProdutoMudancasDTO> primeira = eventoService.aguardarMudancas(5L, 1, Duration.ofSeconds(20));
+        CompletableFuture<ProdutoMudancasDTO> segunda = eventoService.aguardarMudancas(5L, 2, Duration.ofSeconds(20));
+
+        eventoService.atenderEsperas();
+
+        assertEquals(1, primeira.join().getEventos().size());
+        assertEquals(2, segunda.join().getEventos().size());
+        verify(eventoRepository, times(2)).findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(2));
+    }
+
+    @Test
+    void testAguardarMudancasExpiraSemEventos() {
+        CompletableFuture<ProdutoMudancasDTO> resultado = eventoService.aguardarMudancas(5L, 10, Duration.ofNanos(1));
+
+        eventoService.atenderEsperas();
+
+        assertTrue(resultado.join().getEventos().isEmpty());
+        assertEquals(5L, resultado.join().getProximoCursor());
+    }
+
+    @Test
+    void testAguardarMudancasSemEsperaRespondeImediatamente() {
+        CompletableFuture<ProdutoMudancasDTO> resultado = eventoService.aguardarMudancas(5L, 10, Duration.ZERO);
+
+        assertTrue(resultado.isDone());
+        eventoService.atenderEsperas();
+        verify(eventoRepository, times(1)).findByPosicaoGreaterThanOrderByPosicaoAsc(5L, Limit.of(10));
+    }
+
+    private static ProdutoEvento evento(Long posicao) {
+        return ProdutoEvento.builder()
+                .id(posicao)
+                .posicao(posicao)
+                .produtoId(1L)
+                .tipo(ProdutoEvento.Tipo.ATUALIZADO)
+                .ocorridoEm(Instant.now())
+                .build();
+    }
+}
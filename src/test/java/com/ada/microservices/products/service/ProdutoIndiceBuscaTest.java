@@ -0,0 +1,169 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoIndiceBuscaTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUTOS_CACHE);
+
+    private ProdutoIndiceBusca indiceBusca;
+
+    @BeforeEach
+    void setUp() {
+        indiceBusca = new ProdutoIndiceBusca(produtoRepository, transactionManager, cacheManager, true, 2);
+    }
+
+    @Test
+    void testTokenizarRemoveAcentosEMaiusculas() {
+        assertEquals(List.of("pao", "de", "acucar", "500g"), ProdutoIndiceBusca.tokenizar("Pão de Açúcar, 500g - pão"));
+        assertTrue(ProdutoIndiceBusca.tokenizar("  ").isEmpty());
+        assertTrue(ProdutoIndiceBusca.tokenizar(null).isEmpty());
+    }
+
+    @Test
+    void testBuscarPorPrefixoIgnorandoAcentos() {
+        indiceBusca.indexar(1L, "Café Torrado", "Grãos selecionados");
+        indiceBusca.indexar(2L, "Cafeteira Elétrica", null);
+        indiceBusca.indexar(3L, "Chá Verde", null);
+
+        assertEquals(List.of(1L, 2L), indiceBusca.buscar("cafe", 10));
+        assertEquals(List.of(1L), indiceBusca.buscar("CAFÉ gra", 10));
+        assertEquals(List.of(2L), indiceBusca.buscar("eletr", 10));
+        assertEquals(List.of(1L), indiceBusca.buscar("cafe", 1));
+        assertTrue(indiceBusca.buscar("cafe verde", 10).isEmpty());
+        assertTrue(indiceBusca.buscar("", 10).isEmpty());
+    }
+
+    @Test
+    void testReindexarRemoveTermosAntigos() {
+        indiceBusca.indexar(1L, "Café Torrado", null);
+        indiceBusca.indexar(1L, "Chá Verde", null);
+
+        assertTrue(indiceBusca.buscar("cafe", 10).isEmpty());
+        assertEquals(List.of(1L), indiceBusca.buscar("cha", 10));
+    }
+
+    @Test
+    void testRemover() {
+        indiceBusca.indexar(1L, "Café Torrado", null);
+        indiceBusca.indexar(2L, "Café Moído", null);
+
+        indiceBusca.remover(1L);
+
+        assertEquals(List.of(2L), indiceBusca.buscar("cafe", 10));
+    }
+
+    @Test
+    void testTermosSemProdutosSaemDoVocabulario() {
+        indiceBusca.indexar(1L, "Café Torrado", null);
+        indiceBusca.indexar(2L, "Café Moído", null);
+        assertEquals(3, indiceBusca.termos());
+
+        indiceBusca.indexar(1L, "Café", null);
+        indiceBusca.remover(2L);
+
+        assertEquals(1, indiceBusca.termos());
+        assertTrue(indiceBusca.buscar("tor", 10).isEmpty());
+    }
+
+    @Test
+    void testPrefixoCurtoPercorreOsIdsEmOrdemAteOLimite() {
+        indiceBusca.indexar(5L, "Cacau", null);
+        indiceBusca.indexar(2L, "Cenoura", null);
+        indiceBusca.indexar(4L, "Café Verde", null);
+        indiceBusca.indexar(1L, "Chá Verde", null);
+        indiceBusca.indexar(3L, "Couve", null);
+
+        assertEquals(List.of(1L, 2L, 3L), indiceBusca.buscar("c", 3));
+        assertEquals(List.of(1L, 4L), indiceBusca.buscar("c verde", 10));
+        assertEquals(List.of(1L), indiceBusca.buscar("c verde", 1));
+    }
+
+    @Test
+    void testReconstruirEmLotes() {
+        ProdutoResponseDTO primeiro = new ProdutoResponseDTO(1L, "Café", null, null, null, null);
+        ProdutoResponseDTO segundo = new ProdutoResponseDTO(2L, "Chá", null, null, null, null);
+        ProdutoResponseDTO terceiro = new ProdutoResponseDTO(3L, "Cacau", null, null, null, "Em pó");
+        when(produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(2))).thenReturn(Arrays.asList(primeiro, segundo));
+        when(produtoRepository.listarDTOsAposId(2L, Limit.of(2))).thenReturn(List.of(terceiro));
+        indiceBusca.indexar(99L, "Removido do banco", null);
+
+        indiceBusca.afterSingletonsInstantiated();
+
+        assertEquals(List.of(1L, 3L), indiceBusca.buscar("ca", 10));
+        assertEquals(List.of(3L), indiceBusca.buscar("po", 10));
+        assertTrue(indiceBusca.buscar("removido", 10).isEmpty());
+    }
+
+    @Test
+    void testAtualizarAplicaAlteracoesERemocoesDeOutrasInstancias() {
+        when(produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(2))).thenReturn(List.of(
+                new ProdutoResponseDTO(1L, "Café", null, null, null, null)));
+        indiceBusca.afterSingletonsInstantiated();
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of(
+                new ProdutoResponseDTO(2L, "Cafeteira", null, null, null, null)));
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of(1L));
+
+        indiceBusca.atualizar();
+
+        assertEquals(List.of(2L), indiceBusca.buscar("cafe", 10));
+        assertEquals(1, indiceBusca.termos());
+    }
+
+    @Test
+    void testAtualizarSemReconstrucaoLeApenasAsAlteracoesPosteriores() {
+        indiceBusca = new ProdutoIndiceBusca(produtoRepository, transactionManager, cacheManager, false, 2);
+        Instant antes = Instant.now().minus(ProdutoService.MARGEM_SINCRONIZACAO);
+        indiceBusca.afterSingletonsInstantiated();
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of());
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of());
+
+        indiceBusca.atualizar();
+
+        verify(produtoRepository, never()).listarDTOsAposId(any(), any());
+        verify(produtoRepository).listarDTOsAlteradosDesde(argThat(desde -> !desde.isBefore(antes)));
+    }
+
+    @Test
+    void testAtualizarDescartaDoCacheOsProdutosAlteradosPorOutrasInstancias() {
+        indiceBusca = new ProdutoIndiceBusca(produtoRepository, transactionManager, cacheManager, false, 2);
+        indiceBusca.afterSingletonsInstantiated();
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS_CACHE);
+        cache.put(1L, new ProdutoResponseDTO(1L, "Café", null, null, null, null));
+        cache.put(2L, new ProdutoResponseDTO(2L, "Chá", null, null, null, null));
+        cache.put(3L, new ProdutoResponseDTO(3L, "Cacau", null, null, null, null));
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of(
+                new ProdutoResponseDTO(1L, "Café Torrado", null, null, null, null)));
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of(2L));
+
+        indiceBusca.atualizar();
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+    }
+}
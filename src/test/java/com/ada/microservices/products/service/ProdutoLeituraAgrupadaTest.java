@@ -0,0 +1,92 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoLeituraAgrupadaTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProdutoLeituraAgrupada leituraAgrupada;
+
+    @AfterEach
+    void encerrar() {
+        leituraAgrupada.destroy();
+    }
+
+    @Test
+    void testLeiturasNaMesmaJanelaViramUmaConsulta() throws Exception {
+        leituraAgrupada = new ProdutoLeituraAgrupada(produtoRepository, transactionManager, Duration.ofMillis(300), 100);
+        when(produtoRepository.listarDTOsPorIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 3L).map(ProdutoLeituraAgrupadaTest::produto).toList();
+        });
+
+        List<Future<Optional<ProdutoResponseDTO>>> leituras;
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            leituras = List.of(
+                    clientes.submit(() -> leituraAgrupada.buscar(1L)),
+                    clientes.submit(() -> leituraAgrupada.buscar(2L)),
+                    clientes.submit(() -> leituraAgrupada.buscar(2L)),
+                    clientes.submit(() -> leituraAgrupada.buscar(3L)));
+        }
+
+        assertEquals(1L, leituras.get(0).get().orElseThrow().getId());
+        assertEquals(2L, leituras.get(1).get().orElseThrow().getId());
+        assertSame(leituras.get(1).get().orElseThrow(), leituras.get(2).get().orElseThrow());
+        assertTrue(leituras.get(3).get().isEmpty());
+        verify(produtoRepository, times(1)).listarDTOsPorIds(Set.of(1L, 2L, 3L));
+        verify(produtoRepository, never()).buscarDTOPorId(anyLong());
+    }
+
+    @Test
+    void testLoteComUmIdUsaConsultaPorChave() {
+        leituraAgrupada = new ProdutoLeituraAgrupada(produtoRepository, transactionManager, Duration.ofMillis(1), 100);
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(produto(1L)));
+
+        assertEquals(1L, leituraAgrupada.buscar(1L).orElseThrow().getId());
+        verify(produtoRepository, never()).listarDTOsPorIds(anyCollection());
+    }
+
+    @Test
+    void testFalhaDaConsultaChegaAoChamador() {
+        leituraAgrupada = new ProdutoLeituraAgrupada(produtoRepository, transactionManager, Duration.ofMillis(1), 100);
+        when(produtoRepository.buscarDTOPorId(1L)).thenThrow(new IllegalStateException("banco indisponível"));
+
+        assertThrows(IllegalStateException.class, () -> leituraAgrupada.buscar(1L));
+    }
+
+    @Test
+    void testJanelaZeradaLeDiretamente() {
+        leituraAgrupada = new ProdutoLeituraAgrupada(produtoRepository, transactionManager, Duration.ZERO, 100);
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(produto(1L)));
+
+        assertEquals(1L, leituraAgrupada.buscar(1L).orElseThrow().getId());
+    }
+
+    private static ProdutoResponseDTO produto(Long id) {
+        return new ProdutoResponseDTO(id, "Produto " + id, "Categoria", 10.0, 1, null);
+    }
+}
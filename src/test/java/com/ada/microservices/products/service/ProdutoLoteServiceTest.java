@@ -0,0 +1,206 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.products.dto.ProdutoAtualizacaoLoteDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO;
+import com.ada.microservices.products.dto.ProdutoLoteResultadoDTO.Status;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoLoteServiceTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ProdutoIndiceBusca indiceBusca;
+
+    @Mock
+    private ProdutoEscritasRecentes escritasRecentes;
+
+    @Mock
+    private ProdutoEventoService eventos;
+
+    private ProdutoLoteService produtoLoteService;
+
+    @BeforeEach
+    void setUp() {
+        produtoLoteService = new ProdutoLoteService(produtoRepository, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), cacheManager, indiceBusca, escritasRecentes, eventos, 2, 5);
+    }
+
+    @Test
+    void testCriarProdutos() {
+        when(produtoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Produto> produtos = invocation.getArgument(0);
+            for (int i = 0; i < produtos.size(); i++) {
+                produtos.get(i).setId(10L + i);
+            }
+            return produtos;
+        });
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.criarProdutos(Arrays.asList(
+                new ProdutoRequestDTO("Produto 1", "Categoria", 10.0, 1),
+                new ProdutoRequestDTO("", "Categoria", 10.0, 1),
+                new ProdutoRequestDTO("Produto 3", "Categoria", 30.0, 3)));
+
+        assertEquals(3, resultados.size());
+        assertEquals(Status.CRIADO, resultados.get(0).getStatus());
+        assertEquals(10L, resultados.get(0).getId());
+        assertEquals(Status.INVALIDO, resultados.get(1).getStatus());
+        assertEquals("O nome do produto não pode estar vazio", resultados.get(1).getMensagem());
+        assertEquals(Status.CRIADO, resultados.get(2).getStatus());
+        assertEquals(2, resultados.get(2).getIndice());
+        // 3 itens com blocos de 2: uma transação por bloco
+        verify(produtoRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(indiceBusca).indexar(10L, "Produto 1", null);
+        verify(eventos).registrar(eq(ProdutoEvento.Tipo.CRIADO), eq(10L), any());
+    }
+
+    @Test
+    void testCriarProdutosFalhaNoBloco() {
+        when(produtoRepository.saveAll(anyList())).thenThrow(new IllegalStateException("falha no banco"));
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.criarProdutos(Collections.singletonList(
+                new ProdutoRequestDTO("Produto 1", "Categoria", 10.0, 1)));
+
+        assertEquals(Status.ERRO, resultados.get(0).getStatus());
+        assertEquals("falha no banco", resultados.get(0).getMensagem());
+    }
+
+    @Test
+    void testCriarProdutosLoteAcimaDoLimite() {
+        List<ProdutoRequestDTO> dtos = Collections.nCopies(6, new ProdutoRequestDTO("Produto", "Categoria", 1.0, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> produtoLoteService.criarProdutos(dtos));
+        assertThrows(IllegalArgumentException.class, () -> produtoLoteService.criarProdutos(Collections.emptyList()));
+    }
+
+    @Test
+    void testAtualizarProdutos() {
+        Produto existente = Produto.builder().id(1L).nome("Antigo").categoria("Categoria").preco(1.0).quantidade(1).versao(3L).build();
+        when(produtoRepository.findAllById(any())).thenReturn(Collections.singletonList(existente));
+        when(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE)).thenReturn(cache);
+        // como o Hibernate, que incrementa a versão das entidades alteradas no flush
+        doAnswer(invocacao -> {
+            existente.setVersao(existente.getVersao() + 1);
+            return null;
+        }).when(produtoRepository).flush();
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.atualizarProdutos(Arrays.asList(
+                new ProdutoAtualizacaoLoteDTO(1L, "Novo", "Categoria", 2.0, 2),
+                new ProdutoAtualizacaoLoteDTO(2L, "Outro", "Categoria", 3.0, 3)));
+
+        assertEquals(Status.ATUALIZADO, resultados.get(0).getStatus());
+        assertEquals(Status.NAO_ENCONTRADO, resultados.get(1).getStatus());
+        assertEquals("Novo", existente.getNome());
+        assertEquals(2.0, existente.getPreco());
+        verify(cache).evict(1L);
+        verify(cache, never()).evict(2L);
+        verify(indiceBusca).indexar(1L, "Novo", null);
+        ArgumentCaptor<ProdutoResponseDTO> evento = ArgumentCaptor.forClass(ProdutoResponseDTO.class);
+        InOrder ordem = inOrder(produtoRepository, eventos);
+        ordem.verify(produtoRepository).flush();
+        ordem.verify(eventos).registrar(eq(ProdutoEvento.Tipo.ATUALIZADO), eq(1L), evento.capture());
+        assertEquals(4L, evento.getValue().getVersao());
+        assertEquals("Novo", evento.getValue().getNome());
+        verify(eventos, never()).registrar(any(), eq(2L), any());
+        verify(indiceBusca, never()).indexar(eq(2L), any(), any());
+    }
+
+    @Test
+    void testAtualizarProdutosSemId() {
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.atualizarProdutos(Collections.singletonList(
+                new ProdutoAtualizacaoLoteDTO(null, "Novo", "Categoria", 2.0, 2)));
+
+        assertEquals(Status.INVALIDO, resultados.get(0).getStatus());
+        assertEquals("O ID do produto é obrigatório", resultados.get(0).getMensagem());
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testAtualizarProdutosComIdRepetido() {
+        Produto existente = Produto.builder().id(1L).nome("Antigo").categoria("Categoria").preco(1.0).quantidade(1).build();
+        when(produtoRepository.findAllById(Set.of(1L))).thenReturn(Collections.singletonList(existente));
+        when(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE)).thenReturn(cache);
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.atualizarProdutos(Arrays.asList(
+                new ProdutoAtualizacaoLoteDTO(1L, "Novo", "Categoria", 2.0, 2),
+                new ProdutoAtualizacaoLoteDTO(1L, "Repetido", "Categoria", 3.0, 3)));
+
+        assertEquals(Status.ATUALIZADO, resultados.get(0).getStatus());
+        assertEquals(Status.INVALIDO, resultados.get(1).getStatus());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertEquals("ID repetido no lote, já informado no item 0", resultados.get(1).getMensagem());
+        assertEquals("Novo", existente.getNome());
+        verify(eventos, times(1)).registrar(eq(ProdutoEvento.Tipo.ATUALIZADO), eq(1L), any());
+    }
+
+    @Test
+    void testDeletarProdutosComIdNuloERepetidoEmBlocoComFalha() {
+        when(produtoRepository.findAllById(any())).thenThrow(new IllegalStateException("Banco indisponível"));
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.deletarProdutos(Arrays.asList(1L, null, 1L));
+
+        assertEquals(Status.ERRO, resultados.get(0).getStatus());
+        assertEquals(Status.INVALIDO, resultados.get(1).getStatus());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertEquals("O ID do produto é obrigatório", resultados.get(1).getMensagem());
+        assertEquals(Status.INVALIDO, resultados.get(2).getStatus());
+        assertEquals(2, resultados.get(2).getIndice());
+        assertEquals("ID repetido no lote, já informado no item 0", resultados.get(2).getMensagem());
+    }
+
+    @Test
+    void testDeletarProdutos() {
+        Produto existente = Produto.builder().id(1L).nome("Produto").categoria("Categoria").preco(1.0).quantidade(1).build();
+        when(produtoRepository.findAllById(any())).thenReturn(Collections.singletonList(existente));
+        when(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE)).thenReturn(cache);
+
+        List<ProdutoLoteResultadoDTO> resultados = produtoLoteService.deletarProdutos(Arrays.asList(1L, 2L));
+
+        assertEquals(Status.REMOVIDO, resultados.get(0).getStatus());
+        assertEquals(Status.NAO_ENCONTRADO, resultados.get(1).getStatus());
+        verify(produtoRepository).registrarRemocoes(Set.of(1L));
+        verify(produtoRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(cache).evict(1L);
+        verify(indiceBusca).remover(1L);
+        verify(indiceBusca, never()).remover(2L);
+        verify(eventos).registrar(ProdutoEvento.Tipo.REMOVIDO, 1L, null);
+        verify(escritasRecentes).registrar(Set.of(1L));
+    }
+}
@@ -0,0 +1,190 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoReactiveRepository;
+import com.ada.microservices.products.exception.InsufficientStockException;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+import com.ada.microservices.products.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.ReactiveSelectOperation;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoReactiveServiceTest {
+
+    @Mock
+    private ProdutoReactiveRepository produtoRepository;
+
+    @Mock
+    private R2dbcEntityTemplate entityTemplate;
+
+    @Mock
+    private ProdutoService produtoServiceBloqueante;
+
+    private ProdutoReactiveService produtoService;
+
+    private Produto produto;
+    private ProdutoRequestDTO produtoRequestDTO;
+
+    @BeforeEach
+    void setUp() {
+        produtoService = new ProdutoReactiveService(produtoRepository, entityTemplate, produtoServiceBloqueante);
+        produto = Produto.builder()
+                .id(1L)
+                .nome("Produto Teste")
+                .categoria("Categoria Teste")
+                .preco(100.0)
+                .quantidade(10)
+                .versao(0L)
+                .build();
+
+        produtoRequestDTO = new ProdutoRequestDTO("Produto Teste", "Categoria Teste", 100.0, 10);
+    }
+
+    private static Produto produtoComId(long id) {
+        return Produto.builder().id(id).nome("Produto " + id).categoria("Categoria").preco(1.0).quantidade(1).build();
+    }
+
+    @Test
+    void testCriarProdutoPeloProdutoService() {
+        ProdutoResponseDTO criado = ProdutoResponseDTO.de(produto);
+        when(produtoServiceBloqueante.criarProduto(produtoRequestDTO)).thenReturn(criado);
+
+        StepVerifier.create(produtoService.criarProduto(produtoRequestDTO))
+                .assertNext(responseDTO -> {
+                    assertEquals(1L, responseDTO.getId());
+                    assertEquals(0L, responseDTO.getVersao());
+                })
+                .verifyComplete();
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testBuscarProdutoPorId() {
+        when(produtoRepository.findById(1L)).thenReturn(Mono.just(produto));
+
+        StepVerifier.create(produtoService.buscarProdutoPorId(1L))
+                .assertNext(responseDTO -> assertEquals(1L, responseDTO.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testBuscarProdutoPorIdNotFound() {
+        when(produtoRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(produtoService.buscarProdutoPorId(1L))
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void testAtualizarProdutoPeloProdutoService() {
+        ProdutoResponseDTO atualizado = new ProdutoResponseDTO(1L, "Produto Teste", "Categoria Teste", 100.0, 10, null, 4L);
+        when(produtoServiceBloqueante.atualizarProduto(1L, produtoRequestDTO, 3L)).thenReturn(atualizado);
+
+        StepVerifier.create(produtoService.atualizarProduto(1L, produtoRequestDTO, 3L))
+                .assertNext(responseDTO -> assertEquals(4L, responseDTO.getVersao()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testAtualizarProdutoComVersaoDesatualizada() {
+        when(produtoServiceBloqueante.atualizarProduto(1L, produtoRequestDTO, 3L))
+                .thenThrow(new PreconditionFailedException("O produto com ID 1 foi alterado por outra requisição"));
+
+        StepVerifier.create(produtoService.atualizarProduto(1L, produtoRequestDTO, 3L))
+                .verifyError(PreconditionFailedException.class);
+    }
+
+    @Test
+    void testAjustarEstoqueInsuficiente() {
+        doThrow(new InsufficientStockException("Estoque insuficiente para o produto com ID: 1"))
+                .when(produtoServiceBloqueante).ajustarEstoque(1L, -20);
+
+        StepVerifier.create(produtoService.ajustarEstoque(1L, -20))
+                .verifyError(InsufficientStockException.class);
+    }
+
+    @Test
+    void testDeletarProdutoPeloProdutoService() {
+        StepVerifier.create(produtoService.deletarProduto(1L)).verifyComplete();
+
+        verify(produtoServiceBloqueante).deletarProduto(1L);
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testDeletarProdutoNotFound() {
+        doThrow(new ResourceNotFoundException("Produto não encontrado com ID: 1"))
+                .when(produtoServiceBloqueante).deletarProduto(1L);
+
+        StepVerifier.create(produtoService.deletarProduto(1L))
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void testListarProdutosPaginados() {
+        when(produtoRepository.buscarPagina(10L, 2)).thenReturn(Flux.just(produtoComId(11L), produtoComId(12L)));
+
+        StepVerifier.create(produtoService.listarProdutosPaginados(10L, 2))
+                .assertNext(pagina -> {
+                    assertEquals(2, pagina.getProdutos().size());
+                    assertEquals(12L, pagina.getProximoCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testListarProdutosPaginadosLimiteInvalido() {
+        StepVerifier.create(produtoService.listarProdutosPaginados(null, 0))
+                .verifyError(IllegalArgumentException.class);
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testPercorrerProdutos() {
+        when(produtoRepository.buscarPagina(Long.MIN_VALUE, 2)).thenReturn(Flux.just(produtoComId(1L), produtoComId(2L)));
+        when(produtoRepository.buscarPagina(2L, 2)).thenReturn(Flux.just(produtoComId(3L)));
+
+        StepVerifier.create(produtoService.percorrerProdutos(2).map(responseDTO -> responseDTO.getId()))
+                .expectNext(1L, 2L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarProdutosPaginadosComFiltro() {
+        ReactiveSelectOperation.ReactiveSelect<Produto> select = mock(ReactiveSelectOperation.ReactiveSelect.class);
+        ReactiveSelectOperation.TerminatingSelect<Produto> consulta = mock(ReactiveSelectOperation.TerminatingSelect.class);
+        when(entityTemplate.select(Produto.class)).thenReturn(select);
+        when(select.matching(any(Query.class))).thenReturn(consulta);
+        when(consulta.all()).thenReturn(Flux.just(produtoComId(11L)));
+
+        StepVerifier.create(produtoService.listarProdutosPaginados(new ProdutoFiltroDTO("Categoria", 0.5, 2.0, null), 10L, 2))
+                .assertNext(pagina -> {
+                    assertEquals(1, pagina.getProdutos().size());
+                    assertNull(pagina.getProximoCursor());
+                })
+                .verifyComplete();
+        verify(produtoRepository, never()).buscarPagina(anyLong(), anyInt());
+    }
+
+    @Test
+    void testPercorrerProdutosFaixaDePrecoInvalida() {
+        StepVerifier.create(produtoService.percorrerProdutos(new ProdutoFiltroDTO(null, 2.0, 1.0, null), 10))
+                .verifyError(IllegalArgumentException.class);
+        verifyNoInteractions(produtoRepository, entityTemplate);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.config.CacheConfig;
+import com.ada.microservices.products.dto.ProdutoRequestDTO;
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class ProdutoServiceCacheTest {
+
+    @MockBean
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRODUTOS_CACHE).clear();
+        produto = Produto.builder()
+                .id(1L)
+                .nome("Produto Teste")
+                .categoria("Categoria Teste")
+                .preco(100.0)
+                .quantidade(10)
+                .build();
+    }
+
+    @Test
+    void testBuscarProdutoPorIdUsaCache() {
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
+
+        produtoService.buscarProdutoPorId(1L);
+        produtoService.buscarProdutoPorId(1L);
+
+        verify(produtoRepository, times(1)).buscarDTOPorId(1L);
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE).get(1L));
+    }
+
+    @Test
+    void testBuscasConcorrentesDoMesmoIdFazemUmaConsulta() throws Exception {
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        when(produtoRepository.buscarDTOPorId(1L)).thenAnswer(invocation -> {
+            consultaIniciada.countDown();
+            Thread.sleep(200);
+            return Optional.of(ProdutoResponseDTO.de(produto));
+        });
+
+        List<Future<ProdutoResponseDTO>> buscas = new ArrayList<>();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            buscas.add(clientes.submit(() -> produtoService.buscarProdutoPorId(1L)));
+            assertTrue(consultaIniciada.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 50; i++) {
+                buscas.add(clientes.submit(() -> produtoService.buscarProdutoPorId(1L)));
+            }
+        }
+
+        for (Future<ProdutoResponseDTO> busca : buscas) {
+            assertEquals("Produto Teste", busca.get().getNome());
+        }
+
+        verify(produtoRepository, times(1)).buscarDTOPorId(1L);
+    }
+
+    @Test
+    void testAtualizarProdutoInvalidaCache() {
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
+        when(produtoRepository.atualizarPorId(1L, "Produto Atualizado", "Categoria Teste", 90.0, 5, null)).thenReturn(1);
+
+        produtoService.buscarProdutoPorId(1L);
+        produtoService.atualizarProduto(1L, new ProdutoRequestDTO("Produto Atualizado", "Categoria Teste", 90.0, 5), null);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE).get(1L));
+    }
+
+    @Test
+    void testDeletarProdutoInvalidaCache() {
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
+
+        when(produtoRepository.deletarPorId(1L)).thenReturn(1);
+
+        produtoService.buscarProdutoPorId(1L);
+        produtoService.deletarProduto(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUTOS_CACHE).get(1L));
+    }
+}
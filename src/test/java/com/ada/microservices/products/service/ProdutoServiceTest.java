@@ -1,16 +1,29 @@
 package com.ada.microservices.products.service;
 
+import com.ada.microservices.products.dto.ProdutoFiltroDTO;
+import com.ada.microservices.products.dto.ProdutoPaginaDTO;
 import com.ada.microservices.products.dto.ProdutoRequestDTO;
 import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.dto.ProdutoSincronizacaoDTO;
 import com.ada.microservices.products.model.Produto;
+import com.ada.microservices.products.model.ProdutoEvento;
+import com.ada.microservices.products.model.ProdutoRemovido;
 import com.ada.microservices.products.repository.ProdutoRepository;
+import com.ada.microservices.products.exception.InsufficientStockException;
+import com.ada.microservices.products.exception.PreconditionFailedException;
+import com.ada.microservices.products.exception.ResourceGoneException;
 import com.ada.microservices.products.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -23,7 +36,24 @@ public class ProdutoServiceTest {
     @Mock
     private ProdutoRepository produtoRepository;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProdutoIndiceBusca indiceBusca;
+
+    @Mock
+    private ProdutoEscritasRecentes escritasRecentes;
+
+    @Mock
+    private ProdutoEventoService eventos;
+
+    @Mock
+    private ProdutoLeituraAgrupada leituraAgrupada;
+
+    @Mock
+    private ProdutoSnapshot snapshot;
+
     private ProdutoService produtoService;
 
     private Produto produto;
@@ -31,6 +61,8 @@ public class ProdutoServiceTest {
 
     @BeforeEach
     void setUp() {
+        produtoService = new ProdutoService(produtoRepository, transactionManager, indiceBusca, escritasRecentes, eventos, leituraAgrupada,
+                snapshot, Duration.ofDays(30));
         produto = Produto.builder()
                 .id(1L)
                 .nome("Produto Teste")
@@ -40,10 +72,6 @@ public class ProdutoServiceTest {
                 .build();
 
         produtoRequestDTO = new ProdutoRequestDTO("Produto Teste", "Categoria Teste", 100.0, 10);
-        produtoRequestDTO.setNome("Produto Teste");
-        produtoRequestDTO.setCategoria("Categoria Teste");
-        produtoRequestDTO.setPreco(100.0);
-        produtoRequestDTO.setQuantidade(10);
     }
 
     @Test
@@ -58,69 +86,385 @@ public class ProdutoServiceTest {
         assertEquals(produto.getCategoria(), responseDTO.getCategoria());
         assertEquals(produto.getPreco(), responseDTO.getPreco());
         assertEquals(produto.getQuantidade(), responseDTO.getQuantidade());
+        verify(indiceBusca).indexar(1L, "Produto Teste", null);
+        verify(eventos).registrar(ProdutoEvento.Tipo.CRIADO, 1L, responseDTO);
     }
 
     @Test
-    void testListarProdutos() {
-        when(produtoRepository.findAll()).thenReturn(Arrays.asList(produto));
+    void testBuscarProdutoPorId() {
+        when(leituraAgrupada.buscar(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
 
-        List<ProdutoResponseDTO> produtos = produtoService.listarTodosProdutos();
+        ProdutoResponseDTO responseDTO = produtoService.buscarProdutoPorId(1L);
 
-        assertNotNull(produtos);
-        assertEquals(1, produtos.size());
-        assertEquals(produto.getId(), produtos.get(0).getId());
+        assertNotNull(responseDTO);
+        assertEquals(produto.getId(), responseDTO.getId());
+        verify(produtoRepository, never()).buscarDTOPorId(anyLong());
     }
 
     @Test
-    void testBuscarProdutoPorId() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+    void testBuscarProdutoPorIdAlteradoRecentemente() {
+        when(escritasRecentes.recente(1L)).thenReturn(true);
+        when(produtoRepository.buscarDTOPorId(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
 
-        ProdutoResponseDTO responseDTO = produtoService.buscarProdutoPorId(1L);
+        assertEquals(produto.getId(), produtoService.buscarProdutoPorId(1L).getId());
+        verifyNoInteractions(leituraAgrupada);
+    }
 
-        assertNotNull(responseDTO);
-        assertEquals(produto.getId(), responseDTO.getId());
+    @Test
+    void testBuscarProdutoPorIdNoSnapshot() {
+        when(snapshot.isAtivo()).thenReturn(true);
+        when(snapshot.buscar(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
+
+        assertEquals(produto.getId(), produtoService.buscarProdutoPorId(1L).getId());
+        verifyNoInteractions(leituraAgrupada);
+    }
+
+    @Test
+    void testBuscarProdutoPorIdAusenteDoSnapshotVaiAoBanco() {
+        when(snapshot.isAtivo()).thenReturn(true);
+        when(snapshot.buscar(1L)).thenReturn(Optional.empty());
+        when(leituraAgrupada.buscar(1L)).thenReturn(Optional.of(ProdutoResponseDTO.de(produto)));
+
+        assertEquals(produto.getId(), produtoService.buscarProdutoPorId(1L).getId());
     }
 
     @Test
     void testBuscarProdutoPorIdNotFound() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(leituraAgrupada.buscar(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> produtoService.buscarProdutoPorId(1L));
     }
 
     @Test
     void testAtualizarProduto() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
-        when(produtoRepository.save(any(Produto.class))).thenReturn(produto);
+        when(produtoRepository.atualizarPorId(1L, "Produto Teste", "Categoria Teste", 100.0, 10, null)).thenReturn(1);
 
-        ProdutoResponseDTO responseDTO = produtoService.atualizarProduto(1L, produtoRequestDTO);
+        ProdutoResponseDTO responseDTO = produtoService.atualizarProduto(1L, produtoRequestDTO, null);
 
         assertNotNull(responseDTO);
         assertEquals(produto.getId(), responseDTO.getId());
         assertEquals(produto.getNome(), responseDTO.getNome());
+        assertNull(responseDTO.getVersao());
+        verify(produtoRepository, never()).findById(anyLong());
+        verify(produtoRepository, never()).save(any(Produto.class));
+        verify(indiceBusca).indexar(1L, "Produto Teste", null);
     }
 
     @Test
     void testAtualizarProdutoNotFound() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(produtoRepository.atualizarPorId(1L, "Produto Teste", "Categoria Teste", 100.0, 10, null)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarProduto(1L, produtoRequestDTO, null));
+    }
+
+    @Test
+    void testAtualizarProdutoComVersao() {
+        when(produtoRepository.atualizarPorIdEVersao(1L, 3L, "Produto Teste", "Categoria Teste", 100.0, 10, null)).thenReturn(1);
+
+        ProdutoResponseDTO responseDTO = produtoService.atualizarProduto(1L, produtoRequestDTO, 3L);
+
+        assertEquals(4L, responseDTO.getVersao());
+    }
+
+    @Test
+    void testAtualizarProdutoComVersaoDesatualizada() {
+        when(produtoRepository.atualizarPorIdEVersao(1L, 3L, "Produto Teste", "Categoria Teste", 100.0, 10, null)).thenReturn(0);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> produtoService.atualizarProduto(1L, produtoRequestDTO, 3L));
+    }
+
+    @Test
+    void testAtualizarProdutoComVersaoNotFound() {
+        when(produtoRepository.atualizarPorIdEVersao(1L, 3L, "Produto Teste", "Categoria Teste", 100.0, 10, null)).thenReturn(0);
+        when(produtoRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarProduto(1L, produtoRequestDTO, 3L));
+    }
+
+    @Test
+    void testAjustarEstoque() {
+        when(produtoRepository.ajustarEstoque(1L, -3)).thenReturn(1);
+
+        produtoService.ajustarEstoque(1L, -3);
+
+        verify(produtoRepository, times(1)).ajustarEstoque(1L, -3);
+        verify(produtoRepository, never()).existsById(anyLong());
+        verify(eventos).registrarAtualizacao(1L);
+    }
+
+    @Test
+    void testAjustarEstoqueInsuficiente() {
+        when(produtoRepository.ajustarEstoque(1L, -30)).thenReturn(0);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> produtoService.ajustarEstoque(1L, -30));
+    }
+
+    @Test
+    void testAjustarEstoqueNotFound() {
+        when(produtoRepository.ajustarEstoque(1L, 5)).thenReturn(0);
+        when(produtoRepository.existsById(1L)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarProduto(1L, produtoRequestDTO));
+        assertThrows(ResourceNotFoundException.class, () -> produtoService.ajustarEstoque(1L, 5));
+    }
+
+    @Test
+    void testSincronizarDesde() {
+        Instant desde = Instant.now().minusSeconds(3600);
+        ProdutoResponseDTO alterado = ProdutoResponseDTO.de(produto);
+        when(produtoRepository.listarAlteracoesApos(desde, Long.MIN_VALUE, Limit.of(10)))
+                .thenReturn(List.of(posicao(1L, desde.plusSeconds(1))));
+        when(produtoRepository.listarDTOsPorIds(List.of(1L))).thenReturn(List.of(alterado));
+        when(produtoRepository.listarRemocoesApos(desde, Long.MIN_VALUE, Limit.of(9)))
+                .thenReturn(List.of(new ProdutoRemovido(2L, desde.plusSeconds(2))));
+        Instant antes = Instant.now();
+
+        ProdutoSincronizacaoDTO sincronizacao = produtoService.sincronizarDesde(desde, null, 10);
+
+        assertEquals(List.of(alterado), sincronizacao.getProdutos());
+        assertEquals(List.of(2L), sincronizacao.getRemovidos());
+        assertNull(sincronizacao.getContinuacao());
+        assertFalse(sincronizacao.getProximoCursor().isBefore(antes.minus(ProdutoService.MARGEM_SINCRONIZACAO)));
+        assertTrue(sincronizacao.getProximoCursor().isBefore(Instant.now()));
+    }
+
+    @Test
+    void testSincronizarDesdePaginaPelaContinuacao() {
+        Instant desde = Instant.now().minusSeconds(3600);
+        Instant alteradoEm = desde.plusSeconds(1);
+        ProdutoResponseDTO primeiro = new ProdutoResponseDTO(1L, "Produto 1", "Categoria", 10.0, 1, null);
+        ProdutoResponseDTO segundo = new ProdutoResponseDTO(2L, "Produto 2", "Categoria", 20.0, 2, null);
+        when(produtoRepository.listarAlteracoesApos(desde, Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(posicao(2L, alteradoEm), posicao(1L, alteradoEm.plusSeconds(1))));
+        when(produtoRepository.listarDTOsPorIds(List.of(2L, 1L))).thenReturn(List.of(primeiro, segundo));
+
+        ProdutoSincronizacaoDTO primeiraPagina = produtoService.sincronizarDesde(desde, null, 2);
+
+        assertEquals(List.of(segundo, primeiro), primeiraPagina.getProdutos());
+        assertNull(primeiraPagina.getProximoCursor());
+        assertNotNull(primeiraPagina.getContinuacao());
+
+        when(produtoRepository.listarAlteracoesApos(alteradoEm.plusSeconds(1), 1L, Limit.of(2))).thenReturn(List.of());
+        when(produtoRepository.listarRemocoesApos(desde, Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(new ProdutoRemovido(3L, desde.plusSeconds(5)), new ProdutoRemovido(4L, desde.plusSeconds(6))));
+
+        ProdutoSincronizacaoDTO segundaPagina = produtoService.sincronizarDesde(desde, primeiraPagina.getContinuacao(), 2);
+
+        assertEquals(List.of(), segundaPagina.getProdutos());
+        assertEquals(List.of(3L, 4L), segundaPagina.getRemovidos());
+        assertNotNull(segundaPagina.getContinuacao());
+
+        when(produtoRepository.listarRemocoesApos(desde.plusSeconds(6), 4L, Limit.of(2))).thenReturn(List.of());
+
+        ProdutoSincronizacaoDTO ultimaPagina = produtoService.sincronizarDesde(desde, segundaPagina.getContinuacao(), 2);
+
+        assertEquals(List.of(), ultimaPagina.getRemovidos());
+        assertNull(ultimaPagina.getContinuacao());
+        assertNotNull(ultimaPagina.getProximoCursor());
+        verify(produtoRepository, never()).listarAlteracoesApos(eq(desde.plusSeconds(6)), anyLong(), any());
+    }
+
+    @Test
+    void testSincronizarDesdeCursorAnteriorARetencao() {
+        Instant desde = Instant.now().minus(Duration.ofDays(31));
+
+        assertThrows(ResourceGoneException.class, () -> produtoService.sincronizarDesde(desde, null, 10));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testSincronizarDesdeContinuacaoInvalida() {
+        Instant desde = Instant.now().minusSeconds(3600);
+
+        assertThrows(IllegalArgumentException.class, () -> produtoService.sincronizarDesde(desde, "invalida", 10));
+    }
+
+    @Test
+    void testRemoverRemocoesAntigas() {
+        when(produtoRepository.removerRemocoesAntesDe(any(Instant.class))).thenReturn(3);
+        Instant antes = Instant.now();
+
+        produtoService.removerRemocoesAntigas();
+
+        verify(produtoRepository).removerRemocoesAntesDe(argThat(limite ->
+                !limite.isBefore(antes.minus(Duration.ofDays(30))) && limite.isBefore(Instant.now().minus(Duration.ofDays(29)))));
+    }
+
+    private static ProdutoRepository.PosicaoAlteracao posicao(Long id, Instant atualizadoEm) {
+        return new ProdutoRepository.PosicaoAlteracao() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getAtualizadoEm() {
+                return atualizadoEm;
+            }
+        };
     }
 
     @Test
     void testDeletarProduto() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
-        doNothing().when(produtoRepository).delete(produto);
+        when(produtoRepository.deletarPorId(1L)).thenReturn(1);
 
         produtoService.deletarProduto(1L);
 
-        verify(produtoRepository, times(1)).delete(produto);
+        verify(produtoRepository, times(1)).deletarPorId(1L);
+        verify(produtoRepository).registrarRemocoes(List.of(1L));
+        verify(produtoRepository, never()).findById(anyLong());
+        verify(indiceBusca).remover(1L);
+        verify(escritasRecentes).registrar(1L);
+        verify(eventos).registrar(ProdutoEvento.Tipo.REMOVIDO, 1L, null);
     }
 
     @Test
     void testDeletarProdutoNotFound() {
-        when(produtoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(produtoRepository.deletarPorId(1L)).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () -> produtoService.deletarProduto(1L));
+        verify(indiceBusca, never()).remover(anyLong());
+        verify(escritasRecentes, never()).registrar(anyLong());
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    void testListarProdutosPaginados() {
+        Produto segundo = Produto.builder().id(2L).nome("Produto 2").categoria("Categoria Teste").preco(50.0).quantidade(1).build();
+        when(produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(Arrays.asList(ProdutoResponseDTO.de(produto), ProdutoResponseDTO.de(segundo)));
+
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(null, 2);
+
+        assertEquals(2, pagina.getProdutos().size());
+        assertEquals(2L, pagina.getProximoCursor());
+    }
+
+    @Test
+    void testListarProdutosPaginadosNoSnapshot() {
+        when(snapshot.isAtivo()).thenReturn(true);
+        when(snapshot.pagina(0L, 1)).thenReturn(List.of(ProdutoResponseDTO.de(produto)));
+
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(0L, 1);
+
+        assertEquals(1L, pagina.getProximoCursor());
+        verify(produtoRepository, never()).listarDTOsAposId(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testListarProdutosPaginadosUltimaPagina() {
+        when(produtoRepository.listarDTOsAposId(0L, Limit.of(10))).thenReturn(Arrays.asList(ProdutoResponseDTO.de(produto)));
+
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(0L, 10);
+
+        assertEquals(1, pagina.getProdutos().size());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    void testListarProdutosPaginadosLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> produtoService.listarProdutosPaginados(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> produtoService.listarProdutosPaginados(null, ProdutoService.LIMITE_MAXIMO_PAGINA + 1));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testPercorrerProdutos() {
+        Produto segundo = Produto.builder().id(2L).nome("Produto 2").categoria("Categoria Teste").preco(50.0).quantidade(1).build();
+        Produto terceiro = Produto.builder().id(3L).nome("Produto 3").categoria("Categoria Teste").preco(75.0).quantidade(3).build();
+        when(produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(Arrays.asList(ProdutoResponseDTO.de(produto), ProdutoResponseDTO.de(segundo)));
+        when(produtoRepository.listarDTOsAposId(2L, Limit.of(2))).thenReturn(Arrays.asList(ProdutoResponseDTO.de(terceiro)));
+
+        List<Long> ids = new ArrayList<>();
+        produtoService.percorrerProdutos(2, dto -> ids.add(dto.getId()));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPercorrerProdutosComFiltroSobDemanda() {
+        Produto segundo = Produto.builder().id(2L).nome("Produto 2").categoria("Categoria Teste").preco(50.0).quantidade(1).build();
+        when(produtoRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Arrays.asList(produto, segundo))
+                .thenReturn(List.of());
+
+        Iterable<ProdutoResponseDTO> produtos = produtoService.percorrerProdutos(new ProdutoFiltroDTO("Categoria Teste", null, null, null), 2);
+
+        // nenhuma consulta antes de a resposta começar a ser percorrida
+        verify(produtoRepository, never()).findBy(any(Specification.class), any());
+        List<Long> ids = new ArrayList<>();
+        produtos.forEach(dto -> ids.add(dto.getId()));
+        assertEquals(Arrays.asList(1L, 2L), ids);
+        verify(produtoRepository, times(2)).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void testPercorrerProdutosFaixaDePrecoInvalida() {
+        assertThrows(IllegalArgumentException.class,
+                () -> produtoService.percorrerProdutos(new ProdutoFiltroDTO(null, 10.0, 1.0, null), 10));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarProdutosPaginadosComFiltroEmBranco() {
+        when(produtoRepository.listarDTOsAposId(Long.MIN_VALUE, Limit.of(10))).thenReturn(Arrays.asList(ProdutoResponseDTO.de(produto)));
+
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(new ProdutoFiltroDTO(" ", null, null, ""), null, 10);
+
+        assertEquals(1, pagina.getProdutos().size());
+        verify(produtoRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void testListarProdutosFaixaDePrecoInvalida() {
+        ProdutoFiltroDTO filtro = new ProdutoFiltroDTO(null, 200.0, 100.0, null);
+
+        assertThrows(IllegalArgumentException.class, () -> produtoService.listarProdutosPaginados(filtro, null, 10));
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListarProdutosPaginadosComFiltro() {
+        when(produtoRepository.findBy(any(Specification.class), any())).thenReturn(Arrays.asList(produto));
+
+        ProdutoPaginaDTO pagina = produtoService.listarProdutosPaginados(new ProdutoFiltroDTO("Categoria Teste", null, null, "Prod"), 0L, 1);
+
+        assertEquals(1, pagina.getProdutos().size());
+        assertEquals(1L, pagina.getProximoCursor());
+        verify(produtoRepository, never()).listarDTOsAposId(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testBuscarPorTexto() {
+        ProdutoResponseDTO segundo = new ProdutoResponseDTO(2L, "Produto 2", "Categoria Teste", 50.0, 1, null);
+        when(indiceBusca.buscar("prod", 10)).thenReturn(Arrays.asList(1L, 2L, 3L));
+        // o produto 3 foi removido depois de indexado: é ignorado
+        when(produtoRepository.listarDTOsPorIds(Arrays.asList(1L, 2L, 3L))).thenReturn(Arrays.asList(segundo, ProdutoResponseDTO.de(produto)));
+
+        List<ProdutoResponseDTO> produtos = produtoService.buscarPorTexto("prod", 10);
+
+        assertEquals(2, produtos.size());
+        assertEquals(1L, produtos.get(0).getId());
+        assertEquals(2L, produtos.get(1).getId());
+        verify(produtoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testBuscarPorTextoSemResultados() {
+        when(indiceBusca.buscar("inexistente", 10)).thenReturn(List.of());
+
+        assertTrue(produtoService.buscarPorTexto("inexistente", 10).isEmpty());
+        verify(produtoRepository, never()).listarDTOsPorIds(any());
+    }
+
+    @Test
+    void testBuscarPorTextoLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> produtoService.buscarPorTexto("prod", 0));
+        assertThrows(IllegalArgumentException.class, () -> produtoService.buscarPorTexto("prod", ProdutoService.LIMITE_MAXIMO_BUSCA + 1));
     }
-}
\ No newline at end of file
+}
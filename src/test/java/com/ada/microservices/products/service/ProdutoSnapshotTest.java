@@ -0,0 +1,302 @@
+package com.ada.microservices.products.service;
+
+import com.ada.microservices.products.dto.ProdutoResponseDTO;
+import com.ada.microservices.products.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProdutoSnapshotTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProdutoSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, null);
+    }
+
+    @Test
+    void testDesabilitadoNaoCarrega() {
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, false, 2, null);
+
+        snapshot.afterSingletonsInstantiated();
+        snapshot.atualizar();
+
+        assertFalse(snapshot.isAtivo());
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void testCarregarEmLotesPorCursor() {
+        carregar(produto(1L, "Café Torrado", "Mercearia", "Grãos selecionados", 3L),
+                produto(5L, "Chá Verde", "Mercearia", "", 0L),
+                produto(9L, "Pão", "Padaria", null, null));
+
+        assertTrue(snapshot.isAtivo());
+        assertEquals(3, snapshot.tamanho());
+        ProdutoResponseDTO cafe = snapshot.buscar(1L).orElseThrow();
+        assertEquals("Café Torrado", cafe.getNome());
+        assertEquals("Mercearia", cafe.getCategoria());
+        assertEquals(10.0, cafe.getPreco());
+        assertEquals(1, cafe.getQuantidade());
+        assertEquals("Grãos selecionados", cafe.getDescricao());
+        assertEquals(3L, cafe.getVersao());
+        assertEquals("", snapshot.buscar(5L).orElseThrow().getDescricao());
+        assertNull(snapshot.buscar(9L).orElseThrow().getDescricao());
+        assertNull(snapshot.buscar(9L).orElseThrow().getVersao());
+        assertTrue(snapshot.buscar(2L).isEmpty());
+        // categoria guardada uma única vez no dicionário
+        assertSame(cafe.getCategoria(), snapshot.buscar(5L).orElseThrow().getCategoria());
+        verify(produtoRepository).listarDTOsAposId(Long.MIN_VALUE, Limit.of(2));
+        verify(produtoRepository).listarDTOsAposId(5L, Limit.of(2));
+    }
+
+    @Test
+    void testPaginaPorCursor() {
+        carregar(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", null, 0L), produto(9L, "C", "Y", null, 0L));
+
+        assertEquals(List.of(1L, 5L), ids(snapshot.pagina(Long.MIN_VALUE, 2)));
+        assertEquals(List.of(9L), ids(snapshot.pagina(5L, 2)));
+        assertEquals(List.of(5L, 9L), ids(snapshot.pagina(3L, 10)));
+        assertTrue(snapshot.pagina(9L, 10).isEmpty());
+        assertEquals(List.of(1L, 5L, 9L), ids(snapshot.listar()));
+    }
+
+    @Test
+    void testAtualizarAplicaAlteracoesERemocoes() {
+        carregar(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", "b", 0L), produto(9L, "C", "Y", null, 0L));
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of(
+                produto(5L, "B alterado", "Z", null, 1L),
+                produto(7L, "Novo", "X", "novo", 0L),
+                produto(1L, "A", "X", null, 0L)));
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of(9L, 42L));
+
+        snapshot.atualizar();
+
+        assertEquals(List.of(1L, 5L, 7L), ids(snapshot.listar()));
+        ProdutoResponseDTO alterado = snapshot.buscar(5L).orElseThrow();
+        assertEquals("B alterado", alterado.getNome());
+        assertEquals("Z", alterado.getCategoria());
+        assertNull(alterado.getDescricao());
+        assertEquals(1L, alterado.getVersao());
+        assertEquals("novo", snapshot.buscar(7L).orElseThrow().getDescricao());
+        assertEquals("A", snapshot.buscar(1L).orElseThrow().getNome());
+    }
+
+    @Test
+    void testAtualizarSemAlteracoesNovasMantemAsColunas() {
+        carregar(produto(1L, "A", "X", null, 0L));
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of(produto(1L, "A", "X", null, 0L)));
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of(2L));
+        long ocupados = snapshot.bytesOcupados();
+
+        snapshot.atualizar();
+
+        assertEquals(1, snapshot.tamanho());
+        assertEquals(ocupados, snapshot.bytesOcupados());
+    }
+
+    @Test
+    void testFalhaNaAtualizacaoMantemOSnapshot() {
+        carregar(produto(1L, "A", "X", null, 0L));
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenThrow(new IllegalStateException("banco indisponível"));
+
+        snapshot.atualizar();
+
+        assertEquals("A", snapshot.buscar(1L).orElseThrow().getNome());
+    }
+
+    @Test
+    void testRestaurarDoArquivoSemLerOBanco(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-1");
+        carregar(produto(1L, "Café Torrado", "Mercearia", "Grãos selecionados", 3L),
+                produto(5L, "Chá Verde", "Mercearia", "", 0L),
+                produto(9L, "Pão", "Padaria", null, null));
+        snapshot.gravar();
+        assertTrue(Files.exists(arquivo));
+
+        ProdutoSnapshot restaurado = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        restaurado.afterSingletonsInstantiated();
+
+        assertTrue(restaurado.isAtivo());
+        assertEquals(List.of(1L, 5L, 9L), ids(restaurado.listar()));
+        ProdutoResponseDTO cafe = restaurado.buscar(1L).orElseThrow();
+        assertEquals("Café Torrado", cafe.getNome());
+        assertEquals("Mercearia", cafe.getCategoria());
+        assertEquals(10.0, cafe.getPreco());
+        assertEquals("Grãos selecionados", cafe.getDescricao());
+        assertEquals(3L, cafe.getVersao());
+        assertEquals("", restaurado.buscar(5L).orElseThrow().getDescricao());
+        assertNull(restaurado.buscar(9L).orElseThrow().getDescricao());
+        assertNull(restaurado.buscar(9L).orElseThrow().getVersao());
+        // apenas a carga do primeiro snapshot leu o catálogo
+        verify(produtoRepository, times(1)).listarDTOsAposId(Long.MIN_VALUE, Limit.of(2));
+    }
+
+    @Test
+    void testRestauradoAplicaAlteracoesDesdeOCursorGravado(@TempDir Path diretorio) {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-1");
+        carregar(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", null, 0L));
+        snapshot.gravar();
+        ProdutoSnapshot restaurado = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        restaurado.afterSingletonsInstantiated();
+        when(produtoRepository.listarDTOsAlteradosDesde(any(Instant.class))).thenReturn(List.of(produto(7L, "Novo", "X", null, 0L)));
+        when(produtoRepository.listarIdsRemovidosDesde(any(Instant.class))).thenReturn(List.of(1L));
+
+        restaurado.atualizar();
+
+        assertEquals(List.of(5L, 7L), ids(restaurado.listar()));
+    }
+
+    @Test
+    void testArquivoInvalidoCarregaDoBanco(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        Files.write(arquivo, new byte[]{1, 2, 3});
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-1");
+
+        carregar(produto(1L, "A", "X", null, 0L));
+
+        assertEquals(List.of(1L), ids(snapshot.listar()));
+    }
+
+    @Test
+    void testArquivoDeOutroBancoEDescartado(@TempDir Path diretorio) {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-1");
+        carregar(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", null, 0L));
+        snapshot.gravar();
+
+        // o banco foi recriado (H2 em memória reiniciado) e está vazio
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-2");
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        carregar();
+
+        assertEquals(List.of(), ids(snapshot.listar()));
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void testGravarSomenteQuandoMudou(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        snapshot = new ProdutoSnapshot(produtoRepository, transactionManager, true, 2, arquivo);
+        when(produtoRepository.identidadeDoBanco()).thenReturn("banco-1");
+        carregar(produto(1L, "A", "X", null, 0L));
+        snapshot.gravar();
+        Files.delete(arquivo);
+
+        snapshot.gravar();
+
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void testAlteracaoNumericaCopiaApenasOBlocoETrocaAsLinhasNoLugar() {
+        ProdutoSnapshot.Colunas colunas = colunas(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", "b", 0L),
+                produto(9L, "C", "Y", null, 0L));
+        ProdutoSnapshot.Bloco anterior = colunas.blocos[1];
+
+        ProdutoSnapshot.Colunas novas = colunas.aplicar(List.of(
+                new ProdutoResponseDTO(9L, "C", "Z", 1.5, 7, null, 1L)), List.of());
+
+        assertEquals(2, novas.blocos.length);
+        assertSame(colunas.blocos[0], novas.blocos[0]);
+        assertSame(anterior.ids, novas.blocos[1].ids);
+        assertSame(anterior.textos, novas.blocos[1].textos);
+        ProdutoResponseDTO alterado = novas.buscar(9L).orElseThrow();
+        assertEquals(1.5, alterado.getPreco());
+        assertEquals(7, alterado.getQuantidade());
+        assertEquals("Z", alterado.getCategoria());
+        assertEquals(1L, alterado.getVersao());
+        // as colunas anteriores, ainda em uso por leituras em andamento, não mudam
+        assertEquals(90.0, colunas.buscar(9L).orElseThrow().getPreco());
+    }
+
+    @Test
+    void testInsercaoERemocaoRemontamApenasOsBlocosAfetados() {
+        ProdutoSnapshot.Colunas colunas = colunas(produto(1L, "A", "X", null, 0L), produto(5L, "B", "X", "b", 0L),
+                produto(9L, "C", "Y", null, 0L), produto(12L, "D", "Y", null, 0L));
+
+        ProdutoSnapshot.Colunas novas = colunas.aplicar(List.of(produto(3L, "Novo", "W", "n", 0L)), List.of(12L));
+
+        assertEquals(List.of(1L, 3L, 5L, 9L), ids(novas.pagina(Long.MIN_VALUE, 10)));
+        assertEquals(List.of(5L, 9L), ids(novas.pagina(3L, 2)));
+        assertEquals("n", novas.buscar(3L).orElseThrow().getDescricao());
+        assertEquals("b", novas.buscar(5L).orElseThrow().getDescricao());
+        assertTrue(novas.buscar(12L).isEmpty());
+        assertEquals(4, novas.tamanho);
+    }
+
+    @Test
+    void testArquivoComVariosBlocos(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("produtos.snapshot");
+        ProdutoSnapshot.Colunas colunas = colunas(produto(1L, "Café", "X", null, 0L), produto(5L, "B", "X", "b", 0L),
+                produto(9L, "C", "Y", null, 0L));
+        Instant cursor = Instant.parse("2026-10-01T12:00:00Z");
+
+        ProdutoSnapshotArquivo.gravar(arquivo, colunas, cursor, "banco-1");
+        ProdutoSnapshotArquivo.Conteudo conteudo = ProdutoSnapshotArquivo.ler(arquivo);
+
+        assertEquals(cursor, conteudo.cursor());
+        assertEquals(List.of(1L, 5L, 9L), ids(conteudo.colunas().pagina(Long.MIN_VALUE, 10)));
+        assertEquals("Café", conteudo.colunas().buscar(1L).orElseThrow().getNome());
+        assertNull(conteudo.colunas().buscar(1L).orElseThrow().getDescricao());
+        assertEquals("b", conteudo.colunas().buscar(5L).orElseThrow().getDescricao());
+        assertNull(conteudo.colunas().buscar(9L).orElseThrow().getDescricao());
+    }
+
+    /**
+     * Colunas em blocos de duas linhas.
+     */
+    private static ProdutoSnapshot.Colunas colunas(ProdutoResponseDTO... produtos) {
+        ProdutoSnapshot.Montagem montagem = new ProdutoSnapshot.Montagem(2);
+        for (ProdutoResponseDTO produto : produtos) {
+            montagem.adicionar(produto);
+        }
+        return montagem.concluir();
+    }
+
+    private void carregar(ProdutoResponseDTO... produtos) {
+        long apos = Long.MIN_VALUE;
+        for (int i = 0; i <= produtos.length; i += 2) {
+            List<ProdutoResponseDTO> lote = List.of(produtos).subList(i, Math.min(i + 2, produtos.length));
+            when(produtoRepository.listarDTOsAposId(apos, Limit.of(2))).thenReturn(lote);
+            if (!lote.isEmpty()) {
+                apos = lote.get(lote.size() - 1).getId();
+            }
+        }
+        snapshot.afterSingletonsInstantiated();
+    }
+
+    private static ProdutoResponseDTO produto(Long id, String nome, String categoria, String descricao, Long versao) {
+        return new ProdutoResponseDTO(id, nome, categoria, 10.0 * id, id.intValue(), descricao, versao);
+    }
+
+    private static List<Long> ids(List<ProdutoResponseDTO> produtos) {
+        return produtos.stream().map(ProdutoResponseDTO::getId).toList();
+    }
+}